@@ -0,0 +1,288 @@
+package com.selimhorri.app.config.filter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches successful GET responses of the configured paths in memory with a strong ETag,
+ * answers If-None-Match with 304 without calling the backend, and drops the entries of
+ * the written resource, its sub-resources and its parent collections once a PUT, POST,
+ * PATCH or DELETE goes through the route, plus whatever the configured invalidations map
+ * the write to, for writes that change resources outside their own path. Entries are
+ * keyed by Accept and only served to requests carrying the same values for the headers
+ * the backend listed in Vary.
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+	private final Cache<CacheKey, CachedResponse> cache;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public ResponseCacheGatewayFilterFactory(
+			@Value("${gateway.response-cache.maximum-size:1000}") final long maximumSize,
+			@Value("${gateway.response-cache.ttl:1m}") final Duration ttl) {
+		super(Config.class);
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	@Override
+	public GatewayFilter apply(final Config config) {
+		// response has to be decorated before NettyWriteResponseFilter writes it
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			final ServerHttpRequest request = exchange.getRequest();
+			final String routeId = routeId(exchange);
+			final String rawPath = request.getURI().getRawPath();
+			final String path = request.getPath().pathWithinApplication().value();
+
+			if (request.getMethod() != HttpMethod.GET) {
+				if (request.getMethod() != HttpMethod.HEAD && request.getMethod() != HttpMethod.OPTIONS) {
+					final List<String> evicted = config.evictedBy(path, this.pathMatcher);
+					this.invalidate(routeId, rawPath, evicted);
+					return chain.filter(exchange).doFinally(signal -> this.invalidate(routeId, rawPath, evicted));
+				}
+				return chain.filter(exchange);
+			}
+
+			if (config.getPaths().stream().noneMatch(pattern -> this.pathMatcher.match(pattern, path)))
+				return chain.filter(exchange);
+
+			final CacheKey key = new CacheKey(routeId, rawPath, request.getURI().getRawQuery(),
+					String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT)));
+			final CachedResponse cached = this.cache.getIfPresent(key);
+			if (cached != null && cached.matchesVary(request.getHeaders())) {
+				log.info("**Response cache hit, serving from gateway*\n");
+				return write(exchange.getResponse(), cached, request.getHeaders());
+			}
+
+			return chain.filter(exchange.mutate()
+					.response(new CachingResponseDecorator(exchange.getResponse(), key, request.getHeaders(), this.invalidations.get()))
+					.build());
+		}, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+	}
+
+	/**
+	 * Drops the cached responses of the given path, of everything below it, of the
+	 * collections above it and of everything below the evicted paths, whatever their
+	 * query string or representation.
+	 */
+	public void invalidate(final String routeId, final String path, final List<String> evicted) {
+		this.invalidations.incrementAndGet();
+		this.cache.asMap().keySet().removeIf(key -> key.getRouteId().equals(routeId)
+				&& (related(key.getPath(), path) || related(path, key.getPath())
+						|| evicted.stream().anyMatch(prefix -> related(prefix, key.getPath()))));
+	}
+
+	private static boolean related(final String ancestor, final String path) {
+		final String prefix = ancestor.endsWith("/") ? ancestor : ancestor + "/";
+		return path.equals(ancestor) || path.startsWith(prefix);
+	}
+
+	private static Mono<Void> write(final ServerHttpResponse response, final CachedResponse cached, final HttpHeaders requestHeaders) {
+		response.getHeaders().putAll(cached.getHeaders());
+		response.getHeaders().setETag(cached.getEtag());
+		if (matches(requestHeaders, cached.getEtag())) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			return response.setComplete();
+		}
+		response.setStatusCode(HttpStatus.OK);
+		response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+		response.getHeaders().setContentLength(cached.getBody().length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+	}
+
+	private static boolean matches(final HttpHeaders requestHeaders, final String etag) {
+		return requestHeaders.getIfNoneMatch().stream()
+				.flatMap(value -> Arrays.stream(value.split(",")))
+				.map(String::trim)
+				.map(value -> value.startsWith("W/") ? value.substring(2) : value)
+				.anyMatch(value -> value.equals("*") || value.equals(etag));
+	}
+
+	private static String etag(final byte[] body) {
+		try {
+			return "\"" + Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(MessageDigest.getInstance("SHA-256").digest(body)) + "\"";
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String routeId(final ServerWebExchange exchange) {
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		return route == null ? "" : route.getId();
+	}
+
+	private final class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final CacheKey key;
+		private final HttpHeaders requestHeaders;
+		private final long invalidationsAtFetch;
+
+		CachingResponseDecorator(final ServerHttpResponse delegate, final CacheKey key, final HttpHeaders requestHeaders,
+				final long invalidationsAtFetch) {
+			super(delegate);
+			this.key = key;
+			this.requestHeaders = requestHeaders;
+			this.invalidationsAtFetch = invalidationsAtFetch;
+		}
+
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			final List<String> vary = this.getHeaders().getVary();
+			if (this.getStatusCode() != HttpStatus.OK || this.getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+					|| vary.contains("*"))
+				return super.writeWith(body);
+
+			return DataBufferUtils.join(Flux.from(body)).flatMap(buffer -> {
+				final byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				DataBufferUtils.release(buffer);
+
+				final HttpHeaders headers = new HttpHeaders();
+				headers.putAll(this.getHeaders());
+				headers.remove(HttpHeaders.ETAG);
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+				headers.remove(HttpHeaders.TRANSFER_ENCODING);
+				final Map<String, List<String>> varyValues = new LinkedHashMap<>();
+				vary.forEach(name -> varyValues.put(name, this.requestHeaders.get(name)));
+
+				final CachedResponse cached = new CachedResponse(etag(bytes), headers, varyValues, bytes);
+				this.store(cached);
+				return write(this.getDelegate(), cached, this.requestHeaders);
+			});
+		}
+
+		/**
+		 * A response fetched before the latest invalidation may predate the write, so it
+		 * is served but not kept.
+		 */
+		private void store(final CachedResponse cached) {
+			if (invalidations.get() != this.invalidationsAtFetch)
+				return;
+			cache.put(this.key, cached);
+			if (invalidations.get() != this.invalidationsAtFetch)
+				cache.asMap().remove(this.key, cached);
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return this.writeWith(Flux.from(body).flatMapSequential(p -> p));
+		}
+
+	}
+
+	@Getter
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static final class CacheKey {
+
+		private final String routeId;
+		private final String path;
+		private final String query;
+		private final String accept;
+
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	private static final class CachedResponse {
+
+		private final String etag;
+		private final HttpHeaders headers;
+		private final Map<String, List<String>> varyValues;
+		private final byte[] body;
+
+		boolean matchesVary(final HttpHeaders requestHeaders) {
+			return this.varyValues.entrySet().stream()
+					.allMatch(entry -> Objects.equals(entry.getValue(), requestHeaders.get(entry.getKey())));
+		}
+
+	}
+
+	@Data
+	public static class Config {
+
+		private List<String> paths = new ArrayList<>();
+		private List<Invalidation> invalidations = new ArrayList<>();
+
+		List<String> evictedBy(final String path, final AntPathMatcher pathMatcher) {
+			return this.invalidations.stream()
+					.filter(invalidation -> pathMatcher.match(invalidation.getWrites(), path))
+					.flatMap(invalidation -> invalidation.getEvicts().stream())
+					.collect(Collectors.toUnmodifiableList());
+		}
+
+	}
+
+	/**
+	 * Writes matching {@code writes} also drop the cached responses under each of the
+	 * {@code evicts} paths.
+	 */
+	@Data
+	public static class Invalidation {
+
+		private String writes;
+		private List<String> evicts = new ArrayList<>();
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,72 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lock-free local buckets: each key holds an immutable bucket state swapped by CAS, and
+ * tokens are refilled lazily from the elapsed time. Idle buckets are evicted.
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+	private final Cache<String, AtomicReference<Bucket>> buckets;
+	private final LongSupplier nanoTime;
+
+	public InMemoryTokenBucketStore(final long maximumSize, final Duration idleTimeout) {
+		this(maximumSize, idleTimeout, System::nanoTime);
+	}
+
+	InMemoryTokenBucketStore(final long maximumSize, final Duration idleTimeout, final LongSupplier nanoTime) {
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(idleTimeout)
+				.build();
+		this.nanoTime = nanoTime;
+	}
+
+	@Override
+	public Mono<Consumption> tryConsume(final String key, final int replenishRate, final int burstCapacity, final int requestedTokens) {
+		final AtomicReference<Bucket> bucket = this.buckets.get(key,
+				k -> new AtomicReference<>(new Bucket(burstCapacity, this.nanoTime.getAsLong())));
+
+		while (true) {
+			final Bucket current = bucket.get();
+			final long now = this.nanoTime.getAsLong();
+			final double elapsedSeconds = Math.max(0L, now - current.timestamp) / (double) TimeUnit.SECONDS.toNanos(1);
+			final double available = Math.min(burstCapacity, current.tokens + elapsedSeconds * replenishRate);
+			final boolean allowed = available >= requestedTokens;
+			final Bucket next = new Bucket(allowed ? available - requestedTokens : available, now);
+			if (bucket.compareAndSet(current, next))
+				return Mono.just(new Consumption(allowed, (long) next.tokens));
+		}
+	}
+
+	@RequiredArgsConstructor
+	private static final class Bucket {
+
+		private final double tokens;
+		private final long timestamp;
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,112 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Min;
+
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Token-bucket RateLimiter for the RequestRateLimiter filter, keyed by route and
+ * principal. Limits come from the filter args of a route, then from
+ * gateway.rate-limiter.routes, then from the gateway.rate-limiter defaults.
+ */
+@Component
+@Slf4j
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+	public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+	public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+	public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+	public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+	public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+	private final TokenBucketStore tokenBucketStore;
+	private final RateLimiterProperties rateLimiterProperties;
+	private final MeterRegistry meterRegistry;
+
+	public LocalRateLimiter(
+			final TokenBucketStore tokenBucketStore,
+			final RateLimiterProperties rateLimiterProperties,
+			final MeterRegistry meterRegistry,
+			final ConfigurationService configurationService) {
+		super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+		this.tokenBucketStore = tokenBucketStore;
+		this.rateLimiterProperties = rateLimiterProperties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Mono<Response> isAllowed(final String routeId, final String id) {
+		final Config config = Optional.ofNullable(this.getConfig().get(routeId))
+				.or(() -> Optional.ofNullable(this.rateLimiterProperties.getRoutes().get(routeId)))
+				.orElse(this.rateLimiterProperties);
+
+		return this.tokenBucketStore.tryConsume(routeId + ":" + id,
+					config.getReplenishRate(), config.getBurstCapacity(), config.getRequestedTokens())
+				.map(consumption -> {
+					this.meterRegistry.counter("gateway.ratelimit.requests",
+							"route", routeId, "outcome", consumption.isAllowed() ? "allowed" : "rejected")
+						.increment();
+					if (!consumption.isAllowed())
+						log.info("**Rate limit exceeded, rejecting request on route {}*\n", routeId);
+					return new Response(consumption.isAllowed(), this.headers(config, consumption.getRemainingTokens()));
+				});
+	}
+
+	private Map<String, String> headers(final Config config, final long remainingTokens) {
+		final Map<String, String> headers = new HashMap<>();
+		headers.put(REMAINING_HEADER, String.valueOf(remainingTokens));
+		headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+		headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+		headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+		return headers;
+	}
+
+	@Data
+	@Validated
+	public static class Config {
+
+		@Min(1)
+		private int replenishRate = 50;
+
+		@Min(1)
+		private int burstCapacity = 100;
+
+		@Min(1)
+		private int requestedTokens = 1;
+
+		/**
+		 * A request costing more than the bucket holds could never be allowed.
+		 */
+		@AssertTrue(message = "requestedTokens must not exceed burstCapacity")
+		public boolean isRequestedTokensWithinBurstCapacity() {
+			return this.requestedTokens <= this.burstCapacity;
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
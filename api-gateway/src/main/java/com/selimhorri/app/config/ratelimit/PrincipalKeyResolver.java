@@ -0,0 +1,88 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limit key of a request: the subject of a bearer token whose signature checks
+ * out, otherwise the client address. X-Forwarded-For is only followed when the peer
+ * is one of the configured trusted proxies, so a client can not pick its own bucket.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalKeyResolver implements KeyResolver {
+
+	private final RateLimiterProperties rateLimiterProperties;
+
+	@Override
+	public Mono<String> resolve(final ServerWebExchange exchange) {
+		final ServerHttpRequest request = exchange.getRequest();
+		final String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authorization != null && authorization.startsWith("Bearer ")) {
+			final String subject = this.subject(authorization.substring(7));
+			if (subject != null)
+				return Mono.just("user:" + subject);
+		}
+
+		return Mono.justOrEmpty(Optional.ofNullable(request.getRemoteAddress())
+				.map(InetSocketAddress::getAddress)
+				.map(address -> "ip:" + this.clientAddress(address.getHostAddress(),
+						request.getHeaders().getOrEmpty("X-Forwarded-For"))));
+	}
+
+	private String subject(final String token) {
+		try {
+			return Jwts.parser()
+					.setSigningKey(this.rateLimiterProperties.getJwtSecret())
+					.parseClaimsJws(token)
+					.getBody()
+					.getSubject();
+		}
+		catch (JwtException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Walks X-Forwarded-For from the nearest hop back while the hop is a trusted proxy;
+	 * the first address that is not one is the client.
+	 */
+	private String clientAddress(final String peer, final List<String> forwardedFor) {
+		final List<String> trustedProxies = this.rateLimiterProperties.getTrustedProxies();
+		String client = peer;
+		final List<String> hops = forwardedFor.stream()
+				.flatMap(value -> Arrays.stream(value.split(",")))
+				.map(String::trim)
+				.filter(hop -> !hop.isEmpty())
+				.collect(Collectors.toList());
+		for (int i = hops.size() - 1; i >= 0 && trustedProxies.contains(client); i--)
+			client = hops.get(i);
+		return client;
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimiterProperties.class)
+public class RateLimiterConfig {
+
+	/**
+	 * Per-instance buckets; declaring another TokenBucketStore bean (e.g. a shared
+	 * Redis store) replaces it.
+	 */
+	@Bean
+	@ConditionalOnMissingBean(TokenBucketStore.class)
+	public TokenBucketStore inMemoryTokenBucketStoreBean(final RateLimiterProperties rateLimiterProperties) {
+		return new InMemoryTokenBucketStore(rateLimiterProperties.getMaximumBuckets(),
+				rateLimiterProperties.getIdleTimeout());
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,50 @@
+package com.selimhorri.app.config.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Valid;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Validated
+@ConfigurationProperties(prefix = "gateway.rate-limiter")
+public class RateLimiterProperties extends LocalRateLimiter.Config {
+
+	private long maximumBuckets = 100_000;
+	private Duration idleTimeout = Duration.ofMinutes(10);
+	@Valid
+	private Map<String, LocalRateLimiter.Config> routes = new HashMap<>();
+
+	/**
+	 * Key the proxy-client signs its tokens with; only a token verified against it is
+	 * rate limited by its subject.
+	 */
+	private String jwtSecret = "secret";
+
+	/**
+	 * Addresses of the load balancers in front of the gateway, the only peers whose
+	 * X-Forwarded-For is believed.
+	 */
+	private List<String> trustedProxies = new ArrayList<>();
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,34 @@
+package com.selimhorri.app.config.ratelimit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Storage of the token buckets behind LocalRateLimiter. The in-memory implementation
+ * limits per gateway instance; a shared store (e.g. Redis) limits across instances.
+ */
+public interface TokenBucketStore {
+
+	Mono<Consumption> tryConsume(final String key, final int replenishRate, final int burstCapacity, final int requestedTokens);
+
+	@Getter
+	@RequiredArgsConstructor
+	final class Consumption {
+
+		private final boolean allowed;
+		private final long remainingTokens;
+
+	}
+
+}
+
+
+
+
+
+
+
+
+
+
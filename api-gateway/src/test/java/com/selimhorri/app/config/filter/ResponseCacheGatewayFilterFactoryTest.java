@@ -0,0 +1,222 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String PRODUCTS_PATH = "/product-service/api/products";
+    private static final String CATEGORIES_PATH = "/product-service/api/categories";
+
+    private final Route route = Route.async()
+            .id("PRODUCT-SERVICE")
+            .uri("lb://PRODUCT-SERVICE")
+            .predicate(exchange -> true)
+            .build();
+
+    private GatewayFilter filter;
+    private AtomicInteger backendCalls;
+    private GatewayFilterChain backend;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setPaths(List.of(PRODUCTS_PATH + "/**", CATEGORIES_PATH + "/**"));
+        config.setInvalidations(List.of(
+                invalidation(CATEGORIES_PATH + "/**", CATEGORIES_PATH, PRODUCTS_PATH),
+                invalidation(PRODUCTS_PATH + "/reservations/**", PRODUCTS_PATH),
+                invalidation(PRODUCTS_PATH + "/**", PRODUCTS_PATH + "/search")));
+        filter = new ResponseCacheGatewayFilterFactory(100, Duration.ofMinutes(1)).apply(config);
+
+        backendCalls = new AtomicInteger();
+        backend = exchange -> {
+            byte[] body = ("{\"call\":" + backendCalls.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+
+    @Test
+    void get_servesRepeatedRequestFromCacheWithSameEtag() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PRODUCTS_PATH));
+        filter.filter(first, backend).block();
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get(PRODUCTS_PATH));
+        filter.filter(second, backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(1);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+        assertThat(second.getResponse().getHeaders().getETag())
+                .isNotNull()
+                .isEqualTo(first.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void get_withMatchingIfNoneMatch_returnsNotModified() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PRODUCTS_PATH));
+        filter.filter(first, backend).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get(PRODUCTS_PATH).ifNoneMatch(etag));
+        filter.filter(conditional, backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(1);
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void put_invalidatesCachedResponsesOfTheRoute() {
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH)), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.put(PRODUCTS_PATH)), exchange -> Mono.empty()).block();
+        MockServerWebExchange afterUpdate = exchange(MockServerHttpRequest.get(PRODUCTS_PATH));
+        filter.filter(afterUpdate, backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(2);
+        assertThat(afterUpdate.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    void put_keepsCachedResponsesOfUnrelatedResources() {
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/1")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/2")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH)), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.put(PRODUCTS_PATH + "/1")), exchange -> Mono.empty()).block();
+
+        MockServerWebExchange other = exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/2"));
+        filter.filter(other, backend).block();
+        MockServerWebExchange updated = exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/1"));
+        filter.filter(updated, backend).block();
+        MockServerWebExchange collection = exchange(MockServerHttpRequest.get(PRODUCTS_PATH));
+        filter.filter(collection, backend).block();
+
+        // solo el recurso escrito y su coleccion vuelven al backend
+        assertThat(other.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+        assertThat(updated.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":4}");
+        assertThat(collection.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":5}");
+    }
+
+    @Test
+    void put_onCategory_dropsCachedProductsEmbeddingIt() {
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/1")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.get(CATEGORIES_PATH + "/2")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.put(CATEGORIES_PATH + "/3")), exchange -> Mono.empty()).block();
+
+        MockServerWebExchange product = exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/1"));
+        filter.filter(product, backend).block();
+        MockServerWebExchange category = exchange(MockServerHttpRequest.get(CATEGORIES_PATH + "/2"));
+        filter.filter(category, backend).block();
+
+        // el producto lleva el titulo de su categoria
+        assertThat(product.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":3}");
+        assertThat(category.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":4}");
+    }
+
+    @Test
+    void post_onReservation_dropsCachedProductsAndSearches() {
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/1")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/search").queryParam("q", "desk")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.post(PRODUCTS_PATH + "/reservations/r-1/release")),
+                exchange -> Mono.empty()).block();
+
+        MockServerWebExchange product = exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/1"));
+        filter.filter(product, backend).block();
+        MockServerWebExchange search = exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/search").queryParam("q", "desk"));
+        filter.filter(search, backend).block();
+
+        assertThat(product.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":3}");
+        assertThat(search.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":4}");
+    }
+
+    @Test
+    void put_onProduct_dropsCachedSearches() {
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/search").queryParam("q", "desk")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.put(PRODUCTS_PATH + "/1")), exchange -> Mono.empty()).block();
+
+        MockServerWebExchange search = exchange(MockServerHttpRequest.get(PRODUCTS_PATH + "/search").queryParam("q", "desk"));
+        filter.filter(search, backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_inFlightDuringInvalidation_isNotStored() {
+        GatewayFilterChain slowBackend = exchange -> {
+            filter.filter(exchange(MockServerHttpRequest.put(PRODUCTS_PATH)), ignored -> Mono.empty()).block();
+            return backend.filter(exchange);
+        };
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH)), slowBackend).block();
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH)), backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_withDifferentAccept_isCachedSeparately() {
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH).accept(MediaType.APPLICATION_JSON)), backend).block();
+        MockServerWebExchange xml = exchange(MockServerHttpRequest.get(PRODUCTS_PATH).accept(MediaType.APPLICATION_XML));
+        filter.filter(xml, backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(2);
+        assertThat(xml.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    void get_honoursVaryAndKeepsResponseHeaders() {
+        GatewayFilterChain varyingBackend = exchange -> {
+            exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+            exchange.getResponse().getHeaders().setCacheControl("max-age=60");
+            return backend.filter(exchange);
+        };
+        filter.filter(exchange(MockServerHttpRequest.get(PRODUCTS_PATH).header(HttpHeaders.ACCEPT_LANGUAGE, "es")), varyingBackend).block();
+        MockServerWebExchange sameLanguage = exchange(MockServerHttpRequest.get(PRODUCTS_PATH).header(HttpHeaders.ACCEPT_LANGUAGE, "es"));
+        filter.filter(sameLanguage, varyingBackend).block();
+        MockServerWebExchange otherLanguage = exchange(MockServerHttpRequest.get(PRODUCTS_PATH).header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+        filter.filter(otherLanguage, varyingBackend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(2);
+        assertThat(sameLanguage.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+        assertThat(sameLanguage.getResponse().getHeaders().getCacheControl()).isEqualTo("max-age=60");
+        assertThat(sameLanguage.getResponse().getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_LANGUAGE);
+        assertThat(otherLanguage.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    void get_outsideConfiguredPaths_isNotCached() {
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/actuator/health")), backend).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/actuator/health")), backend).block();
+
+        assertThat(backendCalls.get()).isEqualTo(2);
+    }
+
+    private static ResponseCacheGatewayFilterFactory.Invalidation invalidation(String writes, String... evicts) {
+        ResponseCacheGatewayFilterFactory.Invalidation invalidation = new ResponseCacheGatewayFilterFactory.Invalidation();
+        invalidation.setWrites(writes);
+        invalidation.setEvicts(List.of(evicts));
+        return invalidation;
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+}
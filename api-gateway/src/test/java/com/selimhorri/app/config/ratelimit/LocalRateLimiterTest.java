@@ -0,0 +1,73 @@
+package com.selimhorri.app.config.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private LocalRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimiterProperties properties = new RateLimiterProperties();
+        properties.setReplenishRate(1);
+        properties.setBurstCapacity(3);
+
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LocalRateLimiter(
+                new InMemoryTokenBucketStore(100, Duration.ofMinutes(1), nanoTime::get),
+                properties,
+                meterRegistry,
+                mock(ConfigurationService.class));
+    }
+
+    @Test
+    void isAllowed_rejectsOnceBurstCapacityIsSpent() {
+        for (int i = 2; i >= 0; i--) {
+            Response response = rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block();
+            assertThat(response.isAllowed()).isTrue();
+            assertThat(response.getHeaders()).containsEntry(LocalRateLimiter.REMAINING_HEADER, String.valueOf(i));
+        }
+
+        Response rejected = rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block();
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(meterRegistry.counter("gateway.ratelimit.requests",
+                "route", "PRODUCT-SERVICE", "outcome", "rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void isAllowed_refillsTokensOverTime() {
+        for (int i = 0; i < 3; i++)
+            rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block();
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertThat(rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void isAllowed_keepsSeparateBucketsPerPrincipalAndRoute() {
+        for (int i = 0; i < 3; i++)
+            rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.1").block();
+
+        assertThat(rateLimiter.isAllowed("PRODUCT-SERVICE", "ip:10.0.0.2").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("ORDER-SERVICE", "ip:10.0.0.1").block().isAllowed()).isTrue();
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.selimhorri.app.config.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+class PrincipalKeyResolverTest {
+
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("203.0.113.7", 52000);
+    private static final InetSocketAddress PROXY = new InetSocketAddress("10.0.0.1", 52000);
+
+    private PrincipalKeyResolver keyResolver;
+
+    @BeforeEach
+    void setUp() {
+        RateLimiterProperties properties = new RateLimiterProperties();
+        properties.setJwtSecret("secret");
+        properties.setTrustedProxies(List.of("10.0.0.1"));
+        keyResolver = new PrincipalKeyResolver(properties);
+    }
+
+    @Test
+    void resolve_withVerifiedToken_keysOnSubject() {
+        String key = keyResolver.resolve(exchange(MockServerHttpRequest.get("/")
+                .remoteAddress(CLIENT)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("alice", "secret")))).block();
+
+        assertThat(key).isEqualTo("user:alice");
+    }
+
+    @Test
+    void resolve_withForgedToken_keysOnClientAddress() {
+        String key = keyResolver.resolve(exchange(MockServerHttpRequest.get("/")
+                .remoteAddress(CLIENT)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("alice", "other")))).block();
+
+        assertThat(key).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void resolve_ignoresForwardedForFromUntrustedPeer() {
+        String key = keyResolver.resolve(exchange(MockServerHttpRequest.get("/")
+                .remoteAddress(CLIENT)
+                .header("X-Forwarded-For", "198.51.100.1"))).block();
+
+        assertThat(key).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void resolve_followsForwardedForThroughTrustedProxy() {
+        // el primer salto es falsificable por el cliente, cuenta el que añadio el proxy
+        String key = keyResolver.resolve(exchange(MockServerHttpRequest.get("/")
+                .remoteAddress(PROXY)
+                .header("X-Forwarded-For", "198.51.100.1, 203.0.113.7"))).block();
+
+        assertThat(key).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void properties_rejectRequestedTokensAboveBurstCapacity() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+                .withUserConfiguration(RateLimiterConfig.class)
+                .withPropertyValues("gateway.rate-limiter.routes.PRODUCT-SERVICE.burst-capacity=5");
+
+        contextRunner.withPropertyValues("gateway.rate-limiter.routes.PRODUCT-SERVICE.requested-tokens=5")
+                .run(context -> assertThat(context).hasNotFailed());
+        contextRunner.withPropertyValues("gateway.rate-limiter.routes.PRODUCT-SERVICE.requested-tokens=10")
+                .run(context -> assertThat(context).getFailure()
+                        .hasStackTraceContaining("requestedTokens must not exceed burstCapacity"));
+    }
+
+    private static String token(String subject, String secret) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.selimhorri.app.benchmark.pipeline;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.OrderMappingHelper;
+
+/**
+ * The OrderServiceImpl.findAll pipeline over already fetched rows: the former distinct()
+ * stage hashing every OrderDto through Lombok's equals/hashCode, a dedup keyed on the id,
+ * and the plain mapping used now that rows are unique by primary key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindAllPipelineBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int rows;
+
+	private List<Order> orders;
+
+	@Setup
+	public void setup() {
+		final LocalDateTime orderDate = LocalDateTime.now();
+		this.orders = IntStream.range(0, this.rows)
+				.mapToObj(i -> Order.builder()
+						.orderId(i)
+						.orderDate(orderDate)
+						.orderDesc("order-" + i)
+						.orderFee(i * 1.5)
+						.cart(Cart.builder()
+								.cartId(i % 1000)
+								.userId(i % 1000)
+								.build())
+						.build())
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Benchmark
+	public List<OrderDto> mapDistinct() {
+		return this.orders.stream()
+				.map(OrderMappingHelper::map)
+				.distinct()
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Benchmark
+	public Collection<OrderDto> mapDistinctById() {
+		return this.orders.stream()
+				.map(OrderMappingHelper::map)
+				.collect(Collectors.toMap(OrderDto::getOrderId, Function.identity(), (a, b) -> a, LinkedHashMap::new))
+				.values();
+	}
+	
+	@Benchmark
+	public List<OrderDto> mapOnly() {
+		return this.orders.stream()
+				.map(OrderMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,102 @@
+package com.selimhorri.app.benchmark.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+import com.selimhorri.app.helper.ProductSearchIndex;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+	private static final String[] WORDS = { "asus", "laptop", "gaming", "wireless", "mouse", "keyboard",
+			"monitor", "curved", "ultra", "silent", "portable", "speaker", "charger", "desk", "lamp" };
+
+	@Param({ "10000", "100000" })
+	private int size;
+
+	private ProductSearchIndex productSearchIndex;
+
+	@Setup
+	public void setup() throws IOException {
+		this.productSearchIndex = new ProductSearchIndex(new ByteBuffersDirectory());
+		final List<Product> products = new ArrayList<>(this.size);
+		for (int i = 1; i <= this.size; i++)
+			products.add(Product.builder()
+					.productId(i)
+					.productTitle(WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i)
+					.sku(String.format("SKU-%08d", i))
+					.priceUnit(10.0)
+					.quantity(5)
+					.category(Category.builder()
+							.categoryId(i % 20 + 1)
+							.categoryTitle("Computer")
+							.categoryPath("/" + (i % 20 + 1) + "/")
+							.build())
+					.build());
+		this.productSearchIndex.index(products);
+		this.productSearchIndex.commit();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.productSearchIndex.close();
+	}
+
+	@Benchmark
+	public DtoPageResponse<ProductDto> searchWords() {
+		return this.productSearchIndex.search("wireless keyboard", 0, 20);
+	}
+
+	@Benchmark
+	public DtoPageResponse<ProductDto> searchPrefix() {
+		return this.productSearchIndex.search("port", 0, 20);
+	}
+
+	@Benchmark
+	public DtoPageResponse<ProductDto> searchTypo() {
+		return this.productSearchIndex.search("keybaord", 0, 20);
+	}
+
+	@Benchmark
+	public DtoPageResponse<ProductDto> searchSku() {
+		return this.productSearchIndex.search("sku-0000123", 0, 20);
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,83 @@
+package com.selimhorri.app.benchmark.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+/**
+ * Jackson cost of a product listing response, using the same ObjectMapper the
+ * service registers, written to a discarding stream so only serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoCollectionSerializationBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private DtoCollectionResponse<ProductDto> response;
+
+	@Setup
+	public void setup() {
+		this.objectMapper = new MapperConfig().objectMapperBean();
+		final CategoryDto categoryDto = CategoryDto.builder()
+				.categoryId(1)
+				.categoryTitle("Computer")
+				.imageUrl("xxx")
+				.build();
+		this.response = new DtoCollectionResponse<>(IntStream.range(0, this.size)
+				.mapToObj(i -> ProductDto.builder()
+						.productId(i)
+						.productTitle("product-" + i)
+						.imageUrl("xxx")
+						.sku("sku-" + i)
+						.priceUnit(i * 1.5)
+						.quantity(i % 100)
+						.categoryDto(categoryDto)
+						.build())
+				.collect(Collectors.toUnmodifiableList()));
+	}
+
+	@Benchmark
+	public void serialize() throws IOException {
+		this.objectMapper.writeValue(OutputStream.nullOutputStream(), this.response);
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
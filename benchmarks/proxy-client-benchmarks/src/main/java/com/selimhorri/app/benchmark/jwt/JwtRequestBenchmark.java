@@ -0,0 +1,96 @@
+package com.selimhorri.app.benchmark.jwt;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Per-request JWT cost in JwtRequestFilter: the former path parsed and verified the
+ * token three times, the current one parses it once and reuses the verified claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRequestBenchmark {
+
+	private static final String SECRET_KEY = "secret";
+
+	private JwtUtilImpl cachingJwtUtil;
+	private JwtUtilImpl uncachedJwtUtil;
+	private UserDetails userDetails;
+	private String token;
+
+	@Setup
+	public void setup() {
+		this.cachingJwtUtil = new JwtUtilImpl(10_000L, Duration.ofMinutes(5));
+		this.uncachedJwtUtil = new JwtUtilImpl(10_000L, Duration.ZERO);
+		this.userDetails = User.withUsername("selimhorri")
+				.password("")
+				.authorities("ROLE_USER")
+				.build();
+		this.token = this.cachingJwtUtil.generateToken(this.userDetails);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return this.cachingJwtUtil.generateToken(this.userDetails);
+	}
+	
+	@Benchmark
+	public boolean parsePerClaim() {
+		final String username = parse(this.token).getSubject();
+		return username.equals(this.userDetails.getUsername())
+				&& parse(this.token).getSubject().equals(this.userDetails.getUsername())
+				&& !parse(this.token).getExpiration().before(new Date());
+	}
+
+	@Benchmark
+	public boolean parseOnce() {
+		final Claims claims = this.uncachedJwtUtil.extractAllClaims(this.token);
+		return this.uncachedJwtUtil.validateToken(claims, this.userDetails);
+	}
+
+	@Benchmark
+	public boolean parseOnceVerifiedTokenCacheHit() {
+		final Claims claims = this.cachingJwtUtil.extractAllClaims(this.token);
+		return this.cachingJwtUtil.validateToken(claims, this.userDetails);
+	}
+
+	private static Claims parse(final String token) {
+		return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,63 @@
+package com.selimhorri.app.benchmark.helper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.helper.OrderItemMappingHelper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderItemMappingHelperBenchmark {
+
+	private OrderItem orderItem;
+	private OrderItemDto orderItemDto;
+
+	@Setup
+	public void setup() {
+		this.orderItem = OrderItem.builder()
+				.productId(1)
+				.orderId(1)
+				.orderedQuantity(3)
+				.build();
+		this.orderItemDto = OrderItemMappingHelper.map(this.orderItem);
+	}
+
+	@Benchmark
+	public OrderItemDto mapToDto() {
+		return OrderItemMappingHelper.map(this.orderItem);
+	}
+
+	@Benchmark
+	public OrderItem mapToEntity() {
+		return OrderItemMappingHelper.map(this.orderItemDto);
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,46 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of favourites a product has, kept in step with the favourites table by
+ * atomic updates so a like count never needs a scan of the favourites.
+ */
+@Entity
+@Table(name = "product_like_counts")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class ProductLikeCount implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "product_id", unique = true, nullable = false, updatable = false)
+	private Integer productId;
+	
+	@Column(name = "like_count", nullable = false)
+	private Long likeCount;
+	
+}
+
+
+
+
+
+
+
+
+
+
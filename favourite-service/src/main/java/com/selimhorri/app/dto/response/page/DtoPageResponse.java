@@ -0,0 +1,36 @@
+package com.selimhorri.app.dto.response.page;
+
+import java.util.Collection;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class DtoPageResponse<T> {
+	
+	private Collection<T> collection;
+	private Integer page;
+	private Integer size;
+	private Long totalElements;
+	private Integer totalPages;
+	
+}
+
+
+
+
+
+
+
+
+
+
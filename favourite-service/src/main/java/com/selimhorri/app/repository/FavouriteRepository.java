@@ -1,5 +1,7 @@
 package com.selimhorri.app.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.selimhorri.app.domain.Favourite;
@@ -7,6 +9,8 @@ import com.selimhorri.app.domain.id.FavouriteId;
 
 public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId> {
 	
+	Page<Favourite> findByUserId(final Integer userId, final Pageable pageable);
 	
+	Page<Favourite> findByProductId(final Integer productId, final Pageable pageable);
 	
 }
@@ -0,0 +1,35 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.ProductLikeCount;
+
+public interface ProductLikeCountRepository extends JpaRepository<ProductLikeCount, Integer> {
+	
+	List<ProductLikeCount> findByProductIdIn(final Collection<Integer> productIds);
+	
+	/**
+	 * Plain insert rather than {@code save}, whose merge would overwrite a row another
+	 * transaction created in the meantime.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO product_like_counts (product_id, like_count) VALUES (:productId, 0)", 
+			nativeQuery = true)
+	int insertLikeCount(@Param("productId") final Integer productId);
+	
+	@Modifying
+	@Query("UPDATE ProductLikeCount c SET c.likeCount = c.likeCount + 1 WHERE c.productId = :productId")
+	int incrementLikeCount(@Param("productId") final Integer productId);
+	
+	@Modifying
+	@Query("UPDATE ProductLikeCount c SET c.likeCount = c.likeCount - 1 "
+			+ "WHERE c.productId = :productId AND c.likeCount > 0")
+	int decrementLikeCount(@Param("productId") final Integer productId);
+	
+}
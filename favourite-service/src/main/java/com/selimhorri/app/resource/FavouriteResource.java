@@ -2,10 +2,14 @@ package com.selimhorri.app.resource;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Set;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,7 +23,9 @@ import org.springframework.web.bind.annotation.RestController;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductLikeCountDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.service.FavouriteService;
 
 import lombok.RequiredArgsConstructor;
@@ -59,6 +65,38 @@ public class FavouriteResource {
 		return ResponseEntity.ok(this.favouriteService.findById(favouriteId));
 	}
 	
+	@GetMapping("/users/{userId}")
+	public ResponseEntity<DtoPageResponse<FavouriteDto>> findAllByUserId(
+			@PathVariable("userId") final String userId, 
+			@PageableDefault(size = 20, sort = "likeDate", direction = Direction.DESC) final Pageable pageable) {
+		log.info("*** FavouriteDto Page, controller; fetch favourites page by userId *");
+		return ResponseEntity.ok(this.favouriteService.findAllByUserId(Integer.parseInt(userId), pageable));
+	}
+	
+	@GetMapping("/products/{productId}")
+	public ResponseEntity<DtoPageResponse<FavouriteDto>> findAllByProductId(
+			@PathVariable("productId") final String productId, 
+			@PageableDefault(size = 20, sort = "likeDate", direction = Direction.DESC) final Pageable pageable) {
+		log.info("*** FavouriteDto Page, controller; fetch favourites page by productId *");
+		return ResponseEntity.ok(this.favouriteService.findAllByProductId(Integer.parseInt(productId), pageable));
+	}
+	
+	@GetMapping("/products/{productId}/likes")
+	public ResponseEntity<ProductLikeCountDto> findLikeCount(
+			@PathVariable("productId") final String productId) {
+		log.info("*** ProductLikeCountDto, controller; fetch like count by productId *");
+		return ResponseEntity.ok(this.favouriteService.findLikeCounts(Set.of(Integer.parseInt(productId))).get(0));
+	}
+	
+	@PostMapping("/products/likes/batch")
+	public ResponseEntity<DtoCollectionResponse<ProductLikeCountDto>> findLikeCounts(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final Set<Integer> productIds) {
+		log.info("*** ProductLikeCountDto List, controller; fetch like counts by productIds *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findLikeCounts(productIds)));
+	}
+	
 	@PostMapping
 	public ResponseEntity<FavouriteDto> save(
 			@RequestBody 
@@ -0,0 +1,68 @@
+package com.selimhorri.app.resource;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ReactiveFavouriteService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of the favourite reads; the servlet thread is released while the
+ * favourites are being enriched.
+ */
+@RestController
+@RequestMapping("/api/favourites/reactive")
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveFavouriteResource {
+	
+	private final ReactiveFavouriteService reactiveFavouriteService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<DtoCollectionResponse<FavouriteDto>>> findAll() {
+		log.info("*** FavouriteDto List, controller; fetch all favourites reactively *");
+		return this.reactiveFavouriteService.findAll()
+				.collectList()
+				.map(favouriteDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(favouriteDtos)));
+	}
+	
+	@GetMapping("/{userId}/{productId}/{likeDate}")
+	public Mono<ResponseEntity<FavouriteDto>> findById(
+			@PathVariable("userId") final String userId, 
+			@PathVariable("productId") final String productId, 
+			@PathVariable("likeDate") final String likeDate) {
+		log.info("*** FavouriteDto, resource; fetch favourite by id reactively *");
+		return this.reactiveFavouriteService.findById(
+				new FavouriteId(Integer.parseInt(userId), Integer.parseInt(productId), 
+						LocalDateTime.parse(likeDate, DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT))))
+				.map(ResponseEntity::ok);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,14 +1,22 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
 
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductLikeCountDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 
 public interface FavouriteService {
 	
 	List<FavouriteDto> findAll();
 	FavouriteDto findById(final FavouriteId favouriteId);
+	DtoPageResponse<FavouriteDto> findAllByUserId(final Integer userId, final Pageable pageable);
+	DtoPageResponse<FavouriteDto> findAllByProductId(final Integer productId, final Pageable pageable);
+	List<ProductLikeCountDto> findLikeCounts(final Set<Integer> productIds);
 	FavouriteDto save(final FavouriteDto favouriteDto);
 	FavouriteDto update(final FavouriteDto favouriteDto);
 	void deleteById(final FavouriteId favouriteId);
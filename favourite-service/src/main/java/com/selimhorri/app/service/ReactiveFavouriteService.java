@@ -0,0 +1,14 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveFavouriteService {
+	
+	Flux<FavouriteDto> findAll();
+	Mono<FavouriteDto> findById(final FavouriteId favouriteId);
+	
+}
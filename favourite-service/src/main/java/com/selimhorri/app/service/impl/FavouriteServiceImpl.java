@@ -1,34 +1,60 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.domain.ProductLikeCount;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ProductLikeCountDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.helper.FavouriteMappingHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.ProductLikeCountRepository;
 import com.selimhorri.app.service.FavouriteService;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Transactional
 @Slf4j
-@RequiredArgsConstructor
 public class FavouriteServiceImpl implements FavouriteService {
 	
 	private final FavouriteRepository favouriteRepository;
+	private final ProductLikeCountRepository productLikeCountRepository;
 	private final RestTemplate restTemplate;
+	private final TransactionTemplate transactionTemplate;
+	
+	public FavouriteServiceImpl(
+			final FavouriteRepository favouriteRepository,
+			final ProductLikeCountRepository productLikeCountRepository,
+			final RestTemplate restTemplate,
+			final PlatformTransactionManager transactionManager) {
+		this.favouriteRepository = favouriteRepository;
+		this.productLikeCountRepository = productLikeCountRepository;
+		this.restTemplate = restTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
 	
 	@Override
 	public List<FavouriteDto> findAll() {
@@ -45,7 +71,6 @@ public class FavouriteServiceImpl implements FavouriteService {
 										.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(), ProductDto.class));
 						return f;
 					})
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
@@ -67,21 +92,104 @@ public class FavouriteServiceImpl implements FavouriteService {
 						String.format("Favourite with id: [%s] not found!", favouriteId)));
 	}
 	
+	@Override
+	public DtoPageResponse<FavouriteDto> findAllByUserId(final Integer userId, final Pageable pageable) {
+		log.info("*** FavouriteDto Page, service; fetch favourites page by userId *");
+		return page(this.favouriteRepository.findByUserId(userId, pageable));
+	}
+	
+	@Override
+	public DtoPageResponse<FavouriteDto> findAllByProductId(final Integer productId, final Pageable pageable) {
+		log.info("*** FavouriteDto Page, service; fetch favourites page by productId *");
+		return page(this.favouriteRepository.findByProductId(productId, pageable));
+	}
+	
+	/**
+	 * Reads the maintained counters in one query; products nobody liked yet have no
+	 * counter row and are answered with zero.
+	 */
+	@Override
+	public List<ProductLikeCountDto> findLikeCounts(final Set<Integer> productIds) {
+		log.info("*** ProductLikeCountDto List, service; fetch like counts by productIds *");
+		final Set<Integer> ids = productIds.stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+		if (ids.isEmpty())
+			return List.of();
+		final Map<Integer, Long> likeCounts = this.productLikeCountRepository.findByProductIdIn(ids)
+				.stream()
+					.collect(Collectors.toUnmodifiableMap(ProductLikeCount::getProductId, ProductLikeCount::getLikeCount));
+		return ids.stream()
+				.map(productId -> ProductLikeCountDto.builder()
+						.productId(productId)
+						.likeCount(likeCounts.getOrDefault(productId, 0L))
+						.build())
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
 	@Override
 	public FavouriteDto save(final FavouriteDto favouriteDto) {
-		return FavouriteMappingHelper.map(this.favouriteRepository
-				.save(FavouriteMappingHelper.map(favouriteDto)));
+		log.info("*** FavouriteDto, service; save favourite *");
+		return this.persist(FavouriteMappingHelper.map(favouriteDto));
 	}
 	
 	@Override
 	public FavouriteDto update(final FavouriteDto favouriteDto) {
-		return FavouriteMappingHelper.map(this.favouriteRepository
-				.save(FavouriteMappingHelper.map(favouriteDto)));
+		log.info("*** FavouriteDto, service; update favourite *");
+		return this.persist(FavouriteMappingHelper.map(favouriteDto));
 	}
 	
 	@Override
 	public void deleteById(final FavouriteId favouriteId) {
+		log.info("*** Void, service; delete favourite by id *");
+		final boolean liked = this.favouriteRepository.existsById(favouriteId);
 		this.favouriteRepository.deleteById(favouriteId);
+		if (liked)
+			this.productLikeCountRepository.decrementLikeCount(favouriteId.getProductId());
+	}
+	
+	/**
+	 * Saves the favourite and counts it as a like only when its key is new, so
+	 * re-saving an existing favourite leaves the counter alone. A concurrent save of the
+	 * same key fails on the primary key and rolls its increment back with it.
+	 */
+	private FavouriteDto persist(final Favourite favourite) {
+		final boolean liked = !this.favouriteRepository.existsById(new FavouriteId(
+				favourite.getUserId(), favourite.getProductId(), favourite.getLikeDate()));
+		final FavouriteDto favouriteDto = FavouriteMappingHelper.map(this.favouriteRepository.save(favourite));
+		if (liked)
+			this.incrementLikeCount(favourite.getProductId());
+		return favouriteDto;
+	}
+	
+	/**
+	 * The counter row of a first like is created in its own transaction beforehand, so
+	 * the increment is always a single-row update and concurrent likes only queue on
+	 * that row's lock; a row created concurrently makes the insert fail harmlessly.
+	 */
+	private void incrementLikeCount(final Integer productId) {
+		if (!this.productLikeCountRepository.existsById(productId)) {
+			try {
+				this.transactionTemplate.execute(status -> 
+						this.productLikeCountRepository.insertLikeCount(productId));
+			}
+			catch (DataIntegrityViolationException e) {
+				log.info("*** Void, service; like counter of product {} created concurrently *", productId);
+			}
+		}
+		this.productLikeCountRepository.incrementLikeCount(productId);
+	}
+	
+	private static DtoPageResponse<FavouriteDto> page(final Page<Favourite> favourites) {
+		return DtoPageResponse.<FavouriteDto>builder()
+				.collection(favourites.stream()
+						.map(FavouriteMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.page(favourites.getNumber())
+				.size(favourites.getSize())
+				.totalElements(favourites.getTotalElements())
+				.totalPages(favourites.getTotalPages())
+				.build();
 	}
 	
 	
@@ -0,0 +1,129 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.helper.FavouriteMappingHelper;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.ReactiveFavouriteService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Enriches favourites without holding a thread while user-service and product-service
+ * answer. Repository calls block, so they run on the JPA scheduler; each distinct user
+ * and product is fetched once, at most {@code enrichment.reactive.concurrency} at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveFavouriteServiceImpl implements ReactiveFavouriteService {
+	
+	private final FavouriteRepository favouriteRepository;
+	private final WebClient webClient;
+	private final Scheduler jpaScheduler;
+	private final int concurrency;
+	
+	public ReactiveFavouriteServiceImpl(
+			final FavouriteRepository favouriteRepository,
+			final WebClient.Builder webClientBuilder,
+			final Scheduler jpaScheduler,
+			@Value("${enrichment.reactive.concurrency:32}") final int concurrency) {
+		this.favouriteRepository = favouriteRepository;
+		this.webClient = webClientBuilder.build();
+		this.jpaScheduler = jpaScheduler;
+		this.concurrency = concurrency;
+	}
+	
+	@Override
+	public Flux<FavouriteDto> findAll() {
+		log.info("*** FavouriteDto Flux, service; fetch all favourites *");
+		return Mono.fromCallable(() -> this.favouriteRepository.findAll()
+					.stream()
+						.map(FavouriteMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.subscribeOn(this.jpaScheduler)
+				.flatMapMany(favouriteDtos -> Mono.zip(
+							this.fetchAll(ids(favouriteDtos, FavouriteDto::getUserId), 
+									AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, UserDto.class),
+							this.fetchAll(ids(favouriteDtos, FavouriteDto::getProductId), 
+									AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, ProductDto.class))
+						.flatMapIterable(dtos -> {
+							favouriteDtos.forEach(f -> {
+								f.setUserDto(dtos.getT1().getOrDefault(f.getUserId(), f.getUserDto()));
+								f.setProductDto(dtos.getT2().getOrDefault(f.getProductId(), f.getProductDto()));
+							});
+							return favouriteDtos;
+						}));
+	}
+	
+	@Override
+	public Mono<FavouriteDto> findById(final FavouriteId favouriteId) {
+		log.info("*** FavouriteDto Mono, service; fetch favourite by id *");
+		return Mono.fromCallable(() -> this.favouriteRepository.findById(favouriteId)
+					.map(FavouriteMappingHelper::map)
+					.orElseThrow(() -> new FavouriteNotFoundException(
+							String.format("Favourite with id: [%s] not found!", favouriteId))))
+				.subscribeOn(this.jpaScheduler)
+				.flatMap(f -> Mono.zip(
+							this.fetch(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, f.getUserId(), UserDto.class),
+							this.fetch(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, f.getProductId(), ProductDto.class))
+						.map(dtos -> {
+							f.setUserDto(dtos.getT1());
+							f.setProductDto(dtos.getT2());
+							return f;
+						}));
+	}
+	
+	private <T> Mono<Map<Integer, T>> fetchAll(final Set<Integer> ids, final String apiUrl, final Class<T> responseType) {
+		return Flux.fromIterable(ids)
+				.flatMap(id -> this.fetch(apiUrl, id, responseType)
+						.map(dto -> Map.entry(id, dto)), this.concurrency)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+	
+	private <T> Mono<T> fetch(final String apiUrl, final Integer id, final Class<T> responseType) {
+		return this.webClient.get()
+				.uri(apiUrl + "/" + id)
+				.retrieve()
+				.bodyToMono(responseType);
+	}
+	
+	private static Set<Integer> ids(final List<FavouriteDto> favouriteDtos, final Function<FavouriteDto, Integer> id) {
+		return favouriteDtos.stream()
+				.map(id)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,11 @@
+
+CREATE INDEX idx_favourites_user_id_like_date ON favourites (user_id, like_date);
+CREATE INDEX idx_favourites_product_id_like_date ON favourites (product_id, like_date);
+
+CREATE TABLE product_like_counts (
+	product_id INT(11) NOT NULL PRIMARY KEY,
+	like_count BIGINT DEFAULT 0 NOT NULL
+);
+
+INSERT INTO product_like_counts (product_id, like_count)
+  SELECT product_id, COUNT(*) FROM favourites GROUP BY product_id;
@@ -16,6 +16,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,8 +32,10 @@ import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ProductLikeCountDto;
 import com.selimhorri.app.dto.UserDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.exception.ApiExceptionHandler;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.service.FavouriteService;
@@ -222,6 +225,42 @@ class FavouriteControllerTest {
 
         verify(favouriteService).deleteById(any(FavouriteId.class));
     }
+
+    @Test
+    void getFavouritesByUser_returnsPageResponse() throws Exception {
+        DtoPageResponse<FavouriteDto> page = DtoPageResponse.<FavouriteDto>builder()
+                .collection(List.of(FavouriteDto.builder()
+                        .userId(1)
+                        .productId(10)
+                        .likeDate(LocalDateTime.now())
+                        .build()))
+                .page(0)
+                .size(20)
+                .totalElements(1L)
+                .totalPages(1)
+                .build();
+
+        given(favouriteService.findAllByUserId(org.mockito.ArgumentMatchers.eq(1), any())).willReturn(page);
+
+        mockMvc.perform(get("/api/favourites/users/{userId}", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void findLikeCounts_returnsCountPerProduct() throws Exception {
+        Set<Integer> productIds = Set.of(10, 20);
+        given(favouriteService.findLikeCounts(productIds)).willReturn(List.of(
+                ProductLikeCountDto.builder().productId(10).likeCount(3L).build(),
+                ProductLikeCountDto.builder().productId(20).likeCount(0L).build()));
+
+        mockMvc.perform(post("/api/favourites/products/likes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(2));
+    }
 }
 
 
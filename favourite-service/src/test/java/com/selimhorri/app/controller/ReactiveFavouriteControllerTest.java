@@ -0,0 +1,112 @@
+package com.selimhorri.app.controller;
+
+import static org.mockito.BDDMockito.given;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.resource.ReactiveFavouriteResource;
+import com.selimhorri.app.service.ReactiveFavouriteService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(controllers = ReactiveFavouriteResource.class)
+@Import(ApiExceptionHandler.class)
+@TestPropertySource(properties = "enrichment.reactive.enabled=true")
+@ActiveProfiles("test")
+class ReactiveFavouriteControllerTest {
+
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private static final String LIKE_DATE_PATH = LIKE_DATE.format(DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveFavouriteService reactiveFavouriteService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Test
+    void findAll_returnsEnrichedCollection() {
+        given(reactiveFavouriteService.findAll()).willReturn(Flux.just(favourite(1, 10), favourite(2, 20)));
+
+        webTestClient.get().uri("/api/favourites/reactive")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.collection.length()").isEqualTo(2)
+                .jsonPath("$.collection[0].user.firstName").isEqualTo("user 1")
+                .jsonPath("$.collection[1].product.productTitle").isEqualTo("product 20");
+    }
+
+    @Test
+    void findById_returnsEnrichedFavourite() {
+        given(reactiveFavouriteService.findById(new FavouriteId(1, 10, LIKE_DATE)))
+                .willReturn(Mono.just(favourite(1, 10)));
+
+        webTestClient.get().uri("/api/favourites/reactive/{userId}/{productId}/{likeDate}", "1", "10", LIKE_DATE_PATH)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.userId").isEqualTo(1)
+                .jsonPath("$.user.firstName").isEqualTo("user 1")
+                .jsonPath("$.product.productTitle").isEqualTo("product 10");
+    }
+
+    @Test
+    void findById_whenNotFound_returnsBadRequestWithErrorBody() {
+        given(reactiveFavouriteService.findById(new FavouriteId(9, 99, LIKE_DATE)))
+                .willReturn(Mono.error(new FavouriteNotFoundException("Favourite not found")));
+
+        webTestClient.get().uri("/api/favourites/reactive/{userId}/{productId}/{likeDate}", "9", "99", LIKE_DATE_PATH)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.httpStatus").isEqualTo("BAD_REQUEST")
+                .jsonPath("$.msg").exists();
+    }
+
+    private static FavouriteDto favourite(Integer userId, Integer productId) {
+        return FavouriteDto.builder()
+                .userId(userId)
+                .productId(productId)
+                .likeDate(LIKE_DATE)
+                .userDto(UserDto.builder()
+                        .userId(userId)
+                        .firstName("user " + userId)
+                        .build())
+                .productDto(ProductDto.builder()
+                        .productId(productId)
+                        .productTitle("product " + productId)
+                        .build())
+                .build();
+    }
+
+}
@@ -9,11 +9,15 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestTemplate;
 
@@ -21,7 +25,9 @@ import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ProductLikeCountDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.repository.FavouriteRepository;
 
@@ -152,6 +158,52 @@ class FavouriteServiceTest {
         verify(favouriteRepository).deleteById(id);
     }
 
+    @Test
+    void findAllByUserId_returnsPageOfFavourites() {
+        Pageable pageable = PageRequest.of(0, 2);
+        given(favouriteRepository.findByUserId(1, pageable))
+                .willReturn(new PageImpl<>(List.of(buildFavourite(1, 10, LocalDateTime.now()),
+                        buildFavourite(1, 20, LocalDateTime.now().minusDays(1))), pageable, 3));
+
+        DtoPageResponse<FavouriteDto> result = favouriteService.findAllByUserId(1, pageable);
+
+        assertThat(result.getCollection()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    void saveAndDelete_keepProductLikeCountInStep() {
+        // producto sin favoritos previos en la base compartida
+        Integer productId = 9001;
+        FavouriteDto first = FavouriteDto.builder()
+                .userId(1)
+                .productId(productId)
+                .likeDate(LocalDateTime.now())
+                .build();
+        FavouriteDto second = FavouriteDto.builder()
+                .userId(2)
+                .productId(productId)
+                .likeDate(LocalDateTime.now())
+                .build();
+        given(favouriteRepository.save(org.mockito.ArgumentMatchers.any(Favourite.class)))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        favouriteService.save(first);
+        favouriteService.save(second);
+        assertThat(favouriteService.findLikeCounts(Set.of(productId, 9002)))
+                .extracting(ProductLikeCountDto::getProductId, ProductLikeCountDto::getLikeCount)
+                .containsExactlyInAnyOrder(
+                        org.assertj.core.groups.Tuple.tuple(productId, 2L),
+                        org.assertj.core.groups.Tuple.tuple(9002, 0L));
+
+        FavouriteId id = buildFavouriteId(1, productId, first.getLikeDate());
+        given(favouriteRepository.existsById(id)).willReturn(true);
+        favouriteService.deleteById(id);
+
+        assertThat(favouriteService.findLikeCounts(Set.of(productId)).get(0).getLikeCount()).isEqualTo(1L);
+    }
+
     private Favourite buildFavourite(Integer userId, Integer productId, LocalDateTime likeDate) {
         return Favourite.builder()
                 .userId(userId)
@@ -0,0 +1,153 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.config.client.ReactiveClientConfig;
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.impl.ReactiveFavouriteServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.scheduler.Schedulers;
+
+class ReactiveFavouriteServiceTest {
+
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final FavouriteRepository favouriteRepository = mock(FavouriteRepository.class);
+    private final ConcurrentMap<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private ReactiveFavouriteService reactiveFavouriteService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/user-service/api/users", exchange -> respond(exchange,
+                id -> "{\"userId\":" + id + ",\"firstName\":\"user " + id + "\"}"));
+        server.createContext("/product-service/api/products", exchange -> respond(exchange,
+                id -> "{\"productId\":" + id + ",\"productTitle\":\"product " + id + "\"}"));
+        server.setExecutor(executor);
+        server.start();
+
+        ObjectProvider<DiscoveryClient> discoveryClient = mock(ObjectProvider.class);
+        WebClient.Builder webClientBuilder = new ReactiveClientConfig()
+                .webClientBuilderBean(new ClientProperties(), discoveryClient, 1024 * 1024)
+                // hace de balanceador: USER-SERVICE y PRODUCT-SERVICE resuelven al servidor local
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(local(request.url()))
+                        .build()));
+        reactiveFavouriteService = new ReactiveFavouriteServiceImpl(
+                favouriteRepository, webClientBuilder, Schedulers.immediate(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findAll_fetchesEachUserAndProductOnceAndEnrichesFavourites() {
+        given(favouriteRepository.findAll()).willReturn(List.of(
+                favourite(1, 10), favourite(1, 20), favourite(2, 10)));
+
+        List<FavouriteDto> favouriteDtos = reactiveFavouriteService.findAll()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(favouriteDtos).extracting(f -> f.getUserDto().getFirstName())
+                .containsExactly("user 1", "user 1", "user 2");
+        assertThat(favouriteDtos).extracting(f -> f.getProductDto().getProductTitle())
+                .containsExactly("product 10", "product 20", "product 10");
+        assertThat(requests).containsOnlyKeys(
+                "/user-service/api/users/1", "/user-service/api/users/2",
+                "/product-service/api/products/10", "/product-service/api/products/20");
+        assertThat(requests.values()).allMatch(count -> count.get() == 1);
+    }
+
+    @Test
+    void findById_enrichesFavouriteWithItsUserAndProduct() {
+        FavouriteId favouriteId = new FavouriteId(1, 10, LIKE_DATE);
+        given(favouriteRepository.findById(favouriteId)).willReturn(Optional.of(favourite(1, 10)));
+
+        FavouriteDto favouriteDto = reactiveFavouriteService.findById(favouriteId).block(Duration.ofSeconds(5));
+
+        assertThat(favouriteDto.getUserDto().getFirstName()).isEqualTo("user 1");
+        assertThat(favouriteDto.getProductDto().getProductTitle()).isEqualTo("product 10");
+    }
+
+    @Test
+    void findById_failsWithoutCallingOtherServicesWhenFavouriteDoesNotExist() {
+        FavouriteId favouriteId = new FavouriteId(9, 99, LIKE_DATE);
+        given(favouriteRepository.findById(favouriteId)).willReturn(Optional.empty());
+
+        assertThrows(FavouriteNotFoundException.class,
+                () -> reactiveFavouriteService.findById(favouriteId).block(Duration.ofSeconds(5)));
+        assertThat(requests).isEmpty();
+    }
+
+    private void respond(HttpExchange exchange, IntFunction<String> body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        byte[] bytes = body.apply(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)))
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private URI local(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .host("localhost")
+                .port(server.getAddress().getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static Favourite favourite(Integer userId, Integer productId) {
+        return Favourite.builder()
+                .userId(userId)
+                .productId(productId)
+                .likeDate(LIKE_DATE)
+                .build();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.selimhorri.app.config.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.helper.InProcessOrderEventBroker;
+
+@Configuration
+public class OrderEventConfig {
+	
+	/**
+	 * Default transport; another {@code order.events.transport} value leaves the
+	 * OrderEventTransport bean to whichever configuration provides that transport.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "order.events.transport", havingValue = "in-process", matchIfMissing = true)
+	public InProcessOrderEventBroker inProcessOrderEventBrokerBean() {
+		return new InProcessOrderEventBroker();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
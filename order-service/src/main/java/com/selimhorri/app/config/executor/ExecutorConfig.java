@@ -0,0 +1,55 @@
+package com.selimhorri.app.config.executor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class ExecutorConfig {
+	
+	/**
+	 * Bounded pool the checkout worker advances leased checkouts on; once the queue is
+	 * full the polling thread runs the step itself, which throttles the next poll.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor checkoutExecutorBean(
+			@Value("${checkout.executor.pool-size:8}") final int poolSize,
+			@Value("${checkout.executor.queue-capacity:100}") final int queueCapacity) {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("checkout-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return executor;
+	}
+	
+	/**
+	 * Polls for due checkouts on a thread of its own, so a slow batch never delays the
+	 * jobs on the shared scheduler, nor do they delay it.
+	 */
+	@Bean
+	public ThreadPoolTaskScheduler checkoutSchedulerBean() {
+		final var scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(1);
+		scheduler.setThreadNamePrefix("checkout-poll-");
+		return scheduler;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
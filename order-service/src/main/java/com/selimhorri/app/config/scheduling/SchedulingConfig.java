@@ -0,0 +1,47 @@
+package com.selimhorri.app.config.scheduling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Names the scheduler the {@code @Scheduled} jobs run on, the checkout poller having
+ * one of its own that would otherwise be picked up for all of them.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig implements SchedulingConfigurer {
+	
+	@Value("${scheduling.pool-size:2}")
+	private int poolSize;
+	
+	@Bean
+	public ThreadPoolTaskScheduler taskScheduler() {
+		final var scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(this.poolSize);
+		scheduler.setThreadNamePrefix("scheduling-");
+		return scheduler;
+	}
+	
+	@Override
+	public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+		taskRegistrar.setScheduler(this.taskScheduler());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
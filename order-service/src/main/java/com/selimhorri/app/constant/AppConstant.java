@@ -10,6 +10,16 @@ public abstract class AppConstant {
 	public static final String LOCAL_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String ZONED_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String INSTANT_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
+	public static final int EXPORT_FETCH_SIZE = 500;
+	public static final int ORDER_ID_ALLOCATION_SIZE = 50;
+	public static final int BULK_BATCH_SIZE = 50;
+	public static final int CHECKOUT_BATCH_SIZE = 50;
+	public static final int ORDER_EVENT_ID_ALLOCATION_SIZE = 50;
+	public static final int ORDER_EVENT_BATCH_SIZE = 500;
+	public static final int MAX_CHANGES_PAGE_SIZE = 500;
+	public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+	public static final String PRINCIPAL_HEADER = "X-Principal";
 	
 	@NoArgsConstructor(access = AccessLevel.PRIVATE)
 	public abstract class DiscoveredDomainsApi {
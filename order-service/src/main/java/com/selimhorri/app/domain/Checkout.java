@@ -0,0 +1,89 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * One accepted checkout and the next step it waits for. The table doubles as the
+ * durable queue of the checkout worker: a row is due once {@code nextAttemptAt} has
+ * passed, and a worker leases it by pushing {@code nextAttemptAt} forward and bumping
+ * the version, which also fences out a worker whose lease ran out.
+ */
+@Entity
+@Table(name = "checkouts")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true, exclude = {"items"})
+@Data
+@Builder
+public final class Checkout extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "checkout_id", length = 36, unique = true, nullable = false, updatable = false)
+	private String checkoutId;
+	
+	@Column(name = "idempotency_key", unique = true, updatable = false)
+	private String idempotencyKey;
+	
+	@Column(name = "request_hash", length = 64, updatable = false)
+	private String requestHash;
+	
+	@Column(name = "order_id", nullable = false, updatable = false)
+	private Integer orderId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "checkout_status", length = 32, nullable = false)
+	private CheckoutStatus checkoutStatus;
+	
+	@Column(name = "payment_id")
+	private Integer paymentId;
+	
+	@Column(name = "attempts", nullable = false)
+	private Integer attempts;
+	
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt;
+	
+	@Column(name = "last_error")
+	private String lastError;
+	
+	@Version
+	@Column(name = "version", nullable = false)
+	private Integer version;
+	
+	@ElementCollection(fetch = FetchType.LAZY)
+	@CollectionTable(name = "checkout_items", joinColumns = @JoinColumn(name = "checkout_id"))
+	private List<CheckoutItem> items;
+	
+}
+
+
+
+
+
+
+
+
+
+
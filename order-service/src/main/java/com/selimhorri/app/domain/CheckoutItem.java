@@ -0,0 +1,38 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CheckoutItem implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Column(name = "product_id", nullable = false)
+	private Integer productId;
+	
+	@Column(name = "ordered_quantity", nullable = false)
+	private Integer orderedQuantity;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,62 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The response a request carrying an {@code Idempotency-Key} got, kept until
+ * {@code expiresAt} so a retry of the same request is answered with it. The request
+ * hash tells a retry apart from a different request reusing the key.
+ */
+@Entity
+@Table(name = "idempotency_records")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class IdempotencyRecord implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * The key digested with the endpoint and the principal it was sent to and by.
+	 */
+	@Id
+	@Column(name = "idempotency_key", unique = true, nullable = false, updatable = false)
+	private String idempotencyKey;
+	
+	@Column(name = "request_hash", length = 64, nullable = false)
+	private String requestHash;
+	
+	@Column(name = "response_body", length = 4000)
+	private String responseBody;
+	
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+	
+	@Version
+	@Column(name = "version", nullable = false)
+	private Integer version;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,106 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.selimhorri.app.constant.AppConstant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbox row written in the same transaction as the order or cart change it describes.
+ * Event ids only tell rows apart; the relay gives committed events their
+ * {@code eventSequence}, which orders them by commit and is the change feed cursor.
+ * The version keeps a racing relay from sequencing an event twice.
+ */
+@Entity
+@Table(name = "order_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class OrderEvent implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// ids from a one-row table (MySQL has no sequences) keep JDBC insert batching available
+	// for bulk writes
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+	@GenericGenerator(name = "order_events_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+		@Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_events_seq"),
+		@Parameter(name = SequenceStyleGenerator.FORCE_TBL_PARAM, value = "true"),
+		@Parameter(name = SequenceStyleGenerator.INITIAL_PARAM, value = "1"),
+		@Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + AppConstant.ORDER_EVENT_ID_ALLOCATION_SIZE),
+		@Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+	})
+	@Column(name = "event_id", unique = true, nullable = false, updatable = false)
+	private Long eventId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "aggregate_type", length = 32, nullable = false, updatable = false)
+	private AggregateType aggregateType;
+	
+	@Column(name = "aggregate_id", nullable = false, updatable = false)
+	private Integer aggregateId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", length = 32, nullable = false, updatable = false)
+	private EventType eventType;
+	
+	@Column(name = "payload", length = 4000, nullable = false, updatable = false)
+	private String payload;
+	
+	@Column(name = "event_sequence", unique = true)
+	private Long eventSequence;
+	
+	@Column(name = "occurred_at", nullable = false, updatable = false)
+	private LocalDateTime occurredAt;
+	
+	@Column(name = "published_at")
+	private Instant publishedAt;
+	
+	@Version
+	@Column(name = "version", nullable = false)
+	private Integer version;
+	
+	public enum AggregateType {
+		ORDER,
+		CART
+	}
+	
+	public enum EventType {
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,58 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selimhorri.app.domain.CheckoutStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CheckoutDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private String checkoutId;
+	private CheckoutStatus checkoutStatus;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Integer paymentId;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Integer attempts;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String lastError;
+	
+	@JsonProperty("order")
+	@NotNull(message = "Order must not be NULL")
+	private OrderDto orderDto;
+	
+	@NotEmpty(message = "Items must not be empty")
+	@Valid
+	private List<CheckoutItemDto> items;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,48 @@
+package com.selimhorri.app.dto.response.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkItemResponse<T> {
+	
+	private int index;
+	private BulkItemStatus status;
+	
+	@JsonInclude(Include.NON_NULL)
+	private T item;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String msg;
+	
+	public static <T> BulkItemResponse<T> created(final int index, final T item) {
+		return new BulkItemResponse<>(index, BulkItemStatus.CREATED, item, null);
+	}
+	
+	public static <T> BulkItemResponse<T> failed(final int index, final T item, final String msg) {
+		return new BulkItemResponse<>(index, BulkItemStatus.FAILED, item, msg);
+	}
+	
+	public enum BulkItemStatus {
+		CREATED, FAILED
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
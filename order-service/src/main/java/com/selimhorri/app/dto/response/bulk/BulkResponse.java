@@ -0,0 +1,39 @@
+package com.selimhorri.app.dto.response.bulk;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.response.bulk.BulkItemResponse.BulkItemStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkResponse<T> {
+	
+	private long created;
+	private long failed;
+	private List<BulkItemResponse<T>> items;
+	
+	public static <T> BulkResponse<T> of(final List<BulkItemResponse<T>> items) {
+		final long created = items.stream()
+				.filter(item -> item.getStatus() == BulkItemStatus.CREATED)
+				.count();
+		return new BulkResponse<>(created, items.size() - created, items);
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
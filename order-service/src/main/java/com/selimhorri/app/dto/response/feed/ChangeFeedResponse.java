@@ -0,0 +1,30 @@
+package com.selimhorri.app.dto.response.feed;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ChangeFeedResponse<T> {
+	
+	private Collection<T> collection;
+	private long nextCursor;
+	private boolean hasMore;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -13,6 +13,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.CheckoutNotFoundException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -43,8 +46,10 @@ public class ApiExceptionHandler {
 	
 	@ExceptionHandler(value = {
 		CartNotFoundException.class,
+		CheckoutNotFoundException.class,
 		OrderNotFoundException.class,
 		IllegalStateException.class,
+		InvalidIdempotencyKeyException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
 		
@@ -60,6 +65,23 @@ public class ApiExceptionHandler {
 					.build(), badRequest);
 	}
 	
+	@ExceptionHandler(value = {
+		IdempotencyKeyMismatchException.class,
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleUnprocessableException(final T e) {
+		
+		log.info("**ApiExceptionHandler controller, handle unprocessable request*\n");
+		final var unprocessableEntity = HttpStatus.UNPROCESSABLE_ENTITY;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(unprocessableEntity)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), unprocessableEntity);
+	}
+	
 	
 	
 }
@@ -0,0 +1,44 @@
+package com.selimhorri.app.helper;
+
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.domain.Checkout;
+import com.selimhorri.app.dto.CheckoutDto;
+import com.selimhorri.app.dto.CheckoutItemDto;
+import com.selimhorri.app.dto.OrderDto;
+
+public interface CheckoutMappingHelper {
+	
+	public static CheckoutDto map(final Checkout checkout) {
+		return CheckoutDto.builder()
+				.checkoutId(checkout.getCheckoutId())
+				.checkoutStatus(checkout.getCheckoutStatus())
+				.paymentId(checkout.getPaymentId())
+				.attempts(checkout.getAttempts())
+				.lastError(checkout.getLastError())
+				.orderDto(
+						OrderDto.builder()
+							.orderId(checkout.getOrderId())
+							.build())
+				.items(checkout.getItems().stream()
+						.map(item -> CheckoutItemDto.builder()
+								.productId(item.getProductId())
+								.orderedQuantity(item.getOrderedQuantity())
+								.build())
+						.collect(Collectors.toUnmodifiableList()))
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,42 @@
+package com.selimhorri.app.helper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.service.OrderEventTransport;
+
+/**
+ * Transport that hands every batch to the subscribers in this JVM, on the relay thread.
+ */
+public class InProcessOrderEventBroker implements OrderEventTransport {
+	
+	private final List<Consumer<List<OrderEventDto>>> subscribers = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * @return unsubscribes the subscriber when run
+	 */
+	public Runnable subscribe(final Consumer<List<OrderEventDto>> subscriber) {
+		this.subscribers.add(subscriber);
+		return () -> this.subscribers.remove(subscriber);
+	}
+	
+	@Override
+	public void publish(final List<OrderEventDto> orderEventDtos) {
+		this.subscribers.forEach(subscriber -> subscriber.accept(orderEventDtos));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
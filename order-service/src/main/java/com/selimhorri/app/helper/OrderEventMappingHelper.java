@@ -0,0 +1,31 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OrderEvent;
+import com.selimhorri.app.dto.OrderEventDto;
+
+public interface OrderEventMappingHelper {
+	
+	public static OrderEventDto map(final OrderEvent orderEvent) {
+		return OrderEventDto.builder()
+				.sequence(orderEvent.getEventSequence())
+				.aggregateType(orderEvent.getAggregateType())
+				.aggregateId(orderEvent.getAggregateId())
+				.eventType(orderEvent.getEventType())
+				.occurredAt(orderEvent.getOccurredAt())
+				.payload(orderEvent.getPayload())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,11 +1,17 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Cart;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
 	
-	
+	@Query("SELECT c.cartId FROM Cart c WHERE c.cartId IN :cartIds")
+	Set<Integer> findExistingCartIds(@Param("cartIds") final Collection<Integer> cartIds);
 	
 }
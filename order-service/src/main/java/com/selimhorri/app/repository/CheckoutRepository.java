@@ -0,0 +1,40 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.Checkout;
+import com.selimhorri.app.domain.CheckoutStatus;
+
+public interface CheckoutRepository extends JpaRepository<Checkout, String> {
+	
+	Optional<Checkout> findByIdempotencyKey(final String idempotencyKey);
+	
+	@EntityGraph(attributePaths = "items")
+	Optional<Checkout> findWithItemsByCheckoutId(final String checkoutId);
+	
+	@Query("SELECT c FROM Checkout c WHERE c.checkoutStatus IN :statuses AND c.nextAttemptAt <= :now "
+			+ "ORDER BY c.nextAttemptAt")
+	List<Checkout> findDue(@Param("statuses") final Collection<CheckoutStatus> statuses, 
+			@Param("now") final Instant now, final Pageable pageable);
+	
+	/**
+	 * Leases a due checkout to the caller until {@code leaseUntil}; 0 when another
+	 * worker got to it first.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Checkout c SET c.nextAttemptAt = :leaseUntil, c.version = c.version + 1 "
+			+ "WHERE c.checkoutId = :checkoutId AND c.version = :version")
+	int claim(@Param("checkoutId") final String checkoutId, @Param("version") final Integer version, 
+			@Param("leaseUntil") final Instant leaseUntil);
+	
+}
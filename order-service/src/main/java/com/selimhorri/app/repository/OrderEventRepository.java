@@ -0,0 +1,30 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderEvent;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+	
+	List<OrderEvent> findByEventSequenceIsNullOrderByEventIdAsc(final Pageable pageable);
+	
+	List<OrderEvent> findByEventSequenceIsNotNullAndPublishedAtIsNullOrderByEventSequenceAsc(final Pageable pageable);
+	
+	List<OrderEvent> findByEventSequenceGreaterThanOrderByEventSequenceAsc(final Long eventSequence, final Pageable pageable);
+	
+	@Query("SELECT COALESCE(MAX(e.eventSequence), 0) FROM OrderEvent e")
+	long findMaxEventSequence();
+	
+	@Modifying
+	@Query("UPDATE OrderEvent e SET e.publishedAt = :publishedAt WHERE e.eventId IN :eventIds")
+	int markPublished(@Param("eventIds") final Collection<Long> eventIds, @Param("publishedAt") final Instant publishedAt);
+	
+}
@@ -1,11 +1,34 @@
 package com.selimhorri.app.repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = "cart")
+	List<Order> findAll();
+	
+	@Override
+	@EntityGraph(attributePaths = "cart")
+	Optional<Order> findById(final Integer orderId);
 	
+	@Query("SELECT o FROM Order o LEFT JOIN FETCH o.cart")
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "" + AppConstant.EXPORT_FETCH_SIZE),
+		@QueryHint(name = "org.hibernate.readOnly", value = "true")
+	})
+	Stream<Order> streamAll();
 	
 }
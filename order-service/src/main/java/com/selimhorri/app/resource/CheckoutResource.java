@@ -0,0 +1,74 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.CheckoutDto;
+import com.selimhorri.app.service.CheckoutService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/orders/checkout")
+@Slf4j
+@RequiredArgsConstructor
+public class CheckoutResource {
+	
+	private final CheckoutService checkoutService;
+	
+	/**
+	 * Answers once the order is stored; payment and shipping follow in the background,
+	 * and the checkout under the returned location tells how far they got.
+	 */
+	@PostMapping
+	public ResponseEntity<CheckoutDto> checkout(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+			@RequestHeader(name = AppConstant.PRINCIPAL_HEADER, required = false) final String principal,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final CheckoutDto checkoutDto) {
+		log.info("*** CheckoutDto, resource; accept checkout *");
+		final CheckoutDto accepted = this.checkoutService.checkout(idempotencyKey, principal, checkoutDto);
+		return ResponseEntity.accepted()
+				.location(ServletUriComponentsBuilder.fromCurrentRequest()
+						.path("/{checkoutId}")
+						.buildAndExpand(accepted.getCheckoutId())
+						.toUri())
+				.body(accepted);
+	}
+	
+	@GetMapping("/{checkoutId}")
+	public ResponseEntity<CheckoutDto> findById(
+			@PathVariable("checkoutId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String checkoutId) {
+		log.info("*** CheckoutDto, resource; fetch checkout by id *");
+		return ResponseEntity.ok(this.checkoutService.findById(checkoutId));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
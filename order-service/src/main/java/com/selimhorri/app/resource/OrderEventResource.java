@@ -0,0 +1,48 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.feed.ChangeFeedResponse;
+import com.selimhorri.app.service.OrderEventService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/orders/changes")
+@Slf4j
+@RequiredArgsConstructor
+public class OrderEventResource {
+	
+	private final OrderEventService orderEventService;
+	
+	/**
+	 * Order and cart changes after the {@code since} cursor; passing the returned
+	 * {@code nextCursor} back resumes right after the last change seen.
+	 */
+	@GetMapping
+	public ResponseEntity<ChangeFeedResponse<OrderEventDto>> findChanges(
+			@RequestParam(name = "since", defaultValue = "0") final long since,
+			@RequestParam(name = "limit", defaultValue = "100") final int limit) {
+		log.info("*** OrderEventDto List, resource; fetch order changes since cursor *");
+		return ResponseEntity.ok(this.orderEventService.findChanges(since, limit));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,64 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ReactiveCartService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of the cart reads; the servlet thread is released while the
+ * carts are being enriched.
+ */
+@RestController
+@RequestMapping("/api/carts/reactive")
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveCartResource {
+	
+	private final ReactiveCartService reactiveCartService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<DtoCollectionResponse<CartDto>>> findAll() {
+		log.info("*** CartDto List, controller; fetch all carts reactively *");
+		return this.reactiveCartService.findAll()
+				.collectList()
+				.map(cartDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(cartDtos)));
+	}
+	
+	@GetMapping("/{cartId}")
+	public Mono<ResponseEntity<CartDto>> findById(
+			@PathVariable("cartId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String cartId) {
+		log.info("*** CartDto, resource; fetch cart by id reactively *");
+		return this.reactiveCartService.findById(Integer.parseInt(cartId))
+				.map(ResponseEntity::ok);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
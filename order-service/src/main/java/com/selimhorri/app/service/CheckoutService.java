@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.CheckoutDto;
+
+public interface CheckoutService {
+	
+	CheckoutDto checkout(final String idempotencyKey, final String principal, final CheckoutDto checkoutDto);
+	CheckoutDto findById(final String checkoutId);
+	int processDue();
+	
+}
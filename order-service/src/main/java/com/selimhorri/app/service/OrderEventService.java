@@ -0,0 +1,14 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.domain.OrderEvent.AggregateType;
+import com.selimhorri.app.domain.OrderEvent.EventType;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.feed.ChangeFeedResponse;
+
+public interface OrderEventService {
+	
+	void record(final AggregateType aggregateType, final Integer aggregateId, final EventType eventType, final Object payload);
+	ChangeFeedResponse<OrderEventDto> findChanges(final long since, final int limit);
+	int relay();
+	
+}
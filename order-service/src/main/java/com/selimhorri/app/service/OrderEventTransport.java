@@ -0,0 +1,16 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.OrderEventDto;
+
+/**
+ * Carries relayed order events to their consumers. Delivery is at least once: a batch
+ * whose publish throws is published again on the next relay run, so consumers skip
+ * sequences they have already seen.
+ */
+public interface OrderEventTransport {
+	
+	void publish(final List<OrderEventDto> orderEventDtos);
+	
+}
@@ -0,0 +1,13 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.CartDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCartService {
+	
+	Flux<CartDto> findAll();
+	Mono<CartDto> findById(final Integer cartId);
+	
+}
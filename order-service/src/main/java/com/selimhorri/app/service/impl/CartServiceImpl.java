@@ -1,20 +1,32 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderEvent.AggregateType;
+import com.selimhorri.app.domain.OrderEvent.EventType;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.helper.CartMappingHelper;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.service.CartService;
+import com.selimhorri.app.service.OrderEventService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,22 +39,48 @@ public class CartServiceImpl implements CartService {
 	
 	private final CartRepository cartRepository;
 	private final RestTemplate restTemplate;
+	private final OrderEventService orderEventService;
 	
 	@Override
 	public List<CartDto> findAll() {
 		log.info("*** CartDto List, service; fetch all carts *");
-		return this.cartRepository.findAll()
+		final List<CartDto> cartDtos = this.cartRepository.findAll()
 				.stream()
 					.map(CartMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+		final Map<Integer, UserDto> userDtos = this.fetchUsersByIds(cartDtos.stream()
+				.map(CartDto::getUserId)
+				.filter(userId -> userId != null)
+				.collect(Collectors.toUnmodifiableSet()));
+		return cartDtos.stream()
 					.map(c -> {
-						c.setUserDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(), UserDto.class));
+						c.setUserDto(userDtos.getOrDefault(c.getUserId(), c.getUserDto()));
 						return c;
 					})
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	/**
+	 * Resolves all given users in a single round trip to user-service,
+	 * so listing carts costs one HTTP call regardless of cart count.
+	 */
+	private Map<Integer, UserDto> fetchUsersByIds(final Set<Integer> userIds) {
+		if (userIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		final DtoCollectionResponse<UserDto> response = this.restTemplate.exchange(
+				AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/batch",
+				HttpMethod.POST,
+				new HttpEntity<>(userIds),
+				new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {})
+			.getBody();
+		return Optional.ofNullable(response)
+				.map(DtoCollectionResponse::getCollection)
+				.orElseGet(Collections::emptyList)
+				.stream()
+					.collect(Collectors.toUnmodifiableMap(UserDto::getUserId, Function.identity(), (u1, u2) -> u1));
+	}
+	
 	@Override
 	public CartDto findById(final Integer cartId) {
 		log.info("*** CartDto, service; fetch cart by id *");
@@ -60,28 +98,36 @@ public class CartServiceImpl implements CartService {
 	@Override
 	public CartDto save(final CartDto cartDto) {
 		log.info("*** CartDto, service; save cart *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(cartDto)));
+		return this.recorded(EventType.CREATED, CartMappingHelper.map(this.cartRepository
+				.save(CartMappingHelper.map(cartDto))));
 	}
 	
 	@Override
 	public CartDto update(final CartDto cartDto) {
 		log.info("*** CartDto, service; update cart *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(cartDto)));
+		return this.recorded(EventType.UPDATED, CartMappingHelper.map(this.cartRepository
+				.save(CartMappingHelper.map(cartDto))));
 	}
 	
 	@Override
 	public CartDto update(final Integer cartId, final CartDto cartDto) {
 		log.info("*** CartDto, service; update cart with cartId *");
-		return CartMappingHelper.map(this.cartRepository
-				.save(CartMappingHelper.map(this.findById(cartId))));
+		return this.recorded(EventType.UPDATED, CartMappingHelper.map(this.cartRepository
+				.save(CartMappingHelper.map(this.findById(cartId)))));
 	}
 	
 	@Override
 	public void deleteById(final Integer cartId) {
 		log.info("*** Void, service; delete cart by id *");
 		this.cartRepository.deleteById(cartId);
+		this.recorded(EventType.DELETED, CartDto.builder()
+				.cartId(cartId)
+				.build());
+	}
+	
+	private CartDto recorded(final EventType eventType, final CartDto cartDto) {
+		this.orderEventService.record(AggregateType.CART, cartDto.getCartId(), eventType, cartDto);
+		return cartDto;
 	}
 	
 	
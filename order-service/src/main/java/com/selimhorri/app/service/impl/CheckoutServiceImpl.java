@@ -0,0 +1,435 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Checkout;
+import com.selimhorri.app.domain.CheckoutItem;
+import com.selimhorri.app.domain.CheckoutStatus;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.OrderEvent.AggregateType;
+import com.selimhorri.app.domain.OrderEvent.EventType;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.CheckoutDto;
+import com.selimhorri.app.dto.CheckoutItemDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.PaymentStatus;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.CheckoutNotFoundException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
+import com.selimhorri.app.helper.CheckoutMappingHelper;
+import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.CheckoutRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.CheckoutService;
+import com.selimhorri.app.service.OrderEventService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accepts a checkout with the order and its checkout row written in one transaction,
+ * then advances payment and shipping in the background. Due checkouts are polled every
+ * {@code checkout.poll-interval-ms} and leased for {@code checkout.lease-ms}, so a
+ * checkout whose worker died is picked up again once its lease runs out. Failed steps
+ * are retried with exponential backoff up to {@code checkout.retry.max-attempts}.
+ * <p>
+ * Every step request carries an idempotency key derived from the checkout id, so the
+ * downstream service can recognise a step retried after its response was lost; order
+ * items are keyed by order and product, which makes the shipping step an upsert anyway.
+ * <p>
+ * The {@code Idempotency-Key} of the checkout itself is stored scoped to the endpoint
+ * and the principal, the same way {@link IdempotencyServiceImpl} scopes it, together
+ * with a hash of the request it came with.
+ */
+@Service
+@Slf4j
+public class CheckoutServiceImpl implements CheckoutService {
+	
+	private static final Set<CheckoutStatus> PENDING_STATUSES = EnumSet.of(
+			CheckoutStatus.PAYMENT_PENDING, CheckoutStatus.SHIPPING_PENDING);
+	private static final int MAX_ERROR_LENGTH = 255;
+	private static final String CHECKOUT_ENDPOINT = "POST /api/orders/checkout";
+	
+	private final CheckoutRepository checkoutRepository;
+	private final OrderRepository orderRepository;
+	private final CartRepository cartRepository;
+	private final OrderEventService orderEventService;
+	private final RestTemplate restTemplate;
+	private final ObjectWriter objectWriter;
+	private final ThreadPoolTaskExecutor checkoutExecutor;
+	private final ThreadPoolTaskScheduler checkoutScheduler;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration pollInterval;
+	private final Duration lease;
+	private final long initialBackoffMs;
+	private final long maxBackoffMs;
+	private final int maxAttempts;
+	
+	public CheckoutServiceImpl(
+			final CheckoutRepository checkoutRepository,
+			final OrderRepository orderRepository,
+			final CartRepository cartRepository,
+			final OrderEventService orderEventService,
+			final RestTemplate restTemplate,
+			final ObjectMapper objectMapper,
+			final ThreadPoolTaskExecutor checkoutExecutor,
+			@Qualifier("checkoutSchedulerBean") final ThreadPoolTaskScheduler checkoutScheduler,
+			final PlatformTransactionManager transactionManager,
+			@Value("${checkout.poll-interval-ms:250}") final long pollIntervalMs,
+			@Value("${checkout.lease-ms:30000}") final long leaseMs,
+			@Value("${checkout.retry.initial-backoff-ms:1000}") final long initialBackoffMs,
+			@Value("${checkout.retry.max-backoff-ms:60000}") final long maxBackoffMs,
+			@Value("${checkout.retry.max-attempts:10}") final int maxAttempts) {
+		this.checkoutRepository = checkoutRepository;
+		this.orderRepository = orderRepository;
+		this.cartRepository = cartRepository;
+		this.orderEventService = orderEventService;
+		this.restTemplate = restTemplate;
+		this.objectWriter = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT);
+		this.checkoutExecutor = checkoutExecutor;
+		this.checkoutScheduler = checkoutScheduler;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.pollInterval = Duration.ofMillis(pollIntervalMs);
+		this.lease = Duration.ofMillis(leaseMs);
+		this.initialBackoffMs = initialBackoffMs;
+		this.maxBackoffMs = maxBackoffMs;
+		this.maxAttempts = maxAttempts;
+	}
+	
+	/**
+	 * A replayed idempotency key returns the checkout it first created instead of
+	 * creating another order.
+	 * @param principal the caller, null for an anonymous one
+	 * @throws InvalidIdempotencyKeyException when the key is longer than
+	 * {@link AppConstant#MAX_IDEMPOTENCY_KEY_LENGTH}
+	 * @throws IdempotencyKeyMismatchException when the key was used for another request
+	 */
+	@Override
+	public CheckoutDto checkout(final String idempotencyKey, final String principal, final CheckoutDto checkoutDto) {
+		log.info("*** CheckoutDto, service; accept checkout *");
+		final String scopedKey = scope(idempotencyKey, principal);
+		final String requestHash = scopedKey == null ? null : this.hash(checkoutDto);
+		final Optional<CheckoutDto> replayed = Optional.ofNullable(scopedKey)
+				.flatMap(key -> this.findByIdempotencyKey(key, idempotencyKey, requestHash));
+		if (replayed.isPresent())
+			return replayed.get();
+		
+		final Integer cartId = Optional.ofNullable(checkoutDto.getOrderDto().getCartDto())
+				.map(CartDto::getCartId)
+				.orElseThrow(() -> new CartNotFoundException("Cart must not be NULL"));
+		if (!this.cartRepository.existsById(cartId))
+			throw new CartNotFoundException(String.format("Cart with id: %d not found", cartId));
+		
+		try {
+			return this.transactionTemplate.execute(status -> this.accept(scopedKey, requestHash, checkoutDto));
+		}
+		catch (DataIntegrityViolationException e) {
+			// a concurrent request with the same key won the insert
+			return Optional.ofNullable(scopedKey)
+					.flatMap(key -> this.findByIdempotencyKey(key, idempotencyKey, requestHash))
+					.orElseThrow(() -> e);
+		}
+	}
+	
+	@Override
+	public CheckoutDto findById(final String checkoutId) {
+		log.info("*** CheckoutDto, service; fetch checkout by id *");
+		return this.transactionTemplate.execute(status -> this.checkoutRepository.findWithItemsByCheckoutId(checkoutId)
+				.map(CheckoutMappingHelper::map)
+				.orElseThrow(() -> new CheckoutNotFoundException(String
+						.format("Checkout with id: %s not found", checkoutId))));
+	}
+	
+	/**
+	 * Polls on the checkout scheduler rather than the shared one, as a batch may take
+	 * up to a lease to finish.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void startPolling() {
+		this.checkoutScheduler.scheduleWithFixedDelay(this::processDue, 
+				Instant.now().plus(this.pollInterval), this.pollInterval);
+	}
+	
+	/**
+	 * Leases up to {@link AppConstant#CHECKOUT_BATCH_SIZE} due checkouts and advances
+	 * them on the checkout executor, returning once all of them are done or their lease
+	 * ran out, whichever comes first; a checkout still running then may be picked up
+	 * again by the next poll.
+	 */
+	@Override
+	public int processDue() {
+		final List<Checkout> due = this.transactionTemplate.execute(status -> this.checkoutRepository
+				.findDue(PENDING_STATUSES, Instant.now(), PageRequest.of(0, AppConstant.CHECKOUT_BATCH_SIZE)));
+		final List<CompletableFuture<Void>> steps = new ArrayList<>();
+		for (final Checkout checkout : due) {
+			final Instant leaseUntil = Instant.now().plus(this.lease);
+			final int claimed = this.transactionTemplate.execute(status -> this.checkoutRepository
+					.claim(checkout.getCheckoutId(), checkout.getVersion(), leaseUntil));
+			if (claimed == 1)
+				steps.add(CompletableFuture.runAsync(() -> 
+						this.advance(checkout.getCheckoutId(), checkout.getVersion() + 1), this.checkoutExecutor));
+		}
+		try {
+			CompletableFuture.allOf(steps.toArray(CompletableFuture[]::new))
+					.get(this.lease.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			log.warn("*** Integer, service; {} checkouts still running after their lease *", 
+					steps.stream().filter(step -> !step.isDone()).count());
+		}
+		catch (ExecutionException e) {
+			log.error("*** Integer, service; advancing a checkout failed *", e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!steps.isEmpty())
+			log.info("*** Integer, service; advanced {} checkouts *", steps.size());
+		return steps.size();
+	}
+	
+	private CheckoutDto accept(final String scopedKey, final String requestHash, final CheckoutDto checkoutDto) {
+		final Order order = OrderMappingHelper.map(checkoutDto.getOrderDto());
+		order.setOrderId(null);
+		final Order savedOrder = this.orderRepository.save(order);
+		final CheckoutDto accepted = CheckoutMappingHelper.map(this.checkoutRepository.save(Checkout.builder()
+				.checkoutId(UUID.randomUUID().toString())
+				.idempotencyKey(scopedKey)
+				.requestHash(requestHash)
+				.orderId(savedOrder.getOrderId())
+				.checkoutStatus(CheckoutStatus.PAYMENT_PENDING)
+				.attempts(0)
+				.nextAttemptAt(Instant.now())
+				.items(items(checkoutDto.getItems()))
+				.build()));
+		accepted.setOrderDto(OrderMappingHelper.map(savedOrder));
+		this.orderEventService.record(AggregateType.ORDER, savedOrder.getOrderId(), EventType.CREATED, accepted.getOrderDto());
+		return accepted;
+	}
+	
+	private Optional<CheckoutDto> findByIdempotencyKey(final String scopedKey, final String idempotencyKey, 
+			final String requestHash) {
+		return this.transactionTemplate.execute(status -> this.checkoutRepository.findByIdempotencyKey(scopedKey)
+				.map(checkout -> {
+					if (!requestHash.equals(checkout.getRequestHash()))
+						throw new IdempotencyKeyMismatchException(String
+								.format("Idempotency key: %s was already used for another checkout", idempotencyKey));
+					log.info("*** CheckoutDto, service; replay checkout for idempotency key *");
+					return CheckoutMappingHelper.map(checkout);
+				}));
+	}
+	
+	private String hash(final CheckoutDto checkoutDto) {
+		try {
+			return IdempotencyServiceImpl.digest(this.objectWriter.writeValueAsBytes(checkoutDto));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Runs the remaining steps of a leased checkout. Nothing is recorded once the
+	 * version moved past the leased one, the checkout then belongs to another worker.
+	 */
+	private void advance(final String checkoutId, final int leasedVersion) {
+		final Checkout checkout = this.transactionTemplate.execute(status -> this.checkoutRepository
+				.findWithItemsByCheckoutId(checkoutId)
+				.filter(c -> c.getVersion() == leasedVersion)
+				.orElse(null));
+		if (checkout == null)
+			return;
+		
+		Integer version = leasedVersion;
+		try {
+			if (checkout.getCheckoutStatus() == CheckoutStatus.PAYMENT_PENDING) {
+				final Integer paymentId = this.requestPayment(checkout);
+				version = this.record(checkoutId, version, c -> {
+					c.setCheckoutStatus(CheckoutStatus.SHIPPING_PENDING);
+					c.setPaymentId(paymentId);
+					c.setAttempts(0);
+					c.setLastError(null);
+				});
+			}
+			if (version != null) {
+				this.requestShipping(checkout);
+				this.record(checkoutId, version, c -> {
+					c.setCheckoutStatus(CheckoutStatus.COMPLETED);
+					c.setLastError(null);
+				});
+			}
+		}
+		catch (RuntimeException e) {
+			if (version != null)
+				this.recordFailure(checkoutId, version, e);
+		}
+	}
+	
+	private Integer requestPayment(final Checkout checkout) {
+		final PaymentDto paymentDto = this.restTemplate.postForObject(
+				AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL,
+				new HttpEntity<>(PaymentDto.builder()
+						.isPayed(false)
+						.paymentStatus(PaymentStatus.NOT_STARTED)
+						.orderDto(OrderDto.builder()
+								.orderId(checkout.getOrderId())
+								.build())
+						.build(), idempotencyHeaders(checkout.getCheckoutId() + ":payment")),
+				PaymentDto.class);
+		return Optional.ofNullable(paymentDto)
+				.map(PaymentDto::getPaymentId)
+				.orElse(null);
+	}
+	
+	private void requestShipping(final Checkout checkout) {
+		for (final CheckoutItem item : checkout.getItems())
+			this.restTemplate.postForObject(
+					AppConstant.DiscoveredDomainsApi.SHIPPING_SERVICE_API_URL,
+					new HttpEntity<>(OrderItemDto.builder()
+							.productId(item.getProductId())
+							.orderId(checkout.getOrderId())
+							.orderedQuantity(item.getOrderedQuantity())
+							.build(), idempotencyHeaders(checkout.getCheckoutId() + ":shipping:" + item.getProductId())),
+					OrderItemDto.class);
+	}
+	
+	/**
+	 * A request the downstream service rejected fails the checkout at once; anything
+	 * else, an unexpected response or a local error included, is retried after a backoff
+	 * until the attempts run out.
+	 */
+	private void recordFailure(final String checkoutId, final Integer version, final RuntimeException e) {
+		final boolean rejected = e instanceof HttpClientErrorException
+				&& ((HttpClientErrorException) e).getStatusCode() != HttpStatus.CONFLICT
+				&& ((HttpClientErrorException) e).getStatusCode() != HttpStatus.TOO_MANY_REQUESTS;
+		this.record(checkoutId, version, c -> {
+			c.setAttempts(c.getAttempts() + 1);
+			c.setLastError(Optional.ofNullable(e.getMessage())
+					.map(message -> message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message)
+					.orElse(e.getClass().getSimpleName()));
+			if (rejected || c.getAttempts() >= this.maxAttempts) {
+				log.warn("*** Void, service; checkout {} failed after {} attempts: {} *", 
+						checkoutId, c.getAttempts(), c.getLastError());
+				c.setCheckoutStatus(CheckoutStatus.FAILED);
+			}
+			else
+				c.setNextAttemptAt(Instant.now().plus(this.backoff(c.getAttempts())));
+		});
+	}
+	
+	/**
+	 * @return the new version, null when the lease was lost to another worker
+	 */
+	private Integer record(final String checkoutId, final Integer version, final Consumer<Checkout> change) {
+		try {
+			return this.transactionTemplate.execute(status -> this.checkoutRepository.findById(checkoutId)
+					.filter(c -> c.getVersion().equals(version))
+					.map(c -> {
+						change.accept(c);
+						return this.checkoutRepository.saveAndFlush(c).getVersion();
+					})
+					.orElse(null));
+		}
+		catch (OptimisticLockingFailureException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Exponential backoff with jitter, so checkouts failing together do not all come
+	 * back in the same poll.
+	 */
+	private Duration backoff(final int attempts) {
+		final long delay = Math.min(this.maxBackoffMs, this.initialBackoffMs << Math.min(attempts - 1, 20));
+		return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+	}
+	
+	/**
+	 * @return the key scoped to the checkout endpoint and the principal, null without a key
+	 */
+	private static String scope(final String idempotencyKey, final String principal) {
+		if (idempotencyKey == null || idempotencyKey.isBlank())
+			return null;
+		if (idempotencyKey.length() > AppConstant.MAX_IDEMPOTENCY_KEY_LENGTH)
+			throw new InvalidIdempotencyKeyException(String.format("Idempotency key must not exceed %d characters", 
+					AppConstant.MAX_IDEMPOTENCY_KEY_LENGTH));
+		return IdempotencyServiceImpl.scope(idempotencyKey, CHECKOUT_ENDPOINT, principal);
+	}
+	
+	private static HttpHeaders idempotencyHeaders(final String idempotencyKey) {
+		final HttpHeaders headers = new HttpHeaders();
+		headers.set(AppConstant.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+		return headers;
+	}
+	
+	/**
+	 * Order items are keyed by product, so a product listed twice is merged into one item.
+	 */
+	private static List<CheckoutItem> items(final List<CheckoutItemDto> checkoutItemDtos) {
+		final Map<Integer, Integer> quantities = new LinkedHashMap<>();
+		checkoutItemDtos.forEach(item -> quantities.merge(item.getProductId(), item.getOrderedQuantity(), Integer::sum));
+		return quantities.entrySet().stream()
+				.map(entry -> CheckoutItem.builder()
+						.productId(entry.getKey())
+						.orderedQuantity(entry.getValue())
+						.build())
+				.collect(Collectors.toList());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,182 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderEvent;
+import com.selimhorri.app.domain.OrderEvent.AggregateType;
+import com.selimhorri.app.domain.OrderEvent.EventType;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.feed.ChangeFeedResponse;
+import com.selimhorri.app.helper.OrderEventMappingHelper;
+import com.selimhorri.app.repository.OrderEventRepository;
+import com.selimhorri.app.service.OrderEventService;
+import com.selimhorri.app.service.OrderEventTransport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transactional outbox for order and cart changes. Events are recorded in the writing
+ * transaction, so they exist exactly when the change committed. The relay then gives
+ * committed events consecutive sequences and publishes them over the
+ * {@link OrderEventTransport}.
+ * <p>
+ * Sequences are handed out after commit because event ids follow insert order, not
+ * commit order: a reader resuming after id 10 could miss an event with id 9 that
+ * committed later. Relays on several instances may race for the same events or the
+ * same sequences; the event version and the unique sequence let one of them win, and
+ * the others retry on their next run.
+ */
+@Service
+@Slf4j
+public class OrderEventServiceImpl implements OrderEventService {
+	
+	private final OrderEventRepository orderEventRepository;
+	private final OrderEventTransport orderEventTransport;
+	private final ObjectWriter objectWriter;
+	private final TransactionTemplate transactionTemplate;
+	
+	public OrderEventServiceImpl(
+			final OrderEventRepository orderEventRepository,
+			final OrderEventTransport orderEventTransport,
+			final ObjectMapper objectMapper,
+			final PlatformTransactionManager transactionManager) {
+		this.orderEventRepository = orderEventRepository;
+		this.orderEventTransport = orderEventTransport;
+		this.objectWriter = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+	
+	@Override
+	@Transactional(TxType.MANDATORY)
+	public void record(final AggregateType aggregateType, final Integer aggregateId, final EventType eventType, 
+			final Object payload) {
+		this.orderEventRepository.save(OrderEvent.builder()
+				.aggregateType(aggregateType)
+				.aggregateId(aggregateId)
+				.eventType(eventType)
+				.payload(this.write(payload))
+				.occurredAt(LocalDateTime.now())
+				.build());
+	}
+	
+	/**
+	 * Relayed events after the {@code since} cursor, oldest first; events the relay has
+	 * not sequenced yet show up on a later call.
+	 */
+	@Override
+	public ChangeFeedResponse<OrderEventDto> findChanges(final long since, final int limit) {
+		log.info("*** OrderEventDto List, service; fetch order changes since cursor *");
+		final int pageSize = Math.max(1, Math.min(limit, AppConstant.MAX_CHANGES_PAGE_SIZE));
+		final List<OrderEventDto> orderEventDtos = this.transactionTemplate.execute(status -> this.orderEventRepository
+				.findByEventSequenceGreaterThanOrderByEventSequenceAsc(since, PageRequest.of(0, pageSize))
+				.stream()
+					.map(OrderEventMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()));
+		return ChangeFeedResponse.<OrderEventDto>builder()
+				.collection(orderEventDtos)
+				.nextCursor(orderEventDtos.isEmpty() ? since : orderEventDtos.get(orderEventDtos.size() - 1).getSequence())
+				.hasMore(orderEventDtos.size() == pageSize)
+				.build();
+	}
+	
+	/**
+	 * Sequences committed events, then publishes sequenced ones in batches of
+	 * {@link AppConstant#ORDER_EVENT_BATCH_SIZE}, marking each batch once the transport
+	 * took it.
+	 */
+	@Scheduled(initialDelayString = "${order.events.relay-interval-ms:200}", fixedDelayString = "${order.events.relay-interval-ms:200}")
+	@Override
+	public int relay() {
+		int sequenced;
+		do
+			sequenced = this.sequence();
+		while (sequenced == AppConstant.ORDER_EVENT_BATCH_SIZE);
+		
+		int published = 0;
+		List<OrderEvent> orderEvents;
+		do {
+			orderEvents = this.transactionTemplate.execute(status -> this.orderEventRepository
+					.findByEventSequenceIsNotNullAndPublishedAtIsNullOrderByEventSequenceAsc(
+							PageRequest.of(0, AppConstant.ORDER_EVENT_BATCH_SIZE)));
+			if (orderEvents.isEmpty())
+				break;
+			this.orderEventTransport.publish(orderEvents.stream()
+					.map(OrderEventMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()));
+			final List<Long> eventIds = orderEvents.stream()
+					.map(OrderEvent::getEventId)
+					.collect(Collectors.toUnmodifiableList());
+			this.transactionTemplate.execute(status -> this.orderEventRepository.markPublished(eventIds, Instant.now()));
+			published += orderEvents.size();
+		}
+		while (orderEvents.size() == AppConstant.ORDER_EVENT_BATCH_SIZE);
+		
+		if (published > 0)
+			log.info("*** Integer, service; relayed {} order events *", published);
+		return published;
+	}
+	
+	/**
+	 * @return how many events got a sequence, 0 when another relay won the race
+	 */
+	private int sequence() {
+		try {
+			return this.transactionTemplate.execute(status -> {
+				final List<OrderEvent> orderEvents = this.orderEventRepository
+						.findByEventSequenceIsNullOrderByEventIdAsc(PageRequest.of(0, AppConstant.ORDER_EVENT_BATCH_SIZE));
+				long next = this.orderEventRepository.findMaxEventSequence();
+				for (final OrderEvent orderEvent : orderEvents)
+					orderEvent.setEventSequence(++next);
+				this.orderEventRepository.flush();
+				return orderEvents.size();
+			});
+		}
+		catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+			log.info("*** Integer, service; order events sequenced by another relay *");
+			return 0;
+		}
+	}
+	
+	private String write(final Object payload) {
+		try {
+			return this.objectWriter.writeValueAsString(payload);
+		}
+		catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
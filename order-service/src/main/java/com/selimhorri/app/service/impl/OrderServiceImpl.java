@@ -1,28 +1,65 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.OrderEvent.AggregateType;
+import com.selimhorri.app.domain.OrderEvent.EventType;
+import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.bulk.BulkItemResponse;
+import com.selimhorri.app.dto.response.bulk.BulkResponse;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderEventService;
 import com.selimhorri.app.service.OrderService;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Transactional
 @Slf4j
-@RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 	
 	private final OrderRepository orderRepository;
+	private final CartRepository cartRepository;
+	private final EntityManager entityManager;
+	private final OrderEventService orderEventService;
+	private final TransactionTemplate transactionTemplate;
+	
+	public OrderServiceImpl(
+			final OrderRepository orderRepository,
+			final CartRepository cartRepository,
+			final EntityManager entityManager,
+			final OrderEventService orderEventService,
+			final PlatformTransactionManager transactionManager) {
+		this.orderRepository = orderRepository;
+		this.cartRepository = cartRepository;
+		this.entityManager = entityManager;
+		this.orderEventService = orderEventService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
 	
 	@Override
 	public List<OrderDto> findAll() {
@@ -30,10 +67,24 @@ public class OrderServiceImpl implements OrderService {
 		return this.orderRepository.findAll()
 				.stream()
 					.map(OrderMappingHelper::map)
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	@Override
+	public void exportAll(final Consumer<OrderDto> consumer) {
+		log.info("*** OrderDto Stream, service; export all orders *");
+		final AtomicInteger count = new AtomicInteger();
+		try (final Stream<Order> orders = this.orderRepository.streamAll()) {
+			orders.forEach(e -> {
+				consumer.accept(OrderMappingHelper.map(e));
+				// keep the persistence context from growing with the export
+				if (count.incrementAndGet() % AppConstant.EXPORT_FETCH_SIZE == 0) {
+					this.entityManager.clear();
+				}
+			});
+		}
+	}
+	
 	@Override
 	public OrderDto findById(final Integer orderId) {
 		log.info("*** OrderDto, service; fetch order by id *");
@@ -46,28 +97,133 @@ public class OrderServiceImpl implements OrderService {
 	@Override
 	public OrderDto save(final OrderDto orderDto) {
 		log.info("*** OrderDto, service; save order *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.recorded(EventType.CREATED, OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(orderDto))));
+	}
+	
+	/**
+	 * Each chunk commits on its own, so the orders of the chunks before a failure stay
+	 * created; see {@link #commitChunk(Map, List)}.
+	 */
+	@Override
+	@Transactional(TxType.NOT_SUPPORTED)
+	public BulkResponse<OrderDto> saveAll(final List<OrderDto> orderDtos) {
+		log.info("*** BulkResponse, service; save orders in bulk *");
+		final Set<Integer> existingCartIds = this.findExistingCartIds(orderDtos);
+		final List<BulkItemResponse<OrderDto>> items = new ArrayList<>(Collections.nCopies(orderDtos.size(), null));
+		final Map<Integer, OrderDto> chunk = new LinkedHashMap<>();
+		
+		for (int index = 0; index < orderDtos.size(); index++) {
+			final OrderDto orderDto = orderDtos.get(index);
+			final String rejection = rejectionOf(orderDto, existingCartIds);
+			if (rejection != null) {
+				items.set(index, BulkItemResponse.failed(index, orderDto, rejection));
+				continue;
+			}
+			
+			chunk.put(index, orderDto);
+			if (chunk.size() == AppConstant.BULK_BATCH_SIZE) {
+				this.commitChunk(chunk, items);
+			}
+		}
+		this.commitChunk(chunk, items);
+		
+		return BulkResponse.of(items);
 	}
 	
 	@Override
 	public OrderDto update(final OrderDto orderDto) {
 		log.info("*** OrderDto, service; update order *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(orderDto)));
+		return this.recorded(EventType.UPDATED, OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(orderDto))));
 	}
 	
 	@Override
 	public OrderDto update(final Integer orderId, final OrderDto orderDto) {
 		log.info("*** OrderDto, service; update order with orderId *");
-		return OrderMappingHelper.map(this.orderRepository
-				.save(OrderMappingHelper.map(this.findById(orderId))));
+		return this.recorded(EventType.UPDATED, OrderMappingHelper.map(this.orderRepository
+				.save(OrderMappingHelper.map(this.findById(orderId)))));
 	}
 	
 	@Override
 	public void deleteById(final Integer orderId) {
 		log.info("*** Void, service; delete order by id *");
-		this.orderRepository.delete(OrderMappingHelper.map(this.findById(orderId)));
+		final OrderDto orderDto = this.findById(orderId);
+		this.orderRepository.delete(OrderMappingHelper.map(orderDto));
+		this.recorded(EventType.DELETED, orderDto);
+	}
+	
+	private OrderDto recorded(final EventType eventType, final OrderDto orderDto) {
+		this.orderEventService.record(AggregateType.ORDER, orderDto.getOrderId(), eventType, orderDto);
+		return orderDto;
+	}
+	
+	private Set<Integer> findExistingCartIds(final List<OrderDto> orderDtos) {
+		final Set<Integer> cartIds = orderDtos.stream()
+				.filter(Objects::nonNull)
+				.map(OrderDto::getCartDto)
+				.filter(Objects::nonNull)
+				.map(CartDto::getCartId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		return cartIds.isEmpty() ? Set.of() : this.cartRepository.findExistingCartIds(cartIds);
+	}
+	
+	private static String rejectionOf(final OrderDto orderDto, final Set<Integer> existingCartIds) {
+		if (orderDto == null)
+			return "Order must not be NULL";
+		if (orderDto.getCartDto() == null || orderDto.getCartDto().getCartId() == null)
+			return "Cart must not be NULL";
+		if (!existingCartIds.contains(orderDto.getCartDto().getCartId()))
+			return String.format("Cart with id: %d not found", orderDto.getCartDto().getCartId());
+		return null;
+	}
+	
+	/**
+	 * Commits one chunk and its order events in a transaction of its own. When the
+	 * chunk fails, its orders are retried one per transaction so that only the orders
+	 * the database rejects are reported as failed.
+	 */
+	private void commitChunk(final Map<Integer, OrderDto> chunk, final List<BulkItemResponse<OrderDto>> items) {
+		if (chunk.isEmpty())
+			return;
+		try {
+			this.transactionTemplate.execute(status -> this.persist(chunk))
+					.forEach((index, created) -> items.set(index, BulkItemResponse.created(index, created)));
+		}
+		catch (RuntimeException e) {
+			log.info("*** Bulk chunk failed, retrying its orders one by one: {} *", e.getMessage());
+			chunk.forEach((index, orderDto) -> {
+				try {
+					this.transactionTemplate.execute(status -> this.persist(Map.of(index, orderDto)))
+							.forEach((i, created) -> items.set(i, BulkItemResponse.created(i, created)));
+				}
+				catch (RuntimeException itemFailure) {
+					log.info("*** Bulk order at index {} rejected: {} *", index, itemFailure.getMessage());
+					items.set(index, BulkItemResponse.failed(index, orderDto, "Order could not be saved"));
+				}
+			});
+		}
+		chunk.clear();
+	}
+	
+	/**
+	 * Persists the orders and their events as JDBC batches, then detaches them so the
+	 * persistence context stays bounded by the chunk size.
+	 */
+	private Map<Integer, OrderDto> persist(final Map<Integer, OrderDto> orderDtos) {
+		final Map<Integer, Order> orders = new LinkedHashMap<>();
+		orderDtos.forEach((index, orderDto) -> {
+			final Order order = OrderMappingHelper.map(orderDto);
+			order.setOrderId(null);
+			orders.put(index, order);
+		});
+		this.orderRepository.saveAll(orders.values());
+		final Map<Integer, OrderDto> created = new LinkedHashMap<>();
+		orders.forEach((index, order) -> created.put(index, this.recorded(EventType.CREATED, OrderMappingHelper.map(order))));
+		this.orderRepository.flush();
+		this.entityManager.clear();
+		return created;
 	}
 	
 	
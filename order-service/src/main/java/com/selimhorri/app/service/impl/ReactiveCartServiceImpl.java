@@ -0,0 +1,114 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.helper.CartMappingHelper;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.service.ReactiveCartService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Enriches carts without holding a thread while user-service answers. Repository
+ * calls block, so they run on the JPA scheduler; users are still resolved with one
+ * batch call per listing.
+ */
+@Service
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveCartServiceImpl implements ReactiveCartService {
+	
+	private final CartRepository cartRepository;
+	private final WebClient webClient;
+	private final Scheduler jpaScheduler;
+	
+	public ReactiveCartServiceImpl(
+			final CartRepository cartRepository,
+			final WebClient.Builder webClientBuilder,
+			final Scheduler jpaScheduler) {
+		this.cartRepository = cartRepository;
+		this.webClient = webClientBuilder.build();
+		this.jpaScheduler = jpaScheduler;
+	}
+	
+	@Override
+	public Flux<CartDto> findAll() {
+		log.info("*** CartDto Flux, service; fetch all carts *");
+		return Mono.fromCallable(() -> this.cartRepository.findAll()
+					.stream()
+						.map(CartMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.subscribeOn(this.jpaScheduler)
+				.flatMapMany(cartDtos -> this.fetchUsersByIds(cartDtos.stream()
+							.map(CartDto::getUserId)
+							.filter(userId -> userId != null)
+							.collect(Collectors.toUnmodifiableSet()))
+						.flatMapIterable(userDtos -> {
+							cartDtos.forEach(c -> c.setUserDto(userDtos.getOrDefault(c.getUserId(), c.getUserDto())));
+							return cartDtos;
+						}));
+	}
+	
+	@Override
+	public Mono<CartDto> findById(final Integer cartId) {
+		log.info("*** CartDto Mono, service; fetch cart by id *");
+		return Mono.fromCallable(() -> this.cartRepository.findById(cartId)
+					.map(CartMappingHelper::map)
+					.orElseThrow(() -> new CartNotFoundException(String
+							.format("Cart with id: %d not found", cartId))))
+				.subscribeOn(this.jpaScheduler)
+				.flatMap(c -> this.webClient.get()
+						.uri(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId())
+						.retrieve()
+						.bodyToMono(UserDto.class)
+						.map(userDto -> {
+							c.setUserDto(userDto);
+							return c;
+						}));
+	}
+	
+	private Mono<Map<Integer, UserDto>> fetchUsersByIds(final Set<Integer> userIds) {
+		if (userIds.isEmpty())
+			return Mono.just(Collections.emptyMap());
+		return this.webClient.post()
+				.uri(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/batch")
+				.bodyValue(userIds)
+				.retrieve()
+				.bodyToMono(new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {})
+				.map(DtoCollectionResponse::getCollection)
+				.defaultIfEmpty(List.of())
+				.map(userDtos -> userDtos.stream()
+						.collect(Collectors.toUnmodifiableMap(UserDto::getUserId, Function.identity(), (u1, u2) -> u1)));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
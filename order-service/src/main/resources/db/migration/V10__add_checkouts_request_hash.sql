@@ -0,0 +1,6 @@
+
+ALTER TABLE checkouts
+  ADD COLUMN request_hash VARCHAR(64);
+
+
+
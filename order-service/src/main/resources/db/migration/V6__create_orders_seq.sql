@@ -0,0 +1,8 @@
+CREATE TABLE orders_seq (
+	next_val BIGINT NOT NULL
+);
+
+INSERT INTO orders_seq (next_val) VALUES (1001);
+
+
+
@@ -0,0 +1,26 @@
+
+CREATE TABLE checkouts (
+	checkout_id VARCHAR(36) NOT NULL PRIMARY KEY,
+	idempotency_key VARCHAR(255),
+	order_id INT(11) NOT NULL,
+	checkout_status VARCHAR(32) NOT NULL,
+	payment_id INT(11),
+	attempts INT(11) DEFAULT 0 NOT NULL,
+	next_attempt_at TIMESTAMP NOT NULL,
+	last_error VARCHAR(255),
+	version INT(11) DEFAULT 0 NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP,
+	CONSTRAINT uk_checkouts_idempotency_key UNIQUE (idempotency_key),
+	CONSTRAINT fk_checkouts_order_id FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE INDEX idx_checkouts_status_next_attempt_at ON checkouts (checkout_status, next_attempt_at);
+
+CREATE TABLE checkout_items (
+	checkout_id VARCHAR(36) NOT NULL,
+	product_id INT(11) NOT NULL,
+	ordered_quantity INT(11) NOT NULL,
+	PRIMARY KEY (checkout_id, product_id),
+	CONSTRAINT fk_checkout_items_checkout_id FOREIGN KEY (checkout_id) REFERENCES checkouts (checkout_id)
+);
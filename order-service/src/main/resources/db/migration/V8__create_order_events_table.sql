@@ -0,0 +1,21 @@
+
+CREATE TABLE order_events (
+	event_id BIGINT NOT NULL PRIMARY KEY,
+	aggregate_type VARCHAR(32) NOT NULL,
+	aggregate_id INT(11) NOT NULL,
+	event_type VARCHAR(32) NOT NULL,
+	payload VARCHAR(4000) NOT NULL,
+	event_sequence BIGINT,
+	occurred_at TIMESTAMP NOT NULL,
+	published_at TIMESTAMP,
+	version INT(11) DEFAULT 0 NOT NULL,
+	CONSTRAINT uk_order_events_event_sequence UNIQUE (event_sequence)
+);
+
+CREATE INDEX idx_order_events_published_at ON order_events (published_at, event_sequence);
+
+CREATE TABLE order_events_seq (
+	next_val BIGINT NOT NULL
+);
+
+INSERT INTO order_events_seq (next_val) VALUES (1);
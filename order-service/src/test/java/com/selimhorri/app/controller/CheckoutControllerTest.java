@@ -0,0 +1,74 @@
+package com.selimhorri.app.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.CheckoutStatus;
+import com.selimhorri.app.dto.CheckoutDto;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.resource.CheckoutResource;
+import com.selimhorri.app.service.CheckoutService;
+
+@WebMvcTest(controllers = CheckoutResource.class)
+@Import(ApiExceptionHandler.class)
+@ActiveProfiles("test")
+class CheckoutControllerTest {
+
+    private static final String CHECKOUT_BODY = "{\"order\":{\"orderDesc\":\"Checkout order\",\"cart\":{\"cartId\":1}},"
+            + "\"items\":[{\"productId\":1,\"orderedQuantity\":2}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CheckoutService checkoutService;
+
+    @Test
+    void checkout_passesIdempotencyKeyAndPrincipalToTheService() throws Exception {
+        given(checkoutService.checkout(eq("key-1"), eq("alice"), any(CheckoutDto.class)))
+                .willReturn(CheckoutDto.builder()
+                        .checkoutId("c-1")
+                        .checkoutStatus(CheckoutStatus.PAYMENT_PENDING)
+                        .build());
+
+        mockMvc.perform(post("/api/orders/checkout")
+                        .header(AppConstant.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .header(AppConstant.PRINCIPAL_HEADER, "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(CHECKOUT_BODY))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/orders/checkout/c-1"))
+                .andExpect(jsonPath("$.checkoutId").value("c-1"));
+    }
+
+    @Test
+    void checkout_whenKeyWasUsedForAnotherRequest_returnsUnprocessableEntity() throws Exception {
+        given(checkoutService.checkout(eq("key-1"), eq("alice"), any(CheckoutDto.class)))
+                .willThrow(new IdempotencyKeyMismatchException("Idempotency key: key-1 was already used for another checkout"));
+
+        mockMvc.perform(post("/api/orders/checkout")
+                        .header(AppConstant.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .header(AppConstant.PRINCIPAL_HEADER, "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(CHECKOUT_BODY))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.httpStatus").value("UNPROCESSABLE_ENTITY"));
+    }
+
+}
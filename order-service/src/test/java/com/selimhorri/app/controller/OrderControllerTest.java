@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -28,8 +30,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.bulk.BulkItemResponse;
+import com.selimhorri.app.dto.response.bulk.BulkResponse;
 import com.selimhorri.app.exception.ApiExceptionHandler;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.service.IdempotencyService;
 import com.selimhorri.app.service.OrderService;
 
 @WebMvcTest(controllers = com.selimhorri.app.resource.OrderResource.class)
@@ -46,6 +51,15 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        given(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+    }
+
     @Test
     void getAllOrders_returnsCollectionResponse() throws Exception {
         CartDto cartDto = CartDto.builder().cartId(1).userId(10).build();
@@ -133,6 +147,28 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.orderDesc").value("New Order"));
     }
 
+    @Test
+    void saveOrdersInBulk_returnsPerItemResults() throws Exception {
+        CartDto cartDto = CartDto.builder().cartId(1).userId(10).build();
+        OrderDto created = OrderDto.builder().orderId(1001).orderDesc("Bulk 1").cartDto(cartDto).build();
+        OrderDto rejected = OrderDto.builder().orderDesc("Bulk 2").build();
+
+        given(orderService.saveAll(any())).willReturn(BulkResponse.of(Arrays.asList(
+                BulkItemResponse.created(0, created),
+                BulkItemResponse.failed(1, rejected, "Cart must not be NULL"))));
+
+        mockMvc.perform(post("/api/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(created, rejected))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[0].item.orderId").value(1001))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].msg").value("Cart must not be NULL"));
+    }
+
     @Test
     void updateOrder_returnsUpdatedOrder() throws Exception {
         CartDto cartDto = CartDto.builder().cartId(1).userId(10).build();
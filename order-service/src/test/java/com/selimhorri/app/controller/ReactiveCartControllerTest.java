@@ -0,0 +1,95 @@
+package com.selimhorri.app.controller;
+
+import static org.mockito.BDDMockito.given;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.resource.ReactiveCartResource;
+import com.selimhorri.app.service.ReactiveCartService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(controllers = ReactiveCartResource.class)
+@Import(ApiExceptionHandler.class)
+@TestPropertySource(properties = "enrichment.reactive.enabled=true")
+@ActiveProfiles("test")
+class ReactiveCartControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveCartService reactiveCartService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Test
+    void findAll_returnsEnrichedCollection() {
+        given(reactiveCartService.findAll()).willReturn(Flux.just(cart(1, 10), cart(2, 20)));
+
+        webTestClient.get().uri("/api/carts/reactive")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.collection.length()").isEqualTo(2)
+                .jsonPath("$.collection[0].user.firstName").isEqualTo("user 10")
+                .jsonPath("$.collection[1].cartId").isEqualTo(2);
+    }
+
+    @Test
+    void findById_returnsEnrichedCart() {
+        given(reactiveCartService.findById(1)).willReturn(Mono.just(cart(1, 10)));
+
+        webTestClient.get().uri("/api/carts/reactive/{cartId}", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.cartId").isEqualTo(1)
+                .jsonPath("$.user.firstName").isEqualTo("user 10");
+    }
+
+    @Test
+    void findById_whenNotFound_returnsBadRequestWithErrorBody() {
+        given(reactiveCartService.findById(99))
+                .willReturn(Mono.error(new CartNotFoundException("Cart with id: 99 not found")));
+
+        webTestClient.get().uri("/api/carts/reactive/{cartId}", "99")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.httpStatus").isEqualTo("BAD_REQUEST")
+                .jsonPath("$.msg").exists();
+    }
+
+    private static CartDto cart(Integer cartId, Integer userId) {
+        return CartDto.builder()
+                .cartId(cartId)
+                .userId(userId)
+                .userDto(UserDto.builder()
+                        .userId(userId)
+                        .firstName("user " + userId)
+                        .build())
+                .build();
+    }
+
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
@@ -15,12 +16,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.repository.CartRepository;
 
@@ -53,8 +59,9 @@ class CartServiceTest {
         UserDto user2 = UserDto.builder().userId(20).build();
 
         given(cartRepository.findAll()).willReturn(Arrays.asList(cart1, cart2));
-        given(restTemplate.getForObject(anyString(), any(Class.class)))
-                .willReturn(user1, user2);
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(Arrays.asList(user1, user2))));
 
         List<CartDto> result = cartService.findAll();
 
@@ -62,10 +69,38 @@ class CartServiceTest {
         assertThat(result)
                 .extracting(CartDto::getCartId)
                 .containsExactlyInAnyOrder(1, 2);
+        assertThat(result)
+                .extracting(CartDto::getUserDto)
+                .containsExactlyInAnyOrder(user1, user2);
 
         verify(cartRepository).findAll();
     }
 
+    @Test
+    void findAll_fetchesDistinctUsersInSingleBatchCall() {
+        Cart cart1 = Cart.builder().cartId(1).userId(10).build();
+        Cart cart2 = Cart.builder().cartId(2).userId(10).build();
+        Cart cart3 = Cart.builder().cartId(3).userId(20).build();
+
+        UserDto user1 = UserDto.builder().userId(10).firstName("John").build();
+        UserDto user2 = UserDto.builder().userId(20).firstName("Jane").build();
+
+        given(cartRepository.findAll()).willReturn(Arrays.asList(cart1, cart2, cart3));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(Arrays.asList(user1, user2))));
+
+        List<CartDto> result = cartService.findAll();
+
+        assertThat(result).hasSize(3);
+        assertThat(result)
+                .extracting(c -> c.getUserDto().getFirstName())
+                .containsExactly("John", "John", "Jane");
+
+        verify(restTemplate).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
     @Test
     void findById_returnsCartWhenExists() {
         Integer id = 1;
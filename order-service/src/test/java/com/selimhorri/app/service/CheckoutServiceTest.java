@@ -0,0 +1,194 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.CheckoutStatus;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.CheckoutDto;
+import com.selimhorri.app.dto.CheckoutItemDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.repository.CartRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutServiceTest {
+
+    private static final String PAYMENT_URL = AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL;
+    private static final String SHIPPING_URL = AppConstant.DiscoveredDomainsApi.SHIPPING_SERVICE_API_URL;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void checkout_isAcceptedOnceAndAdvancedThroughPaymentAndShipping() {
+        given(restTemplate.postForObject(eq(PAYMENT_URL), any(HttpEntity.class), eq(PaymentDto.class)))
+                .willReturn(PaymentDto.builder()
+                        .paymentId(7)
+                        .build());
+        String idempotencyKey = UUID.randomUUID().toString();
+        CheckoutDto request = checkoutRequest(item(1, 2), item(2, 1), item(1, 3));
+
+        CheckoutDto accepted = checkoutService.checkout(idempotencyKey, "alice", request);
+        CheckoutDto replayed = checkoutService.checkout(idempotencyKey, "alice", request);
+
+        assertThat(accepted.getCheckoutStatus()).isEqualTo(CheckoutStatus.PAYMENT_PENDING);
+        assertThat(accepted.getOrderDto().getOrderId()).isNotNull();
+        assertThat(accepted.getItems())
+                .extracting(CheckoutItemDto::getProductId, CheckoutItemDto::getOrderedQuantity)
+                .containsExactly(tuple(1, 5), tuple(2, 1));
+        assertThat(replayed.getCheckoutId()).isEqualTo(accepted.getCheckoutId());
+        assertThat(replayed.getOrderDto().getOrderId()).isEqualTo(accepted.getOrderDto().getOrderId());
+
+        checkoutService.processDue();
+
+        CheckoutDto completed = checkoutService.findById(accepted.getCheckoutId());
+        assertThat(completed.getCheckoutStatus()).isEqualTo(CheckoutStatus.COMPLETED);
+        assertThat(completed.getPaymentId()).isEqualTo(7);
+        assertThat(idempotencyKeysSentTo(PAYMENT_URL, PaymentDto.class))
+                .containsOnlyOnce(accepted.getCheckoutId() + ":payment");
+        assertThat(idempotencyKeysSentTo(SHIPPING_URL, OrderItemDto.class))
+                .contains(accepted.getCheckoutId() + ":shipping:1", accepted.getCheckoutId() + ":shipping:2");
+    }
+
+    @Test
+    void checkout_scopesIdempotencyKeyToThePrincipal() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CheckoutDto request = checkoutRequest(item(1, 1));
+
+        CheckoutDto alices = checkoutService.checkout(idempotencyKey, "alice", request);
+        CheckoutDto bobs = checkoutService.checkout(idempotencyKey, "bob", request);
+
+        // la misma clave de otro usuario no debe devolver el checkout ajeno
+        assertThat(bobs.getCheckoutId()).isNotEqualTo(alices.getCheckoutId());
+        assertThat(bobs.getOrderDto().getOrderId()).isNotEqualTo(alices.getOrderDto().getOrderId());
+        assertThat(checkoutService.checkout(idempotencyKey, "alice", request).getCheckoutId())
+                .isEqualTo(alices.getCheckoutId());
+    }
+
+    @Test
+    void checkout_rejectsIdempotencyKeyReusedForAnotherRequest() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CheckoutDto accepted = checkoutService.checkout(idempotencyKey, "alice", checkoutRequest(item(1, 1)));
+
+        assertThatThrownBy(() -> checkoutService.checkout(idempotencyKey, "alice", checkoutRequest(item(2, 4))))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(checkoutService.findById(accepted.getCheckoutId()).getItems())
+                .extracting(CheckoutItemDto::getProductId)
+                .containsExactly(1);
+    }
+
+    @Test
+    void processDue_retriesUnavailablePaymentUntilAttemptsRunOut() {
+        given(restTemplate.postForObject(eq(PAYMENT_URL), any(HttpEntity.class), eq(PaymentDto.class)))
+                .willThrow(new ResourceAccessException("payment-service unavailable"));
+        CheckoutDto accepted = checkoutService.checkout(null, null, checkoutRequest(item(1, 1)));
+
+        checkoutService.processDue();
+
+        CheckoutDto retried = checkoutService.findById(accepted.getCheckoutId());
+        assertThat(retried.getCheckoutStatus()).isEqualTo(CheckoutStatus.PAYMENT_PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).contains("payment-service unavailable");
+
+        checkoutService.processDue();
+        checkoutService.processDue();
+
+        CheckoutDto failed = checkoutService.findById(accepted.getCheckoutId());
+        assertThat(failed.getCheckoutStatus()).isEqualTo(CheckoutStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void processDue_failsRejectedPaymentWithoutRetrying() {
+        given(restTemplate.postForObject(eq(PAYMENT_URL), any(HttpEntity.class), eq(PaymentDto.class)))
+                .willThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null));
+        CheckoutDto accepted = checkoutService.checkout(null, null, checkoutRequest(item(1, 1)));
+
+        checkoutService.processDue();
+
+        CheckoutDto failed = checkoutService.findById(accepted.getCheckoutId());
+        assertThat(failed.getCheckoutStatus()).isEqualTo(CheckoutStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void processDue_countsUnexpectedFailuresAsAttempts() {
+        given(restTemplate.postForObject(eq(PAYMENT_URL), any(HttpEntity.class), eq(PaymentDto.class)))
+                .willThrow(new IllegalStateException("No instances available for payment-service"));
+        CheckoutDto accepted = checkoutService.checkout(null, null, checkoutRequest(item(1, 1)));
+
+        checkoutService.processDue();
+
+        CheckoutDto retried = checkoutService.findById(accepted.getCheckoutId());
+        assertThat(retried.getCheckoutStatus()).isEqualTo(CheckoutStatus.PAYMENT_PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).contains("No instances available");
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private <T> List<String> idempotencyKeysSentTo(String url, Class<T> responseType) {
+        ArgumentCaptor<HttpEntity> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, atLeastOnce()).postForObject(eq(url), requests.capture(), eq(responseType));
+        return requests.getAllValues().stream()
+                .map(request -> request.getHeaders().getFirst(AppConstant.IDEMPOTENCY_KEY_HEADER))
+                .collect(Collectors.toList());
+    }
+
+    private CheckoutDto checkoutRequest(CheckoutItemDto... items) {
+        Cart cart = cartRepository.save(Cart.builder()
+                .userId(1)
+                .build());
+        return CheckoutDto.builder()
+                .orderDto(OrderDto.builder()
+                        .orderDesc("Checkout order")
+                        .orderFee(25.0)
+                        .cartDto(CartDto.builder()
+                                .cartId(cart.getCartId())
+                                .build())
+                        .build())
+                .items(List.of(items))
+                .build();
+    }
+
+    private static CheckoutItemDto item(int productId, int orderedQuantity) {
+        return CheckoutItemDto.builder()
+                .productId(productId)
+                .orderedQuantity(orderedQuantity)
+                .build();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderEvent.AggregateType;
+import com.selimhorri.app.domain.OrderEvent.EventType;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderEventDto;
+import com.selimhorri.app.dto.response.feed.ChangeFeedResponse;
+import com.selimhorri.app.helper.InProcessOrderEventBroker;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderEventServiceTest {
+
+    @Autowired
+    private OrderEventService orderEventService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private InProcessOrderEventBroker inProcessOrderEventBroker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void relay_publishesCommittedChangesInOrderAndFeedResumesFromCursor() {
+        long since = latestCursor();
+        List<OrderEventDto> published = new ArrayList<>();
+        Runnable unsubscribe = inProcessOrderEventBroker.subscribe(published::addAll);
+        try {
+            CartDto cart = cartService.save(CartDto.builder()
+                    .userId(1)
+                    .build());
+            OrderDto order = orderService.save(OrderDto.builder()
+                    .orderDesc("Outbox order")
+                    .orderFee(10.0)
+                    .cartDto(CartDto.builder()
+                            .cartId(cart.getCartId())
+                            .build())
+                    .build());
+            order.setOrderDesc("Outbox order, updated");
+            orderService.update(order);
+            orderService.deleteById(order.getOrderId());
+
+            assertThat(orderEventService.findChanges(since, 100).getCollection()).isEmpty();
+            assertThat(orderEventService.relay()).isEqualTo(4);
+            assertThat(orderEventService.relay()).isZero();
+        }
+        finally {
+            unsubscribe.run();
+        }
+
+        ChangeFeedResponse<OrderEventDto> firstPage = orderEventService.findChanges(since, 3);
+        ChangeFeedResponse<OrderEventDto> secondPage = orderEventService.findChanges(firstPage.getNextCursor(), 3);
+
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(secondPage.isHasMore()).isFalse();
+        List<OrderEventDto> changes = new ArrayList<>(firstPage.getCollection());
+        changes.addAll(secondPage.getCollection());
+        assertThat(changes)
+                .extracting(OrderEventDto::getAggregateType, OrderEventDto::getEventType)
+                .containsExactly(
+                        tuple(AggregateType.CART, EventType.CREATED),
+                        tuple(AggregateType.ORDER, EventType.CREATED),
+                        tuple(AggregateType.ORDER, EventType.UPDATED),
+                        tuple(AggregateType.ORDER, EventType.DELETED));
+        assertThat(changes)
+                .extracting(OrderEventDto::getSequence)
+                .containsExactly(since + 1, since + 2, since + 3, since + 4);
+        assertThat(changes.get(2).getPayload()).contains("Outbox order, updated");
+        assertThat(published).containsExactlyElementsOf(changes);
+    }
+
+    @Test
+    void record_leavesNoEventForARolledBackWrite() {
+        long since = latestCursor();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cartService.save(CartDto.builder()
+                    .userId(2)
+                    .build());
+            status.setRollbackOnly();
+        });
+        orderEventService.relay();
+
+        assertThat(orderEventService.findChanges(since, 100).getCollection()).isEmpty();
+    }
+
+    private long latestCursor() {
+        orderEventService.relay();
+        ChangeFeedResponse<OrderEventDto> changes;
+        long cursor = 0;
+        do {
+            changes = orderEventService.findChanges(cursor, 500);
+            cursor = changes.getNextCursor();
+        }
+        while (changes.isHasMore());
+        return cursor;
+    }
+
+}
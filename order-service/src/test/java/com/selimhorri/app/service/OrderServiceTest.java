@@ -3,26 +3,35 @@ package com.selimhorri.app.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.bulk.BulkItemResponse.BulkItemStatus;
+import com.selimhorri.app.dto.response.bulk.BulkResponse;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
 
 @SpringBootTest
@@ -35,6 +44,9 @@ class OrderServiceTest {
     @MockBean
     private OrderRepository orderRepository;
 
+    @MockBean
+    private CartRepository cartRepository;
+
     @Test
     void findAll_returnsAllOrdersFromRepository() {
         Cart cart = Cart.builder()
@@ -70,6 +82,24 @@ class OrderServiceTest {
         verify(orderRepository).findAll();
     }
 
+    @Test
+    void exportAll_streamsEveryMappedOrderToConsumer() {
+        Cart cart = Cart.builder().cartId(1).userId(10).build();
+        Order order1 = Order.builder().orderId(1).orderDesc("Order 1").cart(cart).build();
+        Order order2 = Order.builder().orderId(2).orderDesc("Order 2").cart(cart).build();
+
+        given(orderRepository.streamAll()).willReturn(Stream.of(order1, order2));
+
+        List<OrderDto> exported = new ArrayList<>();
+        orderService.exportAll(exported::add);
+
+        assertThat(exported)
+                .extracting(OrderDto::getOrderId)
+                .containsExactly(1, 2);
+
+        verify(orderRepository).streamAll();
+    }
+
     @Test
     void findById_returnsOrderWhenExists() {
         Integer id = 1;
@@ -145,6 +175,86 @@ class OrderServiceTest {
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_persistsValidOrdersAndReportsRejectedOnesPerItem() {
+        OrderDto valid = OrderDto.builder()
+                .orderId(42)
+                .orderDesc("Bulk 1")
+                .orderFee(10.0)
+                .cartDto(CartDto.builder().cartId(1).build())
+                .build();
+        OrderDto unknownCart = OrderDto.builder()
+                .orderDesc("Bulk 2")
+                .cartDto(CartDto.builder().cartId(99).build())
+                .build();
+        OrderDto missingCart = OrderDto.builder()
+                .orderDesc("Bulk 3")
+                .build();
+
+        given(cartRepository.findExistingCartIds(anyCollection())).willReturn(Set.of(1));
+        given(orderRepository.saveAll(any(Iterable.class))).willAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>();
+            ((Iterable<Order>) invocation.getArgument(0)).forEach(order -> {
+                assertThat(order.getOrderId()).isNull();
+                order.setOrderId(1001 + saved.size());
+                saved.add(order);
+            });
+            return saved;
+        });
+
+        BulkResponse<OrderDto> result = orderService.saveAll(Arrays.asList(valid, unknownCart, missingCart));
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getItems())
+                .extracting(item -> item.getStatus())
+                .containsExactly(BulkItemStatus.CREATED, BulkItemStatus.FAILED, BulkItemStatus.FAILED);
+        assertThat(result.getItems().get(0).getItem().getOrderId()).isEqualTo(1001);
+        assertThat(result.getItems().get(1).getMsg()).isEqualTo("Cart with id: 99 not found");
+        assertThat(result.getItems().get(2).getMsg()).isEqualTo("Cart must not be NULL");
+
+        verify(orderRepository).saveAll(any(Iterable.class));
+        verify(orderRepository).flush();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_whenChunkFails_retriesItsOrdersOneByOne() {
+        OrderDto good = OrderDto.builder()
+                .orderDesc("Good")
+                .cartDto(CartDto.builder().cartId(1).build())
+                .build();
+        OrderDto bad = OrderDto.builder()
+                .orderDesc("Bad")
+                .cartDto(CartDto.builder().cartId(1).build())
+                .build();
+
+        given(cartRepository.findExistingCartIds(anyCollection())).willReturn(Set.of(1));
+        given(orderRepository.saveAll(any(Iterable.class))).willAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>();
+            ((Iterable<Order>) invocation.getArgument(0)).forEach(order -> {
+                // la base de datos rechaza la fila "Bad"
+                if ("Bad".equals(order.getOrderDesc()))
+                    throw new DataIntegrityViolationException("rejected");
+                order.setOrderId(2001 + saved.size());
+                saved.add(order);
+            });
+            return saved;
+        });
+
+        BulkResponse<OrderDto> result = orderService.saveAll(Arrays.asList(good, bad));
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getItems())
+                .extracting(item -> item.getStatus())
+                .containsExactly(BulkItemStatus.CREATED, BulkItemStatus.FAILED);
+        assertThat(result.getItems().get(1).getMsg()).isEqualTo("Order could not be saved");
+        // un intento por chunk y uno por cada pedido del chunk
+        verify(orderRepository, times(3)).saveAll(any(Iterable.class));
+    }
+
     @Test
     void update_withDto_updatesAndReturnsMappedOrder() {
         CartDto cartDto = CartDto.builder()
@@ -0,0 +1,154 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.config.client.ReactiveClientConfig;
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.service.impl.ReactiveCartServiceImpl;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.scheduler.Schedulers;
+
+class ReactiveCartServiceTest {
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer userService;
+    private ReactiveCartService reactiveCartService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        userService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        userService.createContext("/user-service/api/users", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.add(exchange.getRequestMethod() + " " + path);
+            String body;
+            if (path.endsWith("/batch")) {
+                Integer[] userIds = objectMapper.readValue(
+                        StreamUtils.copyToString(exchange.getRequestBody(), StandardCharsets.UTF_8), Integer[].class);
+                body = List.of(userIds).stream()
+                        .map(ReactiveCartServiceTest::user)
+                        .collect(Collectors.joining(",", "{\"collection\":[", "]}"));
+            }
+            else
+                body = user(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        userService.setExecutor(executor);
+        userService.start();
+
+        ObjectProvider<DiscoveryClient> discoveryClient = mock(ObjectProvider.class);
+        WebClient.Builder webClientBuilder = new ReactiveClientConfig()
+                .webClientBuilderBean(new ClientProperties(), discoveryClient, 1024 * 1024)
+                // hace de balanceador: USER-SERVICE resuelve al servidor local
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(local(request.url()))
+                        .build()));
+        reactiveCartService = new ReactiveCartServiceImpl(cartRepository, webClientBuilder, Schedulers.immediate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findAll_fetchesAllUsersInOneBatchAndEnrichesCarts() {
+        given(cartRepository.findAll()).willReturn(List.of(cart(1, 10), cart(2, 10), cart(3, 20)));
+
+        List<CartDto> cartDtos = reactiveCartService.findAll()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(cartDtos).extracting(c -> c.getUserDto().getFirstName())
+                .containsExactly("user 10", "user 10", "user 20");
+        assertThat(requests).containsExactly("POST /user-service/api/users/batch");
+    }
+
+    @Test
+    void findAll_skipsUserServiceWithoutCarts() {
+        given(cartRepository.findAll()).willReturn(List.of());
+
+        assertThat(reactiveCartService.findAll().collectList().block(Duration.ofSeconds(5))).isEmpty();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void findById_enrichesCartWithItsUser() {
+        given(cartRepository.findById(1)).willReturn(Optional.of(cart(1, 10)));
+
+        CartDto cartDto = reactiveCartService.findById(1).block(Duration.ofSeconds(5));
+
+        assertThat(cartDto.getCartId()).isEqualTo(1);
+        assertThat(cartDto.getUserDto().getFirstName()).isEqualTo("user 10");
+        assertThat(requests).containsExactly("GET /user-service/api/users/10");
+    }
+
+    @Test
+    void findById_failsWithoutCallingUserServiceWhenCartDoesNotExist() {
+        given(cartRepository.findById(99)).willReturn(Optional.empty());
+
+        assertThrows(CartNotFoundException.class, () -> reactiveCartService.findById(99).block(Duration.ofSeconds(5)));
+        assertThat(requests).isEmpty();
+    }
+
+    private URI local(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .host("localhost")
+                .port(userService.getAddress().getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static String user(Integer userId) {
+        return "{\"userId\":" + userId + ",\"firstName\":\"user " + userId + "\"}";
+    }
+
+    private static Cart cart(Integer cartId, Integer userId) {
+        return Cart.builder()
+                .cartId(cartId)
+                .userId(userId)
+                .build();
+    }
+
+}
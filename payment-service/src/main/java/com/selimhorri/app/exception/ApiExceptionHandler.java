@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -42,6 +44,7 @@ public class ApiExceptionHandler {
 	
 	@ExceptionHandler(value = {
 		IllegalStateException.class,
+		InvalidIdempotencyKeyException.class,
 		PaymentNotFoundException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
@@ -58,6 +61,23 @@ public class ApiExceptionHandler {
 					.build(), badRequest);
 	}
 	
+	@ExceptionHandler(value = {
+		IdempotencyKeyMismatchException.class,
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleUnprocessableException(final T e) {
+		
+		log.info("**ApiExceptionHandler controller, handle unprocessable request*\n");
+		final var unprocessableEntity = HttpStatus.UNPROCESSABLE_ENTITY;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(unprocessableEntity)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), unprocessableEntity);
+	}
+	
 	
 	
 }
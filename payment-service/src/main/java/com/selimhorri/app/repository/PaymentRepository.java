@@ -1,11 +1,23 @@
 package com.selimhorri.app.repository;
 
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Payment;
 
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
 	
-	
+	@Query("SELECT p FROM Payment p")
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "" + AppConstant.EXPORT_FETCH_SIZE),
+		@QueryHint(name = "org.hibernate.readOnly", value = "true")
+	})
+	Stream<Payment> streamAll();
 	
 }
@@ -0,0 +1,64 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ReactivePaymentService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of the payment reads; the servlet thread is released while the
+ * payments are being enriched.
+ */
+@RestController
+@RequestMapping("/api/payments/reactive")
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactivePaymentResource {
+	
+	private final ReactivePaymentService reactivePaymentService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<DtoCollectionResponse<PaymentDto>>> findAll() {
+		log.info("*** PaymentDto List, controller; fetch all payments reactively *");
+		return this.reactivePaymentService.findAll()
+				.collectList()
+				.map(paymentDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(paymentDtos)));
+	}
+	
+	@GetMapping("/{paymentId}")
+	public Mono<ResponseEntity<PaymentDto>> findById(
+			@PathVariable("paymentId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String paymentId) {
+		log.info("*** PaymentDto, resource; fetch payment by id reactively *");
+		return this.reactivePaymentService.findById(Integer.parseInt(paymentId))
+				.map(ResponseEntity::ok);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
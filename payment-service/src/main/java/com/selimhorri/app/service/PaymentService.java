@@ -1,12 +1,14 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.dto.PaymentDto;
 
 public interface PaymentService {
 	
 	List<PaymentDto> findAll();
+	void exportAll(final Consumer<PaymentDto> consumer);
 	PaymentDto findById(final Integer paymentId);
 	PaymentDto save(final PaymentDto paymentDto);
 	PaymentDto update(final PaymentDto paymentDto);
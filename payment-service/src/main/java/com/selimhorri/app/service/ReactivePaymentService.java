@@ -0,0 +1,13 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.PaymentDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePaymentService {
+	
+	Flux<PaymentDto> findAll();
+	Mono<PaymentDto> findById(final Integer paymentId);
+	
+}
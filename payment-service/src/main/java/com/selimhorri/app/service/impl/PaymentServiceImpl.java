@@ -1,14 +1,21 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
@@ -26,6 +33,7 @@ import lombok.extern.slf4j.Slf4j;
 public class PaymentServiceImpl implements PaymentService {
 	
 	private final PaymentRepository paymentRepository;
+	private final EntityManager entityManager;
 	private final RestTemplate restTemplate;
 	
 	@Override
@@ -39,10 +47,43 @@ public class PaymentServiceImpl implements PaymentService {
 								.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class));
 						return p;
 					})
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	/**
+	 * Streams payments in chunks of {@link AppConstant#EXPORT_FETCH_SIZE}, each chunk
+	 * enriched like {@link #findAll()} with every distinct order fetched once.
+	 */
+	@Override
+	public void exportAll(final Consumer<PaymentDto> consumer) {
+		log.info("*** PaymentDto Stream, service; export all payments *");
+		final List<PaymentDto> chunk = new ArrayList<>(AppConstant.EXPORT_FETCH_SIZE);
+		try (final Stream<Payment> payments = this.paymentRepository.streamAll()) {
+			payments.forEach(e -> {
+				chunk.add(PaymentMappingHelper.map(e));
+				if (chunk.size() == AppConstant.EXPORT_FETCH_SIZE) {
+					this.exportChunk(chunk, consumer);
+					// keep the persistence context from growing with the export
+					this.entityManager.clear();
+				}
+			});
+		}
+		this.exportChunk(chunk, consumer);
+	}
+	
+	private void exportChunk(final List<PaymentDto> chunk, final Consumer<PaymentDto> consumer) {
+		final Map<Integer, OrderDto> orderDtos = chunk.stream()
+				.map(p -> p.getOrderDto().getOrderId())
+				.distinct()
+				.collect(Collectors.toMap(Function.identity(), orderId -> this.restTemplate.getForObject(
+						AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId, OrderDto.class)));
+		chunk.forEach(p -> {
+			p.setOrderDto(orderDtos.get(p.getOrderDto().getOrderId()));
+			consumer.accept(p);
+		});
+		chunk.clear();
+	}
+	
 	@Override
 	public PaymentDto findById(final Integer paymentId) {
 		log.info("*** PaymentDto, service; fetch payment by id *");
@@ -0,0 +1,109 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.ReactivePaymentService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Enriches payments with their orders without holding a thread while order-service
+ * answers. Repository calls block, so they run on the JPA scheduler; each distinct order
+ * is fetched once, at most {@code enrichment.reactive.concurrency} at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactivePaymentServiceImpl implements ReactivePaymentService {
+	
+	private final PaymentRepository paymentRepository;
+	private final WebClient webClient;
+	private final Scheduler jpaScheduler;
+	private final int concurrency;
+	
+	public ReactivePaymentServiceImpl(
+			final PaymentRepository paymentRepository,
+			final WebClient.Builder webClientBuilder,
+			final Scheduler jpaScheduler,
+			@Value("${enrichment.reactive.concurrency:32}") final int concurrency) {
+		this.paymentRepository = paymentRepository;
+		this.webClient = webClientBuilder.build();
+		this.jpaScheduler = jpaScheduler;
+		this.concurrency = concurrency;
+	}
+	
+	@Override
+	public Flux<PaymentDto> findAll() {
+		log.info("*** PaymentDto Flux, service; fetch all payments *");
+		return Mono.fromCallable(() -> this.paymentRepository.findAll()
+					.stream()
+						.map(PaymentMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.subscribeOn(this.jpaScheduler)
+				.flatMapMany(paymentDtos -> this.fetchOrders(paymentDtos.stream()
+							.map(p -> p.getOrderDto().getOrderId())
+							.filter(orderId -> orderId != null)
+							.collect(Collectors.toUnmodifiableSet()))
+						.flatMapIterable(orderDtos -> {
+							paymentDtos.forEach(p -> p.setOrderDto(orderDtos.getOrDefault(p.getOrderDto().getOrderId(), 
+									p.getOrderDto())));
+							return paymentDtos;
+						}));
+	}
+	
+	@Override
+	public Mono<PaymentDto> findById(final Integer paymentId) {
+		log.info("*** PaymentDto Mono, service; fetch payment by id *");
+		return Mono.fromCallable(() -> this.paymentRepository.findById(paymentId)
+					.map(PaymentMappingHelper::map)
+					.orElseThrow(() -> new PaymentNotFoundException(String.format("Payment with id: %d not found", paymentId))))
+				.subscribeOn(this.jpaScheduler)
+				.flatMap(p -> this.fetchOrder(p.getOrderDto().getOrderId())
+						.map(orderDto -> {
+							p.setOrderDto(orderDto);
+							return p;
+						}));
+	}
+	
+	private Mono<Map<Integer, OrderDto>> fetchOrders(final Set<Integer> orderIds) {
+		return Flux.fromIterable(orderIds)
+				.flatMap(this::fetchOrder, this.concurrency)
+				.collectMap(OrderDto::getOrderId);
+	}
+	
+	private Mono<OrderDto> fetchOrder(final Integer orderId) {
+		return this.webClient.get()
+				.uri(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId)
+				.retrieve()
+				.bodyToMono(OrderDto.class);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
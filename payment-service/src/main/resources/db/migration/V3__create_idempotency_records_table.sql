@@ -0,0 +1,9 @@
+CREATE TABLE idempotency_records (
+	idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+	request_hash VARCHAR(64) NOT NULL,
+	response_body VARCHAR(4000),
+	expires_at TIMESTAMP NOT NULL,
+	version INT(11) DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX idx_idempotency_records_expires_at ON idempotency_records (expires_at);
@@ -1,19 +1,29 @@
 package com.selimhorri.app.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,13 +32,17 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
+import com.selimhorri.app.service.IdempotencyService;
 import com.selimhorri.app.service.PaymentService;
 
 @WebMvcTest(controllers = com.selimhorri.app.resource.PaymentResource.class)
@@ -45,6 +59,15 @@ class PaymentControllerTest {
     @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        given(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+    }
+
     @Test
     void getAllPayments_returnsCollectionResponse() throws Exception {
         OrderDto orderDto = OrderDto.builder().orderId(10).build();
@@ -71,6 +94,36 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.collection[1].paymentId").value(2));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportPayments_withNdjsonAccept_streamsOneJsonDocumentPerLine() throws Exception {
+        OrderDto orderDto = OrderDto.builder().orderId(10).build();
+        PaymentDto p1 = PaymentDto.builder().paymentId(1).orderDto(orderDto).isPayed(true).build();
+        PaymentDto p2 = PaymentDto.builder().paymentId(2).orderDto(orderDto).isPayed(false).build();
+
+        willAnswer(invocation -> {
+            Consumer<PaymentDto> consumer = invocation.getArgument(0);
+            consumer.accept(p1);
+            consumer.accept(p2);
+            return null;
+        }).given(paymentService).exportAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/payments").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"paymentId\":1");
+    }
+
     @Test
     void getPaymentById_returnsPayment() throws Exception {
         OrderDto orderDto = OrderDto.builder().orderId(10).build();
@@ -128,6 +181,44 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.paymentStatus").value("NOT_STARTED"));
     }
 
+    @Test
+    void savePayment_scopesIdempotencyKeyToEndpointAndPrincipal() throws Exception {
+        PaymentDto request = PaymentDto.builder()
+                .orderDto(OrderDto.builder().orderId(10).build())
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build();
+        given(paymentService.save(any(PaymentDto.class))).willReturn(request);
+
+        mockMvc.perform(post("/api/payments")
+                        .header(AppConstant.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .header(AppConstant.PRINCIPAL_HEADER, "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(idempotencyService).execute(eq("key-1"), eq("POST /api/payments"), eq("alice"),
+                any(PaymentDto.class), eq(PaymentDto.class), any());
+    }
+
+    @Test
+    void savePayment_withInvalidIdempotencyKey_returnsBadRequest() throws Exception {
+        PaymentDto request = PaymentDto.builder()
+                .orderDto(OrderDto.builder().orderId(10).build())
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build();
+        willThrow(new InvalidIdempotencyKeyException("Idempotency key must not exceed 255 characters"))
+                .given(idempotencyService).execute(any(), any(), any(), any(), any(), any());
+
+        mockMvc.perform(post("/api/payments")
+                        .header(AppConstant.IDEMPOTENCY_KEY_HEADER, "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").exists());
+    }
+
     @Test
     void updatePayment_returnsUpdatedPayment() throws Exception {
         OrderDto orderDto = OrderDto.builder().orderId(10).build();
@@ -0,0 +1,97 @@
+package com.selimhorri.app.controller;
+
+import static org.mockito.BDDMockito.given;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
+import com.selimhorri.app.resource.ReactivePaymentResource;
+import com.selimhorri.app.service.ReactivePaymentService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(controllers = ReactivePaymentResource.class)
+@Import(ApiExceptionHandler.class)
+@TestPropertySource(properties = "enrichment.reactive.enabled=true")
+@ActiveProfiles("test")
+class ReactivePaymentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactivePaymentService reactivePaymentService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Test
+    void findAll_returnsEnrichedCollection() {
+        given(reactivePaymentService.findAll()).willReturn(Flux.just(payment(1, 10), payment(2, 20)));
+
+        webTestClient.get().uri("/api/payments/reactive")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.collection.length()").isEqualTo(2)
+                .jsonPath("$.collection[0].order.orderDesc").isEqualTo("order 10")
+                .jsonPath("$.collection[1].paymentId").isEqualTo(2);
+    }
+
+    @Test
+    void findById_returnsEnrichedPayment() {
+        given(reactivePaymentService.findById(1)).willReturn(Mono.just(payment(1, 10)));
+
+        webTestClient.get().uri("/api/payments/reactive/{paymentId}", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.paymentId").isEqualTo(1)
+                .jsonPath("$.order.orderDesc").isEqualTo("order 10");
+    }
+
+    @Test
+    void findById_whenNotFound_returnsBadRequestWithErrorBody() {
+        given(reactivePaymentService.findById(99))
+                .willReturn(Mono.error(new PaymentNotFoundException("Payment with id: 99 not found")));
+
+        webTestClient.get().uri("/api/payments/reactive/{paymentId}", "99")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.httpStatus").isEqualTo("BAD_REQUEST")
+                .jsonPath("$.msg").exists();
+    }
+
+    private static PaymentDto payment(Integer paymentId, Integer orderId) {
+        return PaymentDto.builder()
+                .paymentId(paymentId)
+                .isPayed(true)
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .orderDto(OrderDto.builder()
+                        .orderId(orderId)
+                        .orderDesc("order " + orderId)
+                        .build())
+                .build();
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
+import com.selimhorri.app.repository.IdempotencyRecordRepository;
+import com.selimhorri.app.repository.PaymentRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final String ENDPOINT = "POST /api/payments";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void execute_replaysFirstResponseForSameKey() {
+        String key = UUID.randomUUID().toString();
+        PaymentDto request = payment(10);
+        long before = paymentRepository.count();
+
+        PaymentDto first = idempotencyService.execute(key, ENDPOINT, "alice", request, PaymentDto.class,
+                () -> paymentService.save(request));
+        PaymentDto replayed = idempotencyService.execute(key, ENDPOINT, "alice", payment(10), PaymentDto.class,
+                () -> paymentService.save(request));
+
+        assertThat(paymentRepository.count()).isEqualTo(before + 1);
+        assertThat(replayed.getPaymentId()).isEqualTo(first.getPaymentId());
+        assertThat(replayed.getPaymentStatus()).isEqualTo(PaymentStatus.NOT_STARTED);
+    }
+
+    @Test
+    void execute_rejectsKeyReusedForAnotherRequest() {
+        String key = UUID.randomUUID().toString();
+        PaymentDto request = payment(10);
+        idempotencyService.execute(key, ENDPOINT, "alice", request, PaymentDto.class, () -> paymentService.save(request));
+
+        PaymentDto other = payment(20);
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyService.execute(key, ENDPOINT, "alice", other, PaymentDto.class, () -> paymentService.save(other)));
+    }
+
+    @Test
+    void execute_leavesNoKeyBehindWhenActionFails() {
+        String key = UUID.randomUUID().toString();
+        PaymentDto request = payment(10);
+        AtomicInteger runs = new AtomicInteger();
+        long records = idempotencyRecordRepository.count();
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(key, ENDPOINT, "alice", request, PaymentDto.class, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("Payment provider unavailable");
+        }));
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(records);
+
+        idempotencyService.execute(key, ENDPOINT, "alice", request, PaymentDto.class, () -> {
+            runs.incrementAndGet();
+            return paymentService.save(request);
+        });
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(records + 1);
+    }
+
+    @Test
+    void execute_scopesKeyToEndpointAndPrincipal() {
+        String key = UUID.randomUUID().toString();
+        PaymentDto request = payment(10);
+        long before = paymentRepository.count();
+
+        PaymentDto alices = idempotencyService.execute(key, ENDPOINT, "alice", request, PaymentDto.class,
+                () -> paymentService.save(request));
+        PaymentDto bobs = idempotencyService.execute(key, ENDPOINT, "bob", request, PaymentDto.class,
+                () -> paymentService.save(request));
+        PaymentDto otherEndpoint = idempotencyService.execute(key, "POST /api/refunds", "alice", request,
+                PaymentDto.class, () -> paymentService.save(request));
+
+        assertThat(paymentRepository.count()).isEqualTo(before + 3);
+        assertThat(List.of(alices.getPaymentId(), bobs.getPaymentId(), otherEndpoint.getPaymentId()))
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void execute_rejectsOverlongKey() {
+        PaymentDto request = payment(10);
+
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyService.execute("k".repeat(256),
+                ENDPOINT, "alice", request, PaymentDto.class, () -> paymentService.save(request)));
+    }
+
+    private static PaymentDto payment(int orderId) {
+        return PaymentDto.builder()
+                .orderDto(OrderDto.builder().orderId(orderId).build())
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build();
+    }
+
+}
@@ -5,11 +5,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +26,7 @@ import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.repository.PaymentRepository;
 
 @SpringBootTest
@@ -38,6 +42,30 @@ class PaymentServiceTest {
     @MockBean
     private RestTemplate restTemplate;
 
+    @Test
+    void exportAll_streamsPaymentsWithTheirOrder() {
+        String orderUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/";
+        given(paymentRepository.streamAll()).willReturn(Stream.of(
+                Payment.builder().paymentId(1).orderId(10).isPayed(true).build(),
+                Payment.builder().paymentId(2).orderId(10).isPayed(false).build(),
+                Payment.builder().paymentId(3).orderId(20).isPayed(true).build()));
+        given(restTemplate.getForObject(orderUrl + 10, OrderDto.class))
+                .willReturn(OrderDto.builder().orderId(10).orderDesc("Order 10").build());
+        given(restTemplate.getForObject(orderUrl + 20, OrderDto.class))
+                .willReturn(OrderDto.builder().orderId(20).orderDesc("Order 20").build());
+
+        List<PaymentDto> exported = new ArrayList<>();
+        paymentService.exportAll(exported::add);
+
+        assertThat(exported)
+                .extracting(PaymentDto::getPaymentId)
+                .containsExactly(1, 2, 3);
+        assertThat(exported)
+                .extracting(p -> p.getOrderDto().getOrderDesc())
+                .containsExactly("Order 10", "Order 10", "Order 20");
+        verify(restTemplate, times(1)).getForObject(orderUrl + 10, OrderDto.class);
+    }
+
     @Test
     void findAll_returnsAllPaymentsWithOrder() {
         Payment payment1 = Payment.builder()
@@ -0,0 +1,137 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.config.client.ReactiveClientConfig;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.impl.ReactivePaymentServiceImpl;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.scheduler.Schedulers;
+
+class ReactivePaymentServiceTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final ConcurrentMap<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer orderService;
+    private ReactivePaymentService reactivePaymentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        orderService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        orderService.createContext("/order-service/api/orders", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            String orderId = path.substring(path.lastIndexOf('/') + 1);
+            byte[] bytes = ("{\"orderId\":" + orderId + ",\"orderDesc\":\"order " + orderId + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        orderService.setExecutor(executor);
+        orderService.start();
+
+        ObjectProvider<DiscoveryClient> discoveryClient = mock(ObjectProvider.class);
+        WebClient.Builder webClientBuilder = new ReactiveClientConfig()
+                .webClientBuilderBean(new ClientProperties(), discoveryClient, 1024 * 1024)
+                // hace de balanceador: ORDER-SERVICE resuelve al servidor local
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(local(request.url()))
+                        .build()));
+        reactivePaymentService = new ReactivePaymentServiceImpl(
+                paymentRepository, webClientBuilder, Schedulers.immediate(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderService.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findAll_fetchesEachOrderOnceAndEnrichesPayments() {
+        given(paymentRepository.findAll()).willReturn(List.of(
+                payment(1, 10), payment(2, 10), payment(3, 20)));
+
+        List<PaymentDto> paymentDtos = reactivePaymentService.findAll()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(paymentDtos).extracting(p -> p.getOrderDto().getOrderDesc())
+                .containsExactly("order 10", "order 10", "order 20");
+        assertThat(requests).containsOnlyKeys("/order-service/api/orders/10", "/order-service/api/orders/20");
+        assertThat(requests.get("/order-service/api/orders/10")).hasValue(1);
+    }
+
+    @Test
+    void findById_enrichesPaymentWithItsOrder() {
+        given(paymentRepository.findById(1)).willReturn(Optional.of(payment(1, 10)));
+
+        PaymentDto paymentDto = reactivePaymentService.findById(1).block(Duration.ofSeconds(5));
+
+        assertThat(paymentDto.getPaymentId()).isEqualTo(1);
+        assertThat(paymentDto.getOrderDto().getOrderDesc()).isEqualTo("order 10");
+    }
+
+    @Test
+    void findById_failsWithoutCallingOrderServiceWhenPaymentDoesNotExist() {
+        given(paymentRepository.findById(99)).willReturn(Optional.empty());
+
+        assertThrows(PaymentNotFoundException.class, () -> reactivePaymentService.findById(99).block(Duration.ofSeconds(5)));
+        assertThat(requests).isEmpty();
+    }
+
+    private URI local(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .host("localhost")
+                .port(orderService.getAddress().getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static Payment payment(Integer paymentId, Integer orderId) {
+        return Payment.builder()
+                .paymentId(paymentId)
+                .orderId(orderId)
+                .isPayed(true)
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .build();
+    }
+
+}
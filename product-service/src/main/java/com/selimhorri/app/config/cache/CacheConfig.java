@@ -0,0 +1,24 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+	
+	public static final String PRODUCTS_CACHE = "products";
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
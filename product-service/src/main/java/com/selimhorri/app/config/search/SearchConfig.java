@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.search;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.helper.ProductSearchIndex;
+
+@Configuration
+public class SearchConfig {
+	
+	/**
+	 * Index on local disk under search.index.directory, or in memory when it is blank.
+	 */
+	@Bean(destroyMethod = "close")
+	public ProductSearchIndex productSearchIndexBean(
+			@Value("${search.index.directory:}") final String directory) throws IOException {
+		return new ProductSearchIndex(directory.isBlank() ? new ByteBuffersDirectory() 
+				: FSDirectory.open(Path.of(directory)));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
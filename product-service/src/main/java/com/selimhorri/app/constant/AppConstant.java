@@ -10,6 +10,12 @@ public abstract class AppConstant {
 	public static final String LOCAL_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String ZONED_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String INSTANT_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
+	public static final int MAX_PAGE_SIZE = 500;
+	public static final int IMPORT_CHUNK_SIZE = 500;
+	public static final int SEARCH_INDEX_BATCH_SIZE = 1000;
+	public static final int MAX_SEARCH_PAGE_SIZE = 100;
+	public static final int HOT_STOCK_FLUSH_BATCH_SIZE = 500;
+	public static final String TEXT_CSV_VALUE = "text/csv";
 	
 	@NoArgsConstructor(access = AccessLevel.PRIVATE)
 	public abstract class DiscoveredDomainsApi {
@@ -0,0 +1,58 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock one instance moved out of a products row into its in-memory counter. What is
+ * left of it is allotted minus the reservation lines served from it, so it can be given
+ * back to the products row after a crash without knowing the lost counter.
+ */
+@Entity
+@Table(name = "hot_stock_allotments")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class HotStockAllotment extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "hot_stock_allotment_id", unique = true, nullable = false, updatable = false)
+	private Integer hotStockAllotmentId;
+	
+	@Column(nullable = false, updatable = false)
+	private String sku;
+	
+	@Column(name = "allotment_owner", nullable = false, updatable = false)
+	private String allotmentOwner;
+	
+	@Column(nullable = false)
+	private Integer allotted;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -11,6 +11,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -49,10 +50,26 @@ public final class Product extends AbstractMappedEntity implements Serializable
 	@Column(name = "quantity")
 	private Integer quantity;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "category_id")
 	private Category category;
 	
+	/**
+	 * Bumped by every write, including the conditional stock updates, so a full update
+	 * carrying the version it read fails instead of overwriting a newer quantity.
+	 */
+	@Version
+	@Column(name = "version", nullable = false, columnDefinition = "int default 0")
+	private Integer version;
+	
+	/**
+	 * Stock of a hot sku is served from in-memory allotments; only the hot stock
+	 * endpoints switch it, a full update leaves it alone.
+	 */
+	@Column(name = "hot_stock", nullable = false, insertable = false, updatable = false, 
+			columnDefinition = "boolean default false")
+	private Boolean hotStock;
+	
 }
 
 
@@ -0,0 +1,77 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * One sku line of a reservation; the lines of a multi-item reservation share its
+ * reservationId and always move between statuses together.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class StockReservation extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "stock_reservation_id", unique = true, nullable = false, updatable = false)
+	private Integer stockReservationId;
+	
+	@Column(name = "reservation_id", nullable = false, updatable = false)
+	private String reservationId;
+	
+	@Column(nullable = false, updatable = false)
+	private String sku;
+	
+	@Column(nullable = false, updatable = false)
+	private Integer quantity;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "reservation_status", nullable = false)
+	private ReservationStatus reservationStatus;
+	
+	/**
+	 * Set when the line was served from a hot stock allotment instead of the products
+	 * row; its stock goes back to the products row in the background once released.
+	 */
+	@Column(name = "hot_stock_allotment_id", updatable = false)
+	private Integer hotStockAllotmentId;
+	
+	@Column(name = "stock_returned", nullable = false, columnDefinition = "boolean default false")
+	private boolean stockReturned;
+	
+	public enum ReservationStatus {
+		RESERVED, RELEASED, COMMITTED
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
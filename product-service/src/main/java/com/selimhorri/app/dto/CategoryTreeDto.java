@@ -0,0 +1,36 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CategoryTreeDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	Integer categoryId;
+	String categoryTitle;
+	String imageUrl;
+	String categoryPath;
+	
+	@JsonInclude(Include.NON_EMPTY)
+	List<CategoryTreeDto> subCategories;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,41 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class HotStockDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private String sku;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Integer hotStockAllotmentId;
+	
+	/** Units held in memory by this instance, not the stock left in the products row. */
+	private Long available;
+	private Long casRetries;
+	private Long stripeMisses;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,51 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.selimhorri.app.domain.StockReservation.ReservationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockReservationDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Optional on reserve; a client that sends its own id can retry the reserve
+	 * call safely, the second call returns the first reservation.
+	 */
+	@Size(max = 36, message = "Reservation id must have at most 36 characters")
+	private String reservationId;
+	
+	@JsonInclude(Include.NON_NULL)
+	private ReservationStatus reservationStatus;
+	
+	@NotEmpty(message = "Items must not be empty")
+	@Valid
+	private List<StockReservationItemDto> items;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,49 @@
+package com.selimhorri.app.dto.response.importing;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the import report stream: a rejected row (ERROR), the running totals
+ * after a committed chunk (PROGRESS) or the final totals (COMPLETED).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class ProductImportEvent implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private EventType type;
+	private Long line;
+	private String sku;
+	private String msg;
+	private Long processed;
+	private Long inserted;
+	private Long updated;
+	private Long failed;
+	
+	public enum EventType {
+		ERROR, PROGRESS, COMPLETED
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
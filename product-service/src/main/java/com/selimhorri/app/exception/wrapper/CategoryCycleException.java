@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class CategoryCycleException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public CategoryCycleException() {
+		super();
+	}
+	
+	public CategoryCycleException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public CategoryCycleException(String message) {
+		super(message);
+	}
+	
+	public CategoryCycleException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
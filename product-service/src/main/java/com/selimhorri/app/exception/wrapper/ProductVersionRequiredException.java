@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class ProductVersionRequiredException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public ProductVersionRequiredException() {
+		super();
+	}
+	
+	public ProductVersionRequiredException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public ProductVersionRequiredException(String message) {
+		super(message);
+	}
+	
+	public ProductVersionRequiredException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
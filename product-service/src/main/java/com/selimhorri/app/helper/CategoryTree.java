@@ -0,0 +1,84 @@
+package com.selimhorri.app.helper;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.dto.CategoryTreeDto;
+
+/**
+ * Immutable snapshot of the whole category tree, built from the parent links in one
+ * pass. Paths are derived from the parent links, not read from the stored column, so
+ * the snapshot is also what stored paths get checked against.
+ */
+public final class CategoryTree {
+	
+	private static final Comparator<Category> BY_ID = Comparator.comparing(Category::getCategoryId);
+	
+	private final List<CategoryTreeDto> roots;
+	private final Map<Integer, CategoryTreeDto> nodes;
+	
+	private CategoryTree(final List<CategoryTreeDto> roots, final Map<Integer, CategoryTreeDto> nodes) {
+		this.roots = roots;
+		this.nodes = nodes;
+	}
+	
+	public static CategoryTree of(final List<Category> categories) {
+		final Map<Integer, List<Category>> childrenByParentId = categories.stream()
+				.filter(category -> category.getParentCategory() != null)
+				.collect(Collectors.groupingBy(category -> category.getParentCategory().getCategoryId()));
+		final Map<Integer, CategoryTreeDto> nodes = new HashMap<>();
+		final List<CategoryTreeDto> roots = categories.stream()
+				.filter(category -> category.getParentCategory() == null)
+				.sorted(BY_ID)
+				.map(category -> node(category, "/", childrenByParentId, nodes))
+				.collect(Collectors.toUnmodifiableList());
+		return new CategoryTree(roots, Map.copyOf(nodes));
+	}
+	
+	public static String pathOf(final String parentPath, final Integer categoryId) {
+		return (parentPath == null ? "/" : parentPath) + categoryId + "/";
+	}
+	
+	public List<CategoryTreeDto> getRoots() {
+		return this.roots;
+	}
+	
+	public Optional<CategoryTreeDto> find(final Integer categoryId) {
+		return Optional.ofNullable(this.nodes.get(categoryId));
+	}
+	
+	private static CategoryTreeDto node(final Category category, final String parentPath, 
+			final Map<Integer, List<Category>> childrenByParentId, final Map<Integer, CategoryTreeDto> nodes) {
+		final String path = pathOf(parentPath, category.getCategoryId());
+		final CategoryTreeDto node = CategoryTreeDto.builder()
+				.categoryId(category.getCategoryId())
+				.categoryTitle(category.getCategoryTitle())
+				.imageUrl(category.getImageUrl())
+				.categoryPath(path)
+				.subCategories(childrenByParentId.getOrDefault(category.getCategoryId(), List.of()).stream()
+						.sorted(BY_ID)
+						.map(child -> node(child, path, childrenByParentId, nodes))
+						.collect(Collectors.toUnmodifiableList()))
+				.build();
+		nodes.put(category.getCategoryId(), node);
+		return node;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,194 @@
+package com.selimhorri.app.helper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.service.ProductImportService.Format;
+
+import lombok.Value;
+
+/**
+ * Reads an import file one row at a time, so memory does not depend on the file size.
+ * NDJSON rows use the ProductDto JSON shape; CSV files need a header naming the
+ * columns sku, productTitle, imageUrl, priceUnit, quantity and categoryId (quoted
+ * fields may not span lines). Only sku is mandatory for an existing product, whose
+ * missing columns keep their value; a new one also needs all but imageUrl.
+ */
+public class ProductImportReader implements Closeable {
+
+	private static final String SKU = "sku";
+	private static final String PRODUCT_TITLE = "producttitle";
+	private static final String IMAGE_URL = "imageurl";
+	private static final String PRICE_UNIT = "priceunit";
+	private static final String QUANTITY = "quantity";
+	private static final String CATEGORY_ID = "categoryid";
+
+	private final BufferedReader reader;
+	private final Format format;
+	private final ObjectMapper objectMapper;
+	private Map<String, Integer> columns;
+	private long line;
+
+	public ProductImportReader(final InputStream inputStream, final Format format, final ObjectMapper objectMapper) {
+		this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		this.format = format;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * @return the next non-blank row, or null at the end of the input
+	 * @throws IllegalStateException when the CSV header has no sku column
+	 */
+	public Row next() throws IOException {
+		String text;
+		while ((text = this.reader.readLine()) != null) {
+			this.line++;
+			if (text.isBlank())
+				continue;
+			if (this.format == Format.NDJSON)
+				return this.parseJson(text);
+			if (this.columns == null) {
+				this.columns = parseHeader(text, this.line);
+				continue;
+			}
+			return this.parseCsv(text);
+		}
+		return null;
+	}
+
+	private Row parseJson(final String text) {
+		try {
+			return Row.of(this.line, this.objectMapper.readValue(text, ProductDto.class));
+		}
+		catch (JsonProcessingException e) {
+			return Row.rejected(this.line, "Malformed JSON: " + e.getOriginalMessage());
+		}
+	}
+
+	private Row parseCsv(final String text) {
+		final List<String> fields = splitCsvLine(text);
+		try {
+			final String categoryId = this.field(fields, CATEGORY_ID);
+			return Row.of(this.line, ProductDto.builder()
+					.sku(this.field(fields, SKU))
+					.productTitle(this.field(fields, PRODUCT_TITLE))
+					.imageUrl(this.field(fields, IMAGE_URL))
+					.priceUnit(parseOrNull(this.field(fields, PRICE_UNIT), Double::valueOf))
+					.quantity(parseOrNull(this.field(fields, QUANTITY), Integer::valueOf))
+					.categoryDto(categoryId == null ? null : CategoryDto.builder()
+							.categoryId(Integer.valueOf(categoryId))
+							.build())
+					.build());
+		}
+		catch (NumberFormatException e) {
+			return Row.rejected(this.line, "Malformed number: " + e.getMessage());
+		}
+	}
+
+	private String field(final List<String> fields, final String column) {
+		final Integer index = this.columns.get(column);
+		if (index == null || index >= fields.size())
+			return null;
+		final String value = fields.get(index).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	private static Map<String, Integer> parseHeader(final String text, final long line) {
+		final List<String> names = splitCsvLine(text);
+		final Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < names.size(); i++)
+			columns.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+		if (!columns.containsKey(SKU))
+			throw new IllegalStateException(String.format("CSV header at line %d has no sku column", line));
+		return columns;
+	}
+
+	private static <T> T parseOrNull(final String value, final Function<String, T> parser) {
+		return value == null ? null : parser.apply(value);
+	}
+
+	static List<String> splitCsvLine(final String text) {
+		final List<String> fields = new ArrayList<>();
+		final StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (quoted) {
+				if (c != '"')
+					field.append(c);
+				else if (i + 1 < text.length() && text.charAt(i + 1) == '"')
+					field.append(text.charAt(++i));
+				else
+					quoted = false;
+			}
+			else if (c == '"')
+				quoted = true;
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else
+				field.append(c);
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+	@Value
+	public static class Row {
+
+		long line;
+		ProductDto productDto;
+		String error;
+
+		static Row of(final long line, final ProductDto productDto) {
+			return new Row(line, productDto, null);
+		}
+
+		static Row rejected(final long line, final String error) {
+			return new Row(line, null, error);
+		}
+
+		public String getSku() {
+			return this.productDto == null ? null : this.productDto.getSku();
+		}
+
+		public Integer getCategoryId() {
+			return this.productDto == null || this.productDto.getCategoryDto() == null ? null
+					: this.productDto.getCategoryDto().getCategoryId();
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
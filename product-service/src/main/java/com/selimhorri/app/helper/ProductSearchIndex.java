@@ -0,0 +1,281 @@
+package com.selimhorri.app.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.Directory;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+
+/**
+ * In-process Lucene index over product title, sku and category title. A search only
+ * yields product ids, the products themselves are read from the database so stock and
+ * price are never stale. Writes become visible to searches on {@link #refresh()}, which
+ * does not sync to disk; {@link #commit()} does and is meant to run periodically.
+ */
+public class ProductSearchIndex implements Closeable {
+
+	/** Deepest hit a page may reach; deeper paging costs more than it is worth. */
+	public static final int MAX_WINDOW = 10_000;
+
+	private static final String PRODUCT_ID = "productId";
+	private static final String TITLE = "title";
+	private static final String SKU = "sku";
+	private static final String CATEGORY = "category";
+	private static final String CATEGORY_PATH = "categoryPath";
+	private static final String GENERATION = "generation";
+	private static final int MIN_PREFIX_LENGTH = 2;
+	private static final int MIN_FUZZY_LENGTH = 3;
+
+	private final Directory directory;
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private final IndexWriter indexWriter;
+	private final SearcherManager searcherManager;
+	private volatile String generation = UUID.randomUUID().toString();
+
+	public ProductSearchIndex(final Directory directory) throws IOException {
+		this.directory = directory;
+		this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(this.analyzer)
+				.setOpenMode(OpenMode.CREATE_OR_APPEND));
+		this.searcherManager = new SearcherManager(this.indexWriter, null);
+	}
+
+	public void index(final Collection<Product> products) {
+		try {
+			for (final Product product : products)
+				this.indexWriter.updateDocument(new Term(PRODUCT_ID, String.valueOf(product.getProductId())),
+						document(product, this.generation));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public void delete(final Integer productId) {
+		try {
+			this.indexWriter.deleteDocuments(new Term(PRODUCT_ID, String.valueOf(productId)));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public void deleteCategorySubtree(final String categoryPath) {
+		try {
+			this.indexWriter.deleteDocuments(new PrefixQuery(new Term(CATEGORY_PATH, categoryPath)));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Starts a rebuild: documents indexed from now on, by the rebuild or by concurrent
+	 * writes, carry the returned generation.
+	 */
+	public String startGeneration() {
+		this.generation = UUID.randomUUID().toString();
+		return this.generation;
+	}
+
+	/**
+	 * Ends a rebuild by dropping the documents it did not reach. The old documents are
+	 * never deleted wholesale first, so a refresh or commit in between can not expose a
+	 * half-empty index.
+	 */
+	public void deleteOtherGenerations(final String generation) {
+		try {
+			this.indexWriter.deleteDocuments(new BooleanQuery.Builder()
+					.add(new MatchAllDocsQuery(), Occur.MUST)
+					.add(new TermQuery(new Term(GENERATION, generation)), Occur.MUST_NOT)
+					.build());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public void refresh() {
+		try {
+			this.searcherManager.maybeRefresh();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public void commit() {
+		try {
+			if (this.indexWriter.hasUncommittedChanges())
+				this.indexWriter.commit();
+			this.searcherManager.maybeRefresh();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public int size() {
+		return this.withSearcher(searcher -> searcher.getIndexReader().numDocs());
+	}
+
+	/**
+	 * Every word of the query has to match the title or the category title exactly,
+	 * by prefix or within one or two edits; a query that prefixes a sku matches too.
+	 * Hits are counted exactly, however many there are.
+	 */
+	public DtoPageResponse<Integer> search(final String text, final int page, final int size) {
+		final int window = Math.min((page + 1) * size, MAX_WINDOW);
+		return this.withSearcher(searcher -> {
+			final TopScoreDocCollector collector = TopScoreDocCollector.create(window, Integer.MAX_VALUE);
+			searcher.search(this.query(text), collector);
+			final TopDocs topDocs = collector.topDocs();
+			final List<Integer> productIds = new ArrayList<>(size);
+			for (int i = page * size; i < topDocs.scoreDocs.length; i++)
+				productIds.add(Integer.valueOf(searcher.doc(topDocs.scoreDocs[i].doc).get(PRODUCT_ID)));
+			return DtoPageResponse.<Integer>builder()
+					.collection(productIds)
+					.page(page)
+					.size(size)
+					.totalElements(topDocs.totalHits.value)
+					.totalPages((int) ((topDocs.totalHits.value + size - 1) / size))
+					.build();
+		});
+	}
+
+	private Query query(final String text) {
+		final BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		final String sku = text.trim().toLowerCase(Locale.ROOT);
+		if (!sku.isEmpty())
+			builder.add(new BoostQuery(new PrefixQuery(new Term(SKU, sku)), 4f), Occur.SHOULD);
+
+		final List<String> terms = this.analyze(text);
+		if (!terms.isEmpty()) {
+			final BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+			terms.forEach(term -> allTerms.add(termQuery(term), Occur.MUST));
+			builder.add(allTerms.build(), Occur.SHOULD);
+		}
+		return builder.build();
+	}
+
+	private static Query termQuery(final String term) {
+		final BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		addTermQueries(builder, TITLE, term, 1f);
+		addTermQueries(builder, CATEGORY, term, 0.5f);
+		return builder.build();
+	}
+
+	private static void addTermQueries(final BooleanQuery.Builder builder, final String field, final String term,
+			final float weight) {
+		builder.add(new BoostQuery(new TermQuery(new Term(field, term)), 3f * weight), Occur.SHOULD);
+		if (term.length() >= MIN_PREFIX_LENGTH)
+			builder.add(new BoostQuery(new PrefixQuery(new Term(field, term)), 2f * weight), Occur.SHOULD);
+		if (term.length() >= MIN_FUZZY_LENGTH)
+			builder.add(new BoostQuery(new FuzzyQuery(new Term(field, term), term.length() > 5 ? 2 : 1, 1), weight),
+					Occur.SHOULD);
+	}
+
+	private List<String> analyze(final String text) {
+		final List<String> terms = new ArrayList<>();
+		try (final TokenStream tokenStream = this.analyzer.tokenStream(TITLE, text)) {
+			final CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+			tokenStream.reset();
+			while (tokenStream.incrementToken())
+				terms.add(term.toString());
+			tokenStream.end();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return terms;
+	}
+
+	private static Document document(final Product product, final String generation) {
+		final Document document = new Document();
+		final Optional<Category> category = Optional.ofNullable(product.getCategory());
+		document.add(new StringField(PRODUCT_ID, String.valueOf(product.getProductId()), Store.YES));
+		document.add(new StringField(GENERATION, generation, Store.NO));
+		Optional.ofNullable(product.getProductTitle()).ifPresent(title ->
+				document.add(new TextField(TITLE, title, Store.NO)));
+		Optional.ofNullable(product.getSku()).ifPresent(sku ->
+				document.add(new StringField(SKU, sku.toLowerCase(Locale.ROOT), Store.NO)));
+		category.map(Category::getCategoryTitle).ifPresent(categoryTitle ->
+				document.add(new TextField(CATEGORY, categoryTitle, Store.NO)));
+		category.map(Category::getCategoryPath).ifPresent(categoryPath ->
+				document.add(new StringField(CATEGORY_PATH, categoryPath, Store.NO)));
+		return document;
+	}
+
+	private <T> T withSearcher(final SearcherFunction<T> function) {
+		try {
+			final IndexSearcher searcher = this.searcherManager.acquire();
+			try {
+				return function.apply(searcher);
+			}
+			finally {
+				this.searcherManager.release(searcher);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.searcherManager.close();
+		this.indexWriter.close();
+		this.directory.close();
+	}
+
+	@FunctionalInterface
+	private interface SearcherFunction<T> {
+		T apply(final IndexSearcher searcher) throws IOException;
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
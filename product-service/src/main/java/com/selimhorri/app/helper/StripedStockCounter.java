@@ -0,0 +1,123 @@
+package com.selimhorri.app.helper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock split over independent stripes, each taken from with a compare-and-set, so
+ * concurrent takes mostly touch different memory instead of one shared count. A thread
+ * starts at its own stripe and moves on when that one runs short; only a take larger
+ * than any single stripe falls back to gathering under a lock.
+ */
+public final class StripedStockCounter {
+
+	/** 16 longs apart keeps neighbouring stripes off each other's cache lines. */
+	private static final int PADDING = 16;
+
+	private final int stripes;
+	private final AtomicLongArray cells;
+	private final LongAdder casRetries = new LongAdder();
+	private final LongAdder stripeMisses = new LongAdder();
+
+	public StripedStockCounter(final int stripes) {
+		if (stripes < 1)
+			throw new IllegalArgumentException("Stripes must be positive");
+		this.stripes = stripes;
+		this.cells = new AtomicLongArray(stripes * PADDING);
+	}
+
+	public boolean tryTake(final long quantity) {
+		final int start = this.home();
+		for (int i = 0; i < this.stripes; i++) {
+			final int index = this.index(start + i);
+			long value;
+			while ((value = this.cells.get(index)) >= quantity) {
+				if (this.cells.compareAndSet(index, value, value - quantity))
+					return true;
+				this.casRetries.increment();
+			}
+			this.stripeMisses.increment();
+		}
+		return this.takeAcrossStripes(quantity);
+	}
+
+	/**
+	 * Spreads the stock evenly, the remainder going to the caller's own stripe.
+	 */
+	public void add(final long quantity) {
+		final long share = quantity / this.stripes;
+		final int home = this.home();
+		for (int i = 0; i < this.stripes; i++) {
+			final long amount = i == home ? share + quantity % this.stripes : share;
+			if (amount != 0)
+				this.cells.getAndAdd(this.index(i), amount);
+		}
+	}
+
+	public long available() {
+		long available = 0;
+		for (int i = 0; i < this.stripes; i++)
+			available += this.cells.get(this.index(i));
+		return available;
+	}
+
+	public long drain() {
+		long drained = 0;
+		for (int i = 0; i < this.stripes; i++)
+			drained += this.cells.getAndSet(this.index(i), 0);
+		return drained;
+	}
+
+	public long casRetries() {
+		return this.casRetries.sum();
+	}
+
+	public long stripeMisses() {
+		return this.stripeMisses.sum();
+	}
+
+	/**
+	 * Gathers the quantity from several stripes; everything gathered is put back when
+	 * the stripes hold less than the quantity in total.
+	 */
+	private synchronized boolean takeAcrossStripes(final long quantity) {
+		long taken = 0;
+		for (int i = 0; i < this.stripes && taken < quantity; i++) {
+			final int index = this.index(i);
+			long value;
+			while (taken < quantity && (value = this.cells.get(index)) > 0) {
+				final long amount = Math.min(value, quantity - taken);
+				if (this.cells.compareAndSet(index, value, value - amount))
+					taken += amount;
+				else
+					this.casRetries.increment();
+			}
+		}
+		if (taken < quantity) {
+			this.add(taken);
+			return false;
+		}
+		return true;
+	}
+
+	private int home() {
+		return (int) (Thread.currentThread().getId() % this.stripes);
+	}
+
+	private int index(final int stripe) {
+		return (stripe % this.stripes) * PADDING;
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
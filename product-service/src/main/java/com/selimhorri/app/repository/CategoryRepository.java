@@ -1,11 +1,35 @@
 package com.selimhorri.app.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = "parentCategory")
+	List<Category> findAll();
+	
+	@Override
+	@EntityGraph(attributePaths = "parentCategory")
+	Optional<Category> findById(final Integer categoryId);
+	
+	@Query("SELECT c.categoryPath FROM Category c WHERE c.categoryId = :categoryId")
+	Optional<String> findCategoryPathById(@Param("categoryId") final Integer categoryId);
 	
+	/**
+	 * Re-roots a moved subtree: every path under oldPath gets newPath as its prefix.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Category c SET c.categoryPath = CONCAT(:newPath, SUBSTRING(c.categoryPath, LENGTH(:oldPath) + 1)) "
+			+ "WHERE c.categoryPath LIKE CONCAT(:oldPath, '%')")
+	int updateCategoryPaths(@Param("oldPath") final String oldPath, @Param("newPath") final String newPath);
 	
 }
@@ -0,0 +1,13 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.selimhorri.app.domain.HotStockAllotment;
+
+public interface HotStockAllotmentRepository extends JpaRepository<HotStockAllotment, Integer> {
+	
+	List<HotStockAllotment> findByAllotmentOwner(final String allotmentOwner);
+	
+}
@@ -1,11 +1,83 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = "category")
+	List<Product> findAll();
+	
+	@Override
+	@EntityGraph(attributePaths = "category")
+	Page<Product> findAll(final Pageable pageable);
+	
+	@Override
+	@EntityGraph(attributePaths = "category")
+	Optional<Product> findById(final Integer productId);
+	
+	@EntityGraph(attributePaths = "category")
+	List<Product> findByProductIdGreaterThanOrderByProductIdAsc(final Integer productId, final Pageable pageable);
+	
+	@EntityGraph(attributePaths = "category")
+	List<Product> findByProductIdIn(final Collection<Integer> productIds);
+	
+	@EntityGraph(attributePaths = "category")
+	List<Product> findBySkuIn(final Collection<String> skus);
+	
+	@Query("SELECT p FROM Product p JOIN FETCH p.category c "
+			+ "WHERE c.categoryPath LIKE CONCAT(:categoryPath, '%') AND p.productId > :productId "
+			+ "ORDER BY p.productId ASC")
+	List<Product> findByCategoryPathAfter(@Param("categoryPath") final String categoryPath, 
+			@Param("productId") final Integer productId, final Pageable pageable);
+	
+	
+	@Query("SELECT p.productId FROM Product p WHERE p.category.categoryId = :categoryId")
+	List<Integer> findProductIdsByCategoryId(@Param("categoryId") final Integer categoryId);
+	
+	@Query("SELECT p.productId FROM Product p WHERE p.category.categoryPath LIKE CONCAT(:categoryPath, '%')")
+	List<Integer> findProductIdsByCategoryPath(@Param("categoryPath") final String categoryPath);
+	
+	@Query("SELECT p.productId FROM Product p WHERE p.sku IN :skus")
+	List<Integer> findProductIdsBySkuIn(@Param("skus") final Collection<String> skus);
+	
+	boolean existsBySku(final String sku);
+	
+	@Query("SELECT p.quantity FROM Product p WHERE p.sku = :sku")
+	Optional<Integer> findQuantityBySku(@Param("sku") final String sku);
+	
+	@Query("SELECT p.sku FROM Product p WHERE p.hotStock = true")
+	List<String> findHotStockSkus();
+	
+	@Modifying
+	@Query("UPDATE Product p SET p.hotStock = :hotStock WHERE p.sku = :sku")
+	int updateHotStock(@Param("sku") final String sku, @Param("hotStock") final Boolean hotStock);
+	
+	/**
+	 * Takes quantity units of stock in one statement; the row lock and the condition make
+	 * concurrent takes queue up instead of overselling.
+	 * @return 1 when taken, 0 when the sku is unknown or short of stock
+	 */
+	@Modifying
+	@Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.version = p.version + 1 "
+			+ "WHERE p.sku = :sku AND p.quantity >= :quantity")
+	int decrementQuantity(@Param("sku") final String sku, @Param("quantity") final Integer quantity);
 	
+	@Modifying
+	@Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.version = p.version + 1 "
+			+ "WHERE p.sku = :sku")
+	int incrementQuantity(@Param("sku") final String sku, @Param("quantity") final Integer quantity);
 	
 }
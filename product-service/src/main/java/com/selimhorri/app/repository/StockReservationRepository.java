@@ -0,0 +1,42 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservation.ReservationStatus;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Integer> {
+	
+	List<StockReservation> findByReservationIdOrderBySkuAsc(final String reservationId);
+	
+	/**
+	 * Moves every line of a reservation from one status to another; concurrent callers
+	 * serialize on the row locks and only the first one sees its lines change.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE StockReservation r SET r.reservationStatus = :to "
+			+ "WHERE r.reservationId = :reservationId AND r.reservationStatus = :from")
+	int updateStatus(@Param("reservationId") final String reservationId, 
+			@Param("from") final ReservationStatus from, @Param("to") final ReservationStatus to);
+	
+	@Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r WHERE r.hotStockAllotmentId = :hotStockAllotmentId")
+	long sumQuantityByHotStockAllotmentId(@Param("hotStockAllotmentId") final Integer hotStockAllotmentId);
+	
+	@Query("SELECT r FROM StockReservation r WHERE r.hotStockAllotmentId IS NOT NULL "
+			+ "AND r.reservationStatus = :status AND r.stockReturned = false ORDER BY r.stockReservationId ASC")
+	List<StockReservation> findHotStockToReturn(@Param("status") final ReservationStatus status, 
+			final Pageable pageable);
+	
+	@Modifying
+	@Query("UPDATE StockReservation r SET r.stockReturned = true "
+			+ "WHERE r.stockReservationId IN :stockReservationIds AND r.stockReturned = false")
+	int markStockReturned(@Param("stockReservationIds") final Collection<Integer> stockReservationIds);
+	
+}
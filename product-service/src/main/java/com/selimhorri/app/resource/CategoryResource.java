@@ -12,10 +12,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryTreeDto;
+import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,6 +40,33 @@ public class CategoryResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.categoryService.findAll()));
 	}
 	
+	@GetMapping("/tree")
+	public ResponseEntity<DtoCollectionResponse<CategoryTreeDto>> findTree() {
+		log.info("*** CategoryTreeDto List, controller; fetch category tree *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.categoryService.findTree()));
+	}
+	
+	@GetMapping("/{categoryId}/subtree")
+	public ResponseEntity<CategoryTreeDto> findSubtree(
+			@PathVariable("categoryId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String categoryId) {
+		log.info("*** CategoryTreeDto, resource; fetch category subtree *");
+		return ResponseEntity.ok(this.categoryService.findSubtree(Integer.parseInt(categoryId)));
+	}
+	
+	@GetMapping("/{categoryId}/products")
+	public ResponseEntity<DtoPageResponse<ProductDto>> findSubtreeProductsAfter(
+			@PathVariable("categoryId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String categoryId,
+			@RequestParam(name = "after", required = false) final Integer after,
+			@RequestParam(name = "size", defaultValue = "20") final Integer size) {
+		log.info("*** ProductDto Page, resource; fetch category subtree products page after cursor *");
+		return ResponseEntity.ok(this.categoryService.findSubtreeProductsAfter(Integer.parseInt(categoryId), after, 
+				Math.max(1, Math.min(size, AppConstant.MAX_PAGE_SIZE))));
+	}
+	
 	@GetMapping("/{categoryId}")
 	public ResponseEntity<CategoryDto> findById(
 			@PathVariable("categoryId") 
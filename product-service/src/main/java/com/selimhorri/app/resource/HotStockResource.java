@@ -0,0 +1,60 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.HotStockDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.HotStockService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/hot-stock")
+@Slf4j
+@RequiredArgsConstructor
+public class HotStockResource {
+	
+	private final HotStockService hotStockService;
+	
+	/**
+	 * Hot skus served by this instance, with the units it holds and its contention counts.
+	 */
+	@GetMapping
+	public ResponseEntity<DtoCollectionResponse<HotStockDto>> findAll() {
+		log.info("*** HotStockDto List, resource; fetch all hot stock skus *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.hotStockService.findAll()));
+	}
+	
+	@PutMapping("/{sku}")
+	public ResponseEntity<HotStockDto> enable(@PathVariable("sku") final String sku) {
+		log.info("*** HotStockDto, resource; enable hot stock for sku *");
+		return ResponseEntity.ok(this.hotStockService.enable(sku));
+	}
+	
+	@DeleteMapping("/{sku}")
+	public ResponseEntity<Boolean> disable(@PathVariable("sku") final String sku) {
+		log.info("*** Boolean, resource; disable hot stock for sku *");
+		this.hotStockService.disable(sku);
+		return ResponseEntity.ok(true);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
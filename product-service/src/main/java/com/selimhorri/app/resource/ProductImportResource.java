@@ -0,0 +1,75 @@
+package com.selimhorri.app.resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.service.ProductImportService;
+import com.selimhorri.app.service.ProductImportService.Format;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/import")
+@Slf4j
+@RequiredArgsConstructor
+public class ProductImportResource {
+	
+	private final ProductImportService productImportService;
+	private final ObjectMapper objectMapper;
+	
+	/**
+	 * Streams the report back as NDJSON while the upload is still being read: one ERROR
+	 * line per rejected row, one PROGRESS line per committed chunk, then COMPLETED.
+	 */
+	@PostMapping(consumes = {AppConstant.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, 
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> importAll(
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) final MediaType contentType, 
+			final HttpServletRequest request) {
+		log.info("*** ProductImportEvent Stream, resource; import products *");
+		final Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType) ? Format.NDJSON : Format.CSV;
+		final ObjectWriter objectWriter = this.objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(outputStream -> this.productImportService.importAll(request.getInputStream(), format, event -> {
+					try {
+						outputStream.write(objectWriter.writeValueAsBytes(event));
+						outputStream.write('\n');
+						outputStream.flush();
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -5,6 +5,8 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 
@@ -15,10 +17,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -45,6 +50,22 @@ public class ProductResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAll()));
 	}
 	
+	@GetMapping(params = "page")
+	public ResponseEntity<DtoPageResponse<ProductDto>> findAll(
+			@PageableDefault(size = 20, sort = "productId") final Pageable pageable) {
+		log.info("*** ProductDto Page, controller; fetch products page *");
+		return ResponseEntity.ok(this.productService.findAll(pageable));
+	}
+	
+	@GetMapping(params = {"size", "!page"})
+	public ResponseEntity<DtoPageResponse<ProductDto>> findAllAfter(
+			@RequestParam(name = "after", required = false) final Integer after,
+			@RequestParam(name = "size") final Integer size) {
+		log.info("*** ProductDto Page, controller; fetch products page after cursor *");
+		return ResponseEntity.ok(this.productService.findAllAfter(after, 
+				Math.max(1, Math.min(size, AppConstant.MAX_PAGE_SIZE))));
+	}
+	
 	@GetMapping("/{productId}")
 	public ResponseEntity<ProductDto> findById(
 			@PathVariable("productId") 
@@ -0,0 +1,75 @@
+package com.selimhorri.app.resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+import com.selimhorri.app.service.ProductSearchService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/search")
+@Slf4j
+public class ProductSearchResource {
+	
+	public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+	
+	private final ProductSearchService productSearchService;
+	private final byte[] adminToken;
+	
+	public ProductSearchResource(
+			final ProductSearchService productSearchService,
+			@Value("${search.index.admin-token:}") final String adminToken) {
+		this.productSearchService = productSearchService;
+		this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+	}
+	
+	@GetMapping
+	public ResponseEntity<DtoPageResponse<ProductDto>> search(
+			@RequestParam(name = "q", defaultValue = "") final String query,
+			@RequestParam(name = "page", defaultValue = "0") final Integer page,
+			@RequestParam(name = "size", defaultValue = "20") final Integer size) {
+		log.info("*** ProductDto Page, resource; search products *");
+		return ResponseEntity.ok(this.productSearchService.search(query, page, size));
+	}
+	
+	/**
+	 * Rebuilds the whole index from the products table and returns the number of
+	 * products indexed. Needs the configured search.index.admin-token; without one
+	 * configured the endpoint is closed.
+	 */
+	@PostMapping("/index")
+	public ResponseEntity<Long> rebuild(
+			@RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) final String adminToken) {
+		log.info("*** Long, resource; rebuild product search index *");
+		if (this.adminToken.length == 0 || adminToken == null
+				|| !MessageDigest.isEqual(this.adminToken, adminToken.getBytes(StandardCharsets.UTF_8)))
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		return ResponseEntity.ok(this.productSearchService.rebuild());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,70 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.service.StockReservationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/reservations")
+@Slf4j
+@RequiredArgsConstructor
+public class StockReservationResource {
+	
+	private final StockReservationService stockReservationService;
+	
+	@GetMapping("/{reservationId}")
+	public ResponseEntity<StockReservationDto> findById(@PathVariable("reservationId") final String reservationId) {
+		log.info("*** StockReservationDto, resource; fetch stock reservation by id *");
+		return ResponseEntity.ok(this.stockReservationService.findById(reservationId));
+	}
+	
+	/**
+	 * Takes the stock of every item or of none; answers 409 when one sku is short.
+	 */
+	@PostMapping
+	public ResponseEntity<StockReservationDto> reserve(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final StockReservationDto stockReservationDto) {
+		log.info("*** StockReservationDto, resource; reserve stock *");
+		return ResponseEntity.ok(this.stockReservationService.reserve(stockReservationDto));
+	}
+	
+	@PostMapping("/{reservationId}/release")
+	public ResponseEntity<StockReservationDto> release(@PathVariable("reservationId") final String reservationId) {
+		log.info("*** StockReservationDto, resource; release stock reservation *");
+		return ResponseEntity.ok(this.stockReservationService.release(reservationId));
+	}
+	
+	@PostMapping("/{reservationId}/commit")
+	public ResponseEntity<StockReservationDto> commit(@PathVariable("reservationId") final String reservationId) {
+		log.info("*** StockReservationDto, resource; commit stock reservation *");
+		return ResponseEntity.ok(this.stockReservationService.commit(reservationId));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
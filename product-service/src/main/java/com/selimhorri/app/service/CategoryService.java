@@ -3,10 +3,16 @@ package com.selimhorri.app.service;
 import java.util.List;
 
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryTreeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 
 public interface CategoryService {
 	
 	List<CategoryDto> findAll();
+	List<CategoryTreeDto> findTree();
+	CategoryTreeDto findSubtree(final Integer categoryId);
+	DtoPageResponse<ProductDto> findSubtreeProductsAfter(final Integer categoryId, final Integer productId, final int size);
 	CategoryDto findById(final Integer categoryId);
 	CategoryDto save(final CategoryDto categoryDto);
 	CategoryDto update(final CategoryDto categoryDto);
@@ -0,0 +1,31 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.selimhorri.app.dto.HotStockDto;
+
+public interface HotStockService {
+	
+	List<HotStockDto> findAll();
+	HotStockDto enable(final String sku);
+	void disable(final String sku);
+	Optional<Lease> take(final String sku, final int quantity);
+	void flush();
+	
+	/**
+	 * Stock taken from an in-memory allotment, held until the reservation it was taken
+	 * for has either committed its lines or failed.
+	 */
+	interface Lease {
+		
+		Integer getHotStockAllotmentId();
+		
+		/**
+		 * @param reserved false puts the stock back into the counter
+		 */
+		void complete(final boolean reserved);
+		
+	}
+	
+}
@@ -0,0 +1,9 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+
+public interface ProductCacheService {
+	
+	void evictAfterCommit(final Collection<Integer> productIds);
+	
+}
@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import com.selimhorri.app.dto.response.importing.ProductImportEvent;
+
+public interface ProductImportService {
+	
+	ProductImportEvent importAll(final InputStream inputStream, final Format format, 
+			final Consumer<ProductImportEvent> listener);
+	
+	enum Format {
+		CSV, NDJSON
+	}
+	
+}
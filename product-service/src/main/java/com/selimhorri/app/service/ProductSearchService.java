@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+
+public interface ProductSearchService {
+	
+	DtoPageResponse<ProductDto> search(final String query, final int page, final int size);
+	void reindexAfterCommit(final Integer productId);
+	void reindexSkus(final Collection<String> skus);
+	void reindexCategoryAfterCommit(final String categoryPath);
+	void removeCategoryAfterCommit(final String categoryPath);
+	long rebuild();
+	
+}
@@ -2,11 +2,16 @@ package com.selimhorri.app.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 
 public interface ProductService {
 	
 	List<ProductDto> findAll();
+	DtoPageResponse<ProductDto> findAll(final Pageable pageable);
+	DtoPageResponse<ProductDto> findAllAfter(final Integer productId, final int size);
 	ProductDto findById(final Integer productId);
 	ProductDto save(final ProductDto productDto);
 	ProductDto update(final ProductDto productDto);
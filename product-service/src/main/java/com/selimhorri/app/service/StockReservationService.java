@@ -0,0 +1,12 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.StockReservationDto;
+
+public interface StockReservationService {
+	
+	StockReservationDto findById(final String reservationId);
+	StockReservationDto reserve(final StockReservationDto stockReservationDto);
+	StockReservationDto release(final String reservationId);
+	StockReservationDto commit(final String reservationId);
+	
+}
@@ -1,17 +1,35 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryTreeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.CategoryCycleException;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.helper.CategoryMappingHelper;
+import com.selimhorri.app.helper.CategoryTree;
+import com.selimhorri.app.helper.ProductMappingHelper;
 import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
 import com.selimhorri.app.service.CategoryService;
+import com.selimhorri.app.service.ProductCacheService;
+import com.selimhorri.app.service.ProductSearchService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +41,11 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryServiceImpl implements CategoryService {
 	
 	private final CategoryRepository categoryRepository;
+	private final ProductRepository productRepository;
+	private final ProductSearchService productSearchService;
+	private final ProductCacheService productCacheService;
+	private final AtomicReference<CategoryTree> categoryTree = new AtomicReference<>();
+	private final AtomicLong categoryTreeVersion = new AtomicLong();
 	
 	@Override
 	public List<CategoryDto> findAll() {
@@ -30,10 +53,41 @@ public class CategoryServiceImpl implements CategoryService {
 		return this.categoryRepository.findAll()
 				.stream()
 					.map(CategoryMappingHelper::map)
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	@Override
+	public List<CategoryTreeDto> findTree() {
+		log.info("*** CategoryTreeDto List, service; fetch category tree *");
+		return this.categoryTree().getRoots();
+	}
+	
+	@Override
+	public CategoryTreeDto findSubtree(final Integer categoryId) {
+		log.info("*** CategoryTreeDto, service; fetch category subtree *");
+		return this.categoryTree().find(categoryId)
+				.orElseThrow(() -> new CategoryNotFoundException(String.format("Category with id: %d not found", categoryId)));
+	}
+	
+	@Override
+	public DtoPageResponse<ProductDto> findSubtreeProductsAfter(final Integer categoryId, final Integer productId, final int size) {
+		log.info("*** ProductDto Page, service; fetch category subtree products page after productId *");
+		// one extra row tells whether a next page exists without a count query
+		final List<Product> products = this.productRepository.findByCategoryPathAfter(
+				this.findSubtree(categoryId).getCategoryPath(), 
+				productId == null ? 0 : productId, PageRequest.of(0, size + 1));
+		final boolean hasNext = products.size() > size;
+		final List<ProductDto> productDtos = products.stream()
+				.limit(size)
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+		return DtoPageResponse.<ProductDto>builder()
+				.collection(productDtos)
+				.size(size)
+				.nextCursor(hasNext ? productDtos.get(productDtos.size() - 1).getProductId() : null)
+				.build();
+	}
+	
 	@Override
 	public CategoryDto findById(final Integer categoryId) {
 		log.info("*** CategoryDto, service; fetch category by id *");
@@ -45,28 +99,121 @@ public class CategoryServiceImpl implements CategoryService {
 	@Override
 	public CategoryDto save(final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; save category *");
-		return CategoryMappingHelper.map(this.categoryRepository
-				.save(CategoryMappingHelper.map(categoryDto)));
+		return CategoryMappingHelper.map(this.saveWithPath(CategoryMappingHelper.map(categoryDto)));
 	}
 	
 	@Override
 	public CategoryDto update(final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; update category *");
-		return CategoryMappingHelper.map(this.categoryRepository
-				.save(CategoryMappingHelper.map(categoryDto)));
+		return CategoryMappingHelper.map(this.saveWithPath(CategoryMappingHelper.map(categoryDto)));
 	}
 	
 	@Override
 	public CategoryDto update(final Integer categoryId, final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; update category with categoryId *");
-		return CategoryMappingHelper.map(this.categoryRepository
-				.save(CategoryMappingHelper.map(this.findById(categoryId))));
+		return CategoryMappingHelper.map(this.saveWithPath(CategoryMappingHelper.map(this.findById(categoryId))));
 	}
 	
 	@Override
 	public void deleteById(final Integer categoryId) {
 		log.info("*** Void, service; delete category by id *");
+		final String categoryPath = this.categoryRepository.findCategoryPathById(categoryId).orElse(null);
+		this.productCacheService.evictAfterCommit(categoryPath == null 
+				? this.productRepository.findProductIdsByCategoryId(categoryId) 
+				: this.productRepository.findProductIdsByCategoryPath(categoryPath));
 		this.categoryRepository.deleteById(categoryId);
+		this.invalidateCategoryTreeAfterCommit();
+		// subcategories and their products go with it (cascade), so drop the whole subtree
+		if (categoryPath != null)
+			this.productSearchService.removeCategoryAfterCommit(categoryPath);
+	}
+	
+	/**
+	 * Brings stored paths in line with the parent links, e.g. for categories created
+	 * before paths were maintained or by direct SQL.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void repairCategoryPaths() {
+		final List<Category> categories = this.categoryRepository.findAll();
+		final CategoryTree tree = CategoryTree.of(categories);
+		int repaired = 0;
+		for (final Category category : categories) {
+			final String path = tree.find(category.getCategoryId())
+					.map(CategoryTreeDto::getCategoryPath)
+					.orElse(null);
+			if (path != null && !path.equals(category.getCategoryPath())) {
+				category.setCategoryPath(path);
+				repaired++;
+			}
+		}
+		if (repaired > 0)
+			log.info("*** Void, service; repaired {} category paths *", repaired);
+	}
+	
+	/**
+	 * Saves the category with its path derived from its parent and, when it moved,
+	 * rewrites the paths of its whole subtree in one statement.
+	 */
+	private Category saveWithPath(final Category category) {
+		final Category parentCategory = category.getParentCategory() == null ? null : this.categoryRepository
+				.findById(category.getParentCategory().getCategoryId())
+				.orElseThrow(() -> new CategoryNotFoundException(String.format("Category with id: %d not found", 
+						category.getParentCategory().getCategoryId())));
+		final boolean existing = category.getCategoryId() != null;
+		final String oldPath = !existing ? null 
+				: this.categoryRepository.findCategoryPathById(category.getCategoryId()).orElse(null);
+		if (oldPath != null && parentCategory != null && parentCategory.getCategoryPath() != null 
+				&& parentCategory.getCategoryPath().startsWith(oldPath))
+			throw new CategoryCycleException("Category can not be moved under its own subtree");
+		
+		category.setParentCategory(parentCategory);
+		final Category savedCategory = this.categoryRepository.save(category);
+		final String path = CategoryTree.pathOf(parentCategory == null ? null : parentCategory.getCategoryPath(), 
+				savedCategory.getCategoryId());
+		savedCategory.setCategoryPath(path);
+		if (oldPath != null && !oldPath.equals(path))
+			this.categoryRepository.updateCategoryPaths(oldPath, path);
+		
+		this.invalidateCategoryTreeAfterCommit();
+		// indexed and cached products carry the category title and path
+		if (oldPath != null)
+			this.productSearchService.reindexCategoryAfterCommit(path);
+		if (existing)
+			this.productCacheService.evictAfterCommit(this.productRepository
+					.findProductIdsByCategoryId(savedCategory.getCategoryId()));
+		return savedCategory;
+	}
+	
+	private CategoryTree categoryTree() {
+		final CategoryTree current = this.categoryTree.get();
+		if (current != null)
+			return current;
+		final long version = this.categoryTreeVersion.get();
+		final CategoryTree rebuilt = CategoryTree.of(this.categoryRepository.findAll());
+		// a change committed while rebuilding makes this snapshot stale, do not publish it
+		if (this.categoryTreeVersion.get() == version && this.categoryTree.compareAndSet(null, rebuilt) 
+				&& this.categoryTreeVersion.get() != version)
+			this.categoryTree.compareAndSet(rebuilt, null);
+		return rebuilt;
+	}
+	
+	private void invalidateCategoryTreeAfterCommit() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.invalidateCategoryTree();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				invalidateCategoryTree();
+			}
+		});
+	}
+	
+	private void invalidateCategoryTree() {
+		this.categoryTreeVersion.incrementAndGet();
+		this.categoryTree.set(null);
 	}
 	
 	
@@ -81,3 +228,4 @@ public class CategoryServiceImpl implements CategoryService {
 
 
 
+
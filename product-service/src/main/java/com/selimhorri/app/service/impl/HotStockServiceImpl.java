@@ -0,0 +1,392 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.HotStockAllotment;
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservation.ReservationStatus;
+import com.selimhorri.app.dto.HotStockDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.helper.StripedStockCounter;
+import com.selimhorri.app.repository.HotStockAllotmentRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.service.HotStockService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the stock of hot skus from striped in-memory counters. A counter is filled
+ * with allotments of {@code stock.hot.allotment-size} units moved out of the products
+ * row, so the row is written once per allotment instead of once per reservation, and
+ * several instances can hold allotments of one sku without overselling it.
+ * <p>
+ * Every allotment is recorded with its owner. Reservation lines name the allotment they
+ * were served from, so what an allotment still holds is always allotted minus its lines,
+ * and on startup an instance gives whatever its previous run still held back to the
+ * products row. Released hot stock goes back to the products row in batches, one
+ * update per sku every {@code stock.hot.flush-interval-ms}.
+ */
+@Service
+@Slf4j
+public class HotStockServiceImpl implements HotStockService {
+
+	private final ProductRepository productRepository;
+	private final StockReservationRepository stockReservationRepository;
+	private final HotStockAllotmentRepository hotStockAllotmentRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final MeterRegistry meterRegistry;
+	private final String allotmentOwner;
+	private final int stripes;
+	private final int allotmentSize;
+	private final Map<String, HotSku> hotSkus = new ConcurrentHashMap<>();
+	private volatile boolean ready;
+
+	public HotStockServiceImpl(
+			final ProductRepository productRepository,
+			final StockReservationRepository stockReservationRepository,
+			final HotStockAllotmentRepository hotStockAllotmentRepository,
+			final PlatformTransactionManager transactionManager,
+			final MeterRegistry meterRegistry,
+			@Value("${stock.hot.owner-id:product-service}") final String allotmentOwner,
+			@Value("${stock.hot.stripes:16}") final int stripes,
+			@Value("${stock.hot.allotment-size:100}") final int allotmentSize) {
+		this.productRepository = productRepository;
+		this.stockReservationRepository = stockReservationRepository;
+		this.hotStockAllotmentRepository = hotStockAllotmentRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.meterRegistry = meterRegistry;
+		this.allotmentOwner = allotmentOwner;
+		this.stripes = stripes;
+		this.allotmentSize = allotmentSize;
+	}
+
+	@Override
+	public List<HotStockDto> findAll() {
+		log.info("*** HotStockDto List, service; fetch all hot stock skus *");
+		return this.hotSkus.values().stream()
+				.map(HotStockServiceImpl::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public HotStockDto enable(final String sku) {
+		log.info("*** HotStockDto, service; enable hot stock for sku *");
+		if (this.transactionTemplate.execute(status -> this.productRepository.updateHotStock(sku, true)) == 0)
+			throw new ProductNotFoundException(String.format("Product with sku: %s not found", sku));
+		return map(this.hotSkus.computeIfAbsent(sku, this::open));
+	}
+
+	@Override
+	public void disable(final String sku) {
+		log.info("*** Void, service; disable hot stock for sku *");
+		if (this.transactionTemplate.execute(status -> this.productRepository.updateHotStock(sku, false)) == 0)
+			throw new ProductNotFoundException(String.format("Product with sku: %s not found", sku));
+		Optional.ofNullable(this.hotSkus.remove(sku)).ifPresent(this::close);
+	}
+
+	/**
+	 * @return empty when the sku is not hot on this instance, the caller then takes the
+	 * stock from the products row
+	 * @throws InsufficientStockException when the counter and the products row together
+	 * hold less than the quantity
+	 */
+	@Override
+	public Optional<Lease> take(final String sku, final int quantity) {
+		final HotSku hotSku = this.ready ? this.hotSkus.get(sku) : null;
+		if (hotSku == null)
+			return Optional.empty();
+
+		// held until the lease completes, so a closing allotment waits for its in-flight lines
+		hotSku.lock.readLock().lock();
+		try {
+			if (hotSku.closed) {
+				hotSku.lock.readLock().unlock();
+				return Optional.empty();
+			}
+			if (!hotSku.counter.tryTake(quantity) && !this.refill(hotSku, quantity)) {
+				this.countReservation(sku, "rejected");
+				throw new InsufficientStockException(String.format("Insufficient stock for sku: %s", sku));
+			}
+		}
+		catch (RuntimeException e) {
+			hotSku.lock.readLock().unlock();
+			throw e;
+		}
+		this.countReservation(sku, "reserved");
+		return Optional.of(new HotStockLease(hotSku, hotSku.hotStockAllotmentId, quantity));
+	}
+
+	/**
+	 * Picks up skus switched on or off through another instance, then gives released
+	 * hot stock back to the products rows.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${stock.hot.flush-interval-ms:500}")
+	public void flush() {
+		if (!this.ready)
+			return;
+		try {
+			this.refreshHotSkus();
+			this.returnReleasedStock();
+		}
+		catch (RuntimeException e) {
+			log.error("*** Void, service; hot stock flush failed, retrying on the next run *", e);
+		}
+	}
+
+	/**
+	 * Gives back what the allotments of this owner still held when it last stopped.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void reconcile() {
+		final List<HotStockAllotment> allotments = this.hotStockAllotmentRepository
+				.findByAllotmentOwner(this.allotmentOwner);
+		allotments.forEach(allotment -> this.reconcile(allotment.getHotStockAllotmentId()));
+		if (!allotments.isEmpty())
+			log.info("*** Void, service; reconciled {} hot stock allotments of {} *",
+					allotments.size(), this.allotmentOwner);
+		this.ready = true;
+		this.flush();
+	}
+
+	/**
+	 * One caller per sku moves a new allotment, the others wait for it without holding
+	 * a lock or a connection and then take from the counter again.
+	 */
+	private boolean refill(final HotSku hotSku, final int quantity) {
+		while (!hotSku.counter.tryTake(quantity)) {
+			final CompletableFuture<Integer> refill = new CompletableFuture<>();
+			final CompletableFuture<Integer> running = hotSku.refill.compareAndExchange(null, refill);
+			if (running != null) {
+				// null when the refill failed, one of the waiters then moves the allotment itself
+				final Integer allotted = running.join();
+				if (allotted != null && allotted == 0)
+					return hotSku.counter.tryTake(quantity);
+				continue;
+			}
+			Integer allotted = null;
+			try {
+				allotted = this.allot(hotSku, quantity);
+				hotSku.counter.add(allotted);
+			}
+			finally {
+				hotSku.refill.set(null);
+				refill.complete(allotted);
+			}
+			if (allotted == 0)
+				return hotSku.counter.tryTake(quantity);
+		}
+		return true;
+	}
+
+	/**
+	 * Moves up to one allotment out of the products row into the allotment of this
+	 * owner, in one short transaction of its own.
+	 * @return the units moved, 0 when the products row is out of stock
+	 */
+	private int allot(final HotSku hotSku, final int quantity) {
+		final Integer allotmentId = hotSku.hotStockAllotmentId;
+		final int[] allottedBefore = new int[1];
+		final HotStockAllotment after = this.transactionTemplate.execute(status -> {
+			final HotStockAllotment before = allotmentId == null ? null
+					: this.hotStockAllotmentRepository.findById(allotmentId).orElseThrow();
+			allottedBefore[0] = before == null ? 0 : before.getAllotted();
+			int allotment;
+			do {
+				allotment = Math.min(this.productRepository.findQuantityBySku(hotSku.sku).orElse(0),
+						Math.max(this.allotmentSize, quantity));
+				if (allotment <= 0)
+					return before;
+			}
+			while (this.productRepository.decrementQuantity(hotSku.sku, allotment) == 0);
+			final HotStockAllotment hotStockAllotment = before != null ? before : HotStockAllotment.builder()
+					.sku(hotSku.sku)
+					.allotmentOwner(this.allotmentOwner)
+					.allotted(0)
+					.build();
+			hotStockAllotment.setAllotted(hotStockAllotment.getAllotted() + allotment);
+			return this.hotStockAllotmentRepository.save(hotStockAllotment);
+		});
+		if (after == null)
+			return 0;
+		hotSku.hotStockAllotmentId = after.getHotStockAllotmentId();
+		final int allotted = after.getAllotted() - allottedBefore[0];
+		if (allotted > 0)
+			this.meterRegistry.counter("stock.hot.refills", "sku", hotSku.sku).increment();
+		return allotted;
+	}
+
+	private void reconcile(final Integer hotStockAllotmentId) {
+		this.transactionTemplate.executeWithoutResult(status -> this.hotStockAllotmentRepository
+				.findById(hotStockAllotmentId)
+				.ifPresent(allotment -> {
+					final long remaining = allotment.getAllotted()
+							- this.stockReservationRepository.sumQuantityByHotStockAllotmentId(hotStockAllotmentId);
+					if (remaining > 0)
+						this.productRepository.incrementQuantity(allotment.getSku(), (int) remaining);
+					this.hotStockAllotmentRepository.delete(allotment);
+				}));
+	}
+
+	private void refreshHotSkus() {
+		final Set<String> skus = new HashSet<>(this.productRepository.findHotStockSkus());
+		skus.forEach(sku -> this.hotSkus.computeIfAbsent(sku, this::open));
+		this.hotSkus.keySet().stream()
+				.filter(sku -> !skus.contains(sku))
+				.collect(Collectors.toUnmodifiableList())
+				.forEach(sku -> Optional.ofNullable(this.hotSkus.remove(sku)).ifPresent(this::close));
+	}
+
+	private void returnReleasedStock() {
+		List<StockReservation> returned;
+		do {
+			returned = this.transactionTemplate.execute(status -> {
+				final List<StockReservation> released = this.stockReservationRepository.findHotStockToReturn(
+						ReservationStatus.RELEASED, PageRequest.of(0, AppConstant.HOT_STOCK_FLUSH_BATCH_SIZE));
+				if (released.isEmpty())
+					return released;
+				if (this.stockReservationRepository.markStockReturned(released.stream()
+						.map(StockReservation::getStockReservationId)
+						.collect(Collectors.toUnmodifiableList())) != released.size())
+					throw new IllegalStateException("Released hot stock was returned concurrently");
+				released.stream()
+						.collect(Collectors.groupingBy(StockReservation::getSku,
+								Collectors.summingInt(StockReservation::getQuantity)))
+						.forEach(this.productRepository::incrementQuantity);
+				return released;
+			});
+		}
+		while (returned.size() == AppConstant.HOT_STOCK_FLUSH_BATCH_SIZE);
+	}
+
+	private HotSku open(final String sku) {
+		final HotSku hotSku = new HotSku(sku, new StripedStockCounter(this.stripes));
+		hotSku.meters.add(Gauge.builder("stock.hot.available", hotSku.counter, StripedStockCounter::available)
+				.tag("sku", sku)
+				.register(this.meterRegistry));
+		hotSku.meters.add(FunctionCounter.builder("stock.hot.contention", hotSku.counter, StripedStockCounter::casRetries)
+				.tags("sku", sku, "type", "cas_retry")
+				.register(this.meterRegistry));
+		hotSku.meters.add(FunctionCounter.builder("stock.hot.contention", hotSku.counter, StripedStockCounter::stripeMisses)
+				.tags("sku", sku, "type", "stripe_miss")
+				.register(this.meterRegistry));
+		log.info("*** Void, service; serving hot stock for sku {} from memory *", sku);
+		return hotSku;
+	}
+
+	/**
+	 * Waits for in-flight leases, then gives everything the allotment still holds back
+	 * to the products row.
+	 */
+	private void close(final HotSku hotSku) {
+		hotSku.lock.writeLock().lock();
+		try {
+			hotSku.closed = true;
+			hotSku.counter.drain();
+			if (hotSku.hotStockAllotmentId != null)
+				this.reconcile(hotSku.hotStockAllotmentId);
+			hotSku.meters.forEach(this.meterRegistry::remove);
+		}
+		finally {
+			hotSku.lock.writeLock().unlock();
+		}
+		log.info("*** Void, service; stopped serving hot stock for sku {} *", hotSku.sku);
+	}
+
+	private void countReservation(final String sku, final String outcome) {
+		this.meterRegistry.counter("stock.hot.reservations", "sku", sku, "outcome", outcome).increment();
+	}
+
+	private static HotStockDto map(final HotSku hotSku) {
+		return HotStockDto.builder()
+				.sku(hotSku.sku)
+				.hotStockAllotmentId(hotSku.hotStockAllotmentId)
+				.available(hotSku.counter.available())
+				.casRetries(hotSku.counter.casRetries())
+				.stripeMisses(hotSku.counter.stripeMisses())
+				.build();
+	}
+
+	private static final class HotSku {
+
+		private final String sku;
+		private final StripedStockCounter counter;
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private final List<Meter> meters = new ArrayList<>();
+		private final AtomicReference<CompletableFuture<Integer>> refill = new AtomicReference<>();
+		private volatile Integer hotStockAllotmentId;
+		private boolean closed;
+
+		private HotSku(final String sku, final StripedStockCounter counter) {
+			this.sku = sku;
+			this.counter = counter;
+		}
+
+	}
+
+	private static final class HotStockLease implements Lease {
+
+		private final HotSku hotSku;
+		private final Integer hotStockAllotmentId;
+		private final int quantity;
+
+		private HotStockLease(final HotSku hotSku, final Integer hotStockAllotmentId, final int quantity) {
+			this.hotSku = hotSku;
+			this.hotStockAllotmentId = hotStockAllotmentId;
+			this.quantity = quantity;
+		}
+
+		@Override
+		public Integer getHotStockAllotmentId() {
+			return this.hotStockAllotmentId;
+		}
+
+		@Override
+		public void complete(final boolean reserved) {
+			if (!reserved)
+				this.hotSku.counter.add(this.quantity);
+			this.hotSku.lock.readLock().unlock();
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
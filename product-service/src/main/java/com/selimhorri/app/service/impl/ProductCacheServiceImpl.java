@@ -0,0 +1,62 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.service.ProductCacheService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Drops cached products once the writing transaction has committed. Evicting before
+ * the commit would let a concurrent read put the old row back for the whole TTL.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductCacheServiceImpl implements ProductCacheService {
+	
+	private final CacheManager cacheManager;
+	
+	@Override
+	public void evictAfterCommit(final Collection<Integer> productIds) {
+		if (productIds.isEmpty())
+			return;
+		final List<Integer> ids = List.copyOf(productIds);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.evict(ids);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				evict(ids);
+			}
+		});
+	}
+	
+	private void evict(final List<Integer> productIds) {
+		Optional.ofNullable(this.cacheManager.getCache(CacheConfig.PRODUCTS_CACHE))
+				.ifPresent(cache -> productIds.forEach(cache::evict));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
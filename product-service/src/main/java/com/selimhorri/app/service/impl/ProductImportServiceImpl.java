@@ -0,0 +1,322 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.importing.ProductImportEvent;
+import com.selimhorri.app.dto.response.importing.ProductImportEvent.EventType;
+import com.selimhorri.app.helper.ProductImportReader;
+import com.selimhorri.app.helper.ProductImportReader.Row;
+import com.selimhorri.app.service.ProductImportService;
+import com.selimhorri.app.service.ProductSearchService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Upserts products on their sku in chunks of {@link AppConstant#IMPORT_CHUNK_SIZE}
+ * rows, each chunk in its own transaction with one JDBC batch for inserts and one for
+ * updates. Only the current chunk is held in memory. When a chunk fails as a whole its
+ * rows are retried one by one, so a single bad row costs one error line, not the chunk.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+	private static final String SELECT_EXISTING_SKUS =
+			"SELECT sku, product_id FROM products WHERE sku IN (:skus)";
+	private static final String SELECT_EXISTING_CATEGORY_IDS =
+			"SELECT category_id FROM categories WHERE category_id IN (:categoryIds)";
+	private static final String OUTSTANDING_HOT_STOCK =
+			"(COALESCE((SELECT SUM(a.allotted) FROM hot_stock_allotments a WHERE a.sku = :sku), 0) "
+			+ "- COALESCE((SELECT SUM(r.quantity) FROM stock_reservations r JOIN hot_stock_allotments a "
+			+ "ON a.hot_stock_allotment_id = r.hot_stock_allotment_id WHERE a.sku = :sku), 0) "
+			+ "+ COALESCE((SELECT SUM(r.quantity) FROM stock_reservations r WHERE r.sku = :sku "
+			+ "AND r.hot_stock_allotment_id IS NOT NULL AND r.reservation_status = 'RELEASED' "
+			+ "AND r.stock_returned = FALSE), 0))";
+	private static final String RESERVED_STOCK =
+			"COALESCE((SELECT SUM(r.quantity) FROM stock_reservations r WHERE r.sku = :sku "
+			+ "AND r.hot_stock_allotment_id IS NULL AND r.reservation_status = 'RESERVED'), 0)";
+	private static final String INSERT_PRODUCT =
+			"INSERT INTO products (sku, product_title, image_url, price_unit, quantity, category_id, version, created_at, updated_at) "
+			+ "VALUES (:sku, :productTitle, :imageUrl, :priceUnit, :quantity, :categoryId, 0, :now, :now)";
+	// the imported quantity is all the stock of the sku: part of it may sit in hot stock
+	// counters, be on its way back from them or be held by open reservations that give it
+	// back on release, so only the rest goes to the products row; a column the row leaves
+	// out keeps its stored value
+	private static final String UPDATE_PRODUCT =
+			"UPDATE products SET product_title = COALESCE(:productTitle, product_title), "
+			+ "image_url = COALESCE(:imageUrl, image_url), price_unit = COALESCE(:priceUnit, price_unit), "
+			+ "quantity = COALESCE(:quantity - " + OUTSTANDING_HOT_STOCK + " - " + RESERVED_STOCK + ", quantity), "
+			+ "category_id = COALESCE(:categoryId, category_id), version = version + 1, updated_at = :now WHERE sku = :sku";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final CacheManager cacheManager;
+	private final ProductSearchService productSearchService;
+
+	public ProductImportServiceImpl(
+			final NamedParameterJdbcTemplate jdbcTemplate,
+			final PlatformTransactionManager transactionManager,
+			final ObjectMapper objectMapper,
+			final CacheManager cacheManager,
+			final ProductSearchService productSearchService) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.objectMapper = objectMapper;
+		this.cacheManager = cacheManager;
+		this.productSearchService = productSearchService;
+	}
+
+	@Override
+	public ProductImportEvent importAll(final InputStream inputStream, final Format format,
+			final Consumer<ProductImportEvent> listener) {
+		log.info("*** ProductImportEvent, service; import products *");
+		final Totals totals = new Totals();
+		final List<Row> chunk = new ArrayList<>(AppConstant.IMPORT_CHUNK_SIZE);
+		final Set<String> chunkSkus = new HashSet<>();
+
+		try (final ProductImportReader reader = new ProductImportReader(inputStream, format, this.objectMapper)) {
+			Row row;
+			while ((row = reader.next()) != null) {
+				final String rejection = row.getError() != null ? row.getError() : rejectionOf(row.getProductDto());
+				if (rejection != null) {
+					totals.processed++;
+					this.reject(row, rejection, totals, listener);
+					continue;
+				}
+				// a repeated sku goes to the next chunk, so rows are applied in file order
+				if (chunk.size() == AppConstant.IMPORT_CHUNK_SIZE || !chunkSkus.add(row.getSku())) {
+					this.commit(chunk, totals, listener);
+					chunkSkus.clear();
+					chunkSkus.add(row.getSku());
+				}
+				chunk.add(row);
+			}
+			this.commit(chunk, totals, listener);
+		}
+		catch (IllegalStateException e) {
+			listener.accept(ProductImportEvent.builder()
+					.type(EventType.ERROR)
+					.msg(e.getMessage())
+					.build());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		final ProductImportEvent completed = totals.toEvent(EventType.COMPLETED);
+		log.info("*** ProductImportEvent, service; import completed, {} inserted, {} updated, {} failed *",
+				completed.getInserted(), completed.getUpdated(), completed.getFailed());
+		listener.accept(completed);
+		return completed;
+	}
+
+	private void commit(final List<Row> chunk, final Totals totals, final Consumer<ProductImportEvent> listener) {
+		if (chunk.isEmpty())
+			return;
+		totals.processed += chunk.size();
+		try {
+			this.applyInTransaction(chunk, totals, listener);
+		}
+		catch (DataAccessException e) {
+			log.info("*** ProductImportEvent, service; chunk rejected, retrying row by row *");
+			chunk.forEach(row -> {
+				try {
+					this.applyInTransaction(List.of(row), totals, listener);
+				}
+				catch (DataAccessException rowException) {
+					this.reject(row, rowException.getMostSpecificCause().getMessage(), totals, listener);
+				}
+			});
+		}
+		this.productSearchService.reindexSkus(chunk.stream()
+				.map(Row::getSku)
+				.collect(Collectors.toUnmodifiableSet()));
+		chunk.clear();
+		listener.accept(totals.toEvent(EventType.PROGRESS));
+	}
+
+	private void applyInTransaction(final List<Row> rows, final Totals totals, final Consumer<ProductImportEvent> listener) {
+		final Chunk applied = this.transactionTemplate.execute(status -> this.apply(rows));
+		applied.rejected.forEach((row, rejection) -> this.reject(row, rejection, totals, listener));
+		totals.inserted += applied.inserted;
+		totals.updated += applied.updatedIds.size();
+		Optional.ofNullable(this.cacheManager.getCache(CacheConfig.PRODUCTS_CACHE))
+				.ifPresent(cache -> applied.updatedIds.forEach(cache::evict));
+	}
+
+	private Chunk apply(final List<Row> rows) {
+		final Chunk chunk = new Chunk();
+		final Set<Integer> existingCategoryIds = this.findExistingCategoryIds(rows);
+		final Map<String, Integer> existingSkus = this.findExistingSkus(rows);
+		final Timestamp now = Timestamp.from(Instant.now());
+		final List<SqlParameterSource> inserts = new ArrayList<>();
+		final List<SqlParameterSource> updates = new ArrayList<>();
+
+		for (final Row row : rows) {
+			if (row.getCategoryId() != null && !existingCategoryIds.contains(row.getCategoryId())) {
+				chunk.rejected.put(row, String.format("Category with id: %d not found", row.getCategoryId()));
+				continue;
+			}
+			final SqlParameterSource parameters = parametersOf(row, now);
+			final Integer productId = existingSkus.get(row.getSku());
+			if (productId == null) {
+				final String rejection = insertRejectionOf(row);
+				if (rejection != null) {
+					chunk.rejected.put(row, rejection);
+					continue;
+				}
+				inserts.add(parameters);
+			}
+			else {
+				updates.add(parameters);
+				chunk.updatedIds.add(productId);
+			}
+		}
+
+		if (!inserts.isEmpty())
+			this.jdbcTemplate.batchUpdate(INSERT_PRODUCT, inserts.toArray(SqlParameterSource[]::new));
+		if (!updates.isEmpty())
+			this.jdbcTemplate.batchUpdate(UPDATE_PRODUCT, updates.toArray(SqlParameterSource[]::new));
+		chunk.inserted = inserts.size();
+		return chunk;
+	}
+
+	private Set<Integer> findExistingCategoryIds(final List<Row> rows) {
+		final Set<Integer> categoryIds = rows.stream()
+				.map(Row::getCategoryId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		if (categoryIds.isEmpty())
+			return Set.of();
+		return new HashSet<>(this.jdbcTemplate.queryForList(SELECT_EXISTING_CATEGORY_IDS,
+				Map.of("categoryIds", categoryIds), Integer.class));
+	}
+
+	private Map<String, Integer> findExistingSkus(final List<Row> rows) {
+		final Map<String, Integer> existingSkus = new HashMap<>();
+		this.jdbcTemplate.query(SELECT_EXISTING_SKUS,
+				Map.of("skus", rows.stream().map(Row::getSku).collect(Collectors.toSet())),
+				rs -> {
+					existingSkus.put(rs.getString("sku"), rs.getInt("product_id"));
+				});
+		return existingSkus;
+	}
+
+	private static SqlParameterSource parametersOf(final Row row, final Timestamp now) {
+		final ProductDto productDto = row.getProductDto();
+		return new MapSqlParameterSource()
+				.addValue("sku", productDto.getSku())
+				.addValue("productTitle", productDto.getProductTitle())
+				.addValue("imageUrl", productDto.getImageUrl())
+				.addValue("priceUnit", productDto.getPriceUnit())
+				.addValue("quantity", productDto.getQuantity())
+				.addValue("categoryId", row.getCategoryId())
+				.addValue("now", now);
+	}
+
+	private static String rejectionOf(final ProductDto productDto) {
+		if (productDto == null)
+			return "Product must not be NULL";
+		if (productDto.getSku() == null || productDto.getSku().isBlank())
+			return "Sku must not be blank";
+		if (productDto.getPriceUnit() != null && productDto.getPriceUnit() < 0)
+			return "Price must not be negative";
+		if (productDto.getQuantity() != null && productDto.getQuantity() < 0)
+			return "Quantity must not be negative";
+		return null;
+	}
+
+	/**
+	 * A new product needs every column its listing reads, an update may carry the sku only.
+	 */
+	private static String insertRejectionOf(final Row row) {
+		final ProductDto productDto = row.getProductDto();
+		if (productDto.getProductTitle() == null || productDto.getProductTitle().isBlank())
+			return "Title of a new product must not be blank";
+		if (productDto.getPriceUnit() == null)
+			return "Price of a new product must not be NULL";
+		if (productDto.getQuantity() == null)
+			return "Quantity of a new product must not be NULL";
+		if (row.getCategoryId() == null)
+			return "Category of a new product must not be NULL";
+		return null;
+	}
+
+	private void reject(final Row row, final String rejection, final Totals totals,
+			final Consumer<ProductImportEvent> listener) {
+		totals.failed++;
+		listener.accept(ProductImportEvent.builder()
+				.type(EventType.ERROR)
+				.line(row.getLine())
+				.sku(row.getSku())
+				.msg(rejection)
+				.build());
+	}
+
+	private static final class Chunk {
+		private final Map<Row, String> rejected = new LinkedHashMap<>();
+		private final List<Integer> updatedIds = new ArrayList<>();
+		private int inserted;
+	}
+
+	private static final class Totals {
+
+		private long processed;
+		private long inserted;
+		private long updated;
+		private long failed;
+
+		private ProductImportEvent toEvent(final EventType type) {
+			return ProductImportEvent.builder()
+					.type(type)
+					.processed(this.processed)
+					.inserted(this.inserted)
+					.updated(this.updated)
+					.failed(this.failed)
+					.build();
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
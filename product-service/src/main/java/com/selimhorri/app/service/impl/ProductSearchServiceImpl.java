@@ -0,0 +1,216 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.helper.ProductSearchIndex;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductSearchService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the search index in line with the products table. Changes are applied after
+ * the writing transaction commits, re-reading the product in a new transaction so the
+ * document carries the committed category title and path. Changes are made searchable
+ * right away and synced to disk by {@link #commit()} every few seconds, off the request
+ * threads; search hits are read back from the products table.
+ */
+@Service
+@Slf4j
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+	private final ProductRepository productRepository;
+	private final ProductSearchIndex productSearchIndex;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean rebuildOnStartup;
+
+	public ProductSearchServiceImpl(
+			final ProductRepository productRepository,
+			final ProductSearchIndex productSearchIndex,
+			final PlatformTransactionManager transactionManager,
+			@Value("${search.index.rebuild-on-startup:false}") final boolean rebuildOnStartup) {
+		this.productRepository = productRepository;
+		this.productSearchIndex = productSearchIndex;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.transactionTemplate.setReadOnly(true);
+		this.rebuildOnStartup = rebuildOnStartup;
+	}
+
+	@Override
+	public DtoPageResponse<ProductDto> search(final String query, final int page, final int size) {
+		log.info("*** ProductDto Page, service; search products *");
+		final int pageSize = Math.max(1, Math.min(size, AppConstant.MAX_SEARCH_PAGE_SIZE));
+		final int pageNumber = Math.max(0, Math.min(page, ProductSearchIndex.MAX_WINDOW / pageSize - 1));
+		if (query == null || query.isBlank())
+			return DtoPageResponse.<ProductDto>builder()
+					.collection(List.of())
+					.page(pageNumber)
+					.size(pageSize)
+					.totalElements(0L)
+					.totalPages(0)
+					.build();
+		final DtoPageResponse<Integer> hits = this.productSearchIndex.search(query, pageNumber, pageSize);
+		return DtoPageResponse.<ProductDto>builder()
+				.collection(this.findProducts(hits.getCollection()))
+				.page(hits.getPage())
+				.size(hits.getSize())
+				.totalElements(hits.getTotalElements())
+				.totalPages(hits.getTotalPages())
+				.build();
+	}
+
+	@Override
+	public void reindexAfterCommit(final Integer productId) {
+		afterCommit(() -> {
+			final List<Product> products = this.transactionTemplate.execute(status ->
+					this.productRepository.findByProductIdIn(Set.of(productId)));
+			if (products.isEmpty())
+				this.productSearchIndex.delete(productId);
+			else
+				this.productSearchIndex.index(products);
+			this.productSearchIndex.refresh();
+		});
+	}
+
+	@Override
+	public void reindexSkus(final Collection<String> skus) {
+		if (skus.isEmpty())
+			return;
+		this.productSearchIndex.index(this.transactionTemplate.execute(status ->
+				this.productRepository.findBySkuIn(skus)));
+		this.productSearchIndex.refresh();
+	}
+
+	@Override
+	public void reindexCategoryAfterCommit(final String categoryPath) {
+		afterCommit(() -> {
+			this.indexAfter(categoryPath);
+			this.productSearchIndex.refresh();
+		});
+	}
+
+	@Override
+	public void removeCategoryAfterCommit(final String categoryPath) {
+		afterCommit(() -> {
+			this.productSearchIndex.deleteCategorySubtree(categoryPath);
+			this.productSearchIndex.refresh();
+		});
+	}
+
+	/**
+	 * Re-indexes every product, one keyset page at a time, over the previous documents;
+	 * those of products that are gone are dropped at the end.
+	 */
+	@Override
+	public synchronized long rebuild() {
+		log.info("*** Long, service; rebuild product search index *");
+		final String generation = this.productSearchIndex.startGeneration();
+		final long indexed = this.indexAfter(null);
+		this.productSearchIndex.deleteOtherGenerations(generation);
+		this.productSearchIndex.commit();
+		log.info("*** Long, service; product search index rebuilt with {} products *", indexed);
+		return indexed;
+	}
+
+	@Scheduled(fixedDelayString = "${search.index.commit-interval-ms:5000}")
+	public void commit() {
+		this.productSearchIndex.commit();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildIfNeeded() {
+		if (this.rebuildOnStartup || this.productSearchIndex.size() == 0)
+			this.rebuild();
+	}
+
+	/**
+	 * Indexes all products, or those of one category subtree, in pages of
+	 * {@link AppConstant#SEARCH_INDEX_BATCH_SIZE}.
+	 */
+	private long indexAfter(final String categoryPath) {
+		long indexed = 0;
+		Integer after = 0;
+		List<Product> products;
+		do {
+			final Integer productId = after;
+			products = this.transactionTemplate.execute(status -> categoryPath == null
+					? this.productRepository.findByProductIdGreaterThanOrderByProductIdAsc(productId,
+							PageRequest.of(0, AppConstant.SEARCH_INDEX_BATCH_SIZE))
+					: this.productRepository.findByCategoryPathAfter(categoryPath, productId,
+							PageRequest.of(0, AppConstant.SEARCH_INDEX_BATCH_SIZE)));
+			this.productSearchIndex.index(products);
+			indexed += products.size();
+			if (!products.isEmpty())
+				after = products.get(products.size() - 1).getProductId();
+		}
+		while (products.size() == AppConstant.SEARCH_INDEX_BATCH_SIZE);
+		return indexed;
+	}
+
+	/**
+	 * Products of a page of hits in hit order, skipping those deleted since indexed.
+	 */
+	private List<ProductDto> findProducts(final Collection<Integer> productIds) {
+		if (productIds.isEmpty())
+			return List.of();
+		final Map<Integer, Product> products = this.transactionTemplate.execute(status -> this.productRepository
+				.findByProductIdIn(productIds).stream()
+				.collect(Collectors.toMap(Product::getProductId, Function.identity())));
+		return productIds.stream()
+				.map(products::get)
+				.filter(Objects::nonNull)
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	private static void afterCommit(final Runnable runnable) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			runnable.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCommit() {
+				runnable.run();
+			}
+		});
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
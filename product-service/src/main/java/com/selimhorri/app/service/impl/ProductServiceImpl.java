@@ -1,16 +1,27 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductVersionRequiredException;
 import com.selimhorri.app.helper.ProductMappingHelper;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductCacheService;
+import com.selimhorri.app.service.ProductSearchService;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,6 +34,8 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductServiceImpl implements ProductService {
 	
 	private final ProductRepository productRepository;
+	private final ProductSearchService productSearchService;
+	private final ProductCacheService productCacheService;
 	
 	@Override
 	public List<ProductDto> findAll() {
@@ -30,11 +43,44 @@ public class ProductServiceImpl implements ProductService {
 		return this.productRepository.findAll()
 				.stream()
 					.map(ProductMappingHelper::map)
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
+	public DtoPageResponse<ProductDto> findAll(final Pageable pageable) {
+		log.info("*** ProductDto Page, service; fetch products page *");
+		final Page<Product> products = this.productRepository.findAll(pageable);
+		return DtoPageResponse.<ProductDto>builder()
+				.collection(products.stream()
+						.map(ProductMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.page(products.getNumber())
+				.size(products.getSize())
+				.totalElements(products.getTotalElements())
+				.totalPages(products.getTotalPages())
+				.build();
+	}
+	
+	@Override
+	public DtoPageResponse<ProductDto> findAllAfter(final Integer productId, final int size) {
+		log.info("*** ProductDto Page, service; fetch products page after productId *");
+		// one extra row tells whether a next page exists without a count query
+		final List<Product> products = this.productRepository.findByProductIdGreaterThanOrderByProductIdAsc(
+				productId == null ? 0 : productId, PageRequest.of(0, size + 1));
+		final boolean hasNext = products.size() > size;
+		final List<ProductDto> productDtos = products.stream()
+				.limit(size)
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+		return DtoPageResponse.<ProductDto>builder()
+				.collection(productDtos)
+				.size(size)
+				.nextCursor(hasNext ? productDtos.get(productDtos.size() - 1).getProductId() : null)
+				.build();
+	}
+	
+	@Override
+	@Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
 	public ProductDto findById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
 		return this.productRepository.findById(productId)
@@ -45,22 +91,22 @@ public class ProductServiceImpl implements ProductService {
 	@Override
 	public ProductDto save(final ProductDto productDto) {
 		log.info("*** ProductDto, service; save product *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		return this.reindexed(ProductMappingHelper.map(this.productRepository
+				.save(this.versioned(productDto))));
 	}
 	
 	@Override
 	public ProductDto update(final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		return this.reindexed(ProductMappingHelper.map(this.productRepository
+				.save(this.versioned(productDto))));
 	}
 	
 	@Override
 	public ProductDto update(final Integer productId, final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product with productId *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(this.findById(productId))));
+		return this.reindexed(ProductMappingHelper.map(this.productRepository
+				.save(this.versioned(this.findById(productId)))));
 	}
 	
 	@Override
@@ -68,6 +114,29 @@ public class ProductServiceImpl implements ProductService {
 		log.info("*** Void, service; delete product by id *");
 		this.productRepository.delete(ProductMappingHelper
 				.map(this.findById(productId)));
+		this.productSearchService.reindexAfterCommit(productId);
+		this.productCacheService.evictAfterCommit(Set.of(productId));
+	}
+	
+	/**
+	 * A full update is checked against the version the client read, so it can not
+	 * silently overwrite a concurrent change, stock moves included; an update without
+	 * one is refused.
+	 */
+	private Product versioned(final ProductDto productDto) {
+		final Product product = ProductMappingHelper.map(productDto);
+		if (product.getProductId() != null && product.getVersion() == null)
+			throw new ProductVersionRequiredException(String
+					.format("Version of product with id: %d is required to update it", product.getProductId()));
+		return product;
+	}
+	
+	private ProductDto reindexed(final ProductDto productDto) {
+		if (productDto.getProductId() != null) {
+			this.productSearchService.reindexAfterCommit(productDto.getProductId());
+			this.productCacheService.evictAfterCommit(Set.of(productDto.getProductId()));
+		}
+		return productDto;
 	}
 	
 	
@@ -0,0 +1,231 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservation.ReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationItemDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationStateException;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.service.HotStockService;
+import com.selimhorri.app.service.HotStockService.Lease;
+import com.selimhorri.app.service.StockReservationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stock moves only through conditional UPDATE statements, never through a read and a
+ * full-entity save, so concurrent reservations of one sku queue on its row lock for the
+ * length of one statement and can not oversell. A multi-item reservation takes its skus
+ * in sku order inside one transaction: either every line is taken or none is, and two
+ * reservations over the same skus can not deadlock on each other. Hot skus are taken
+ * from {@link HotStockService} instead and never touch their products row here.
+ */
+@Service
+@Transactional
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+	
+	private final ProductRepository productRepository;
+	private final StockReservationRepository stockReservationRepository;
+	private final HotStockService hotStockService;
+	private final CacheManager cacheManager;
+	private final TransactionTemplate transactionTemplate;
+	
+	public StockReservationServiceImpl(
+			final ProductRepository productRepository,
+			final StockReservationRepository stockReservationRepository,
+			final HotStockService hotStockService,
+			final CacheManager cacheManager,
+			final PlatformTransactionManager transactionManager) {
+		this.productRepository = productRepository;
+		this.stockReservationRepository = stockReservationRepository;
+		this.hotStockService = hotStockService;
+		this.cacheManager = cacheManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+	
+	@Override
+	public StockReservationDto findById(final String reservationId) {
+		log.info("*** StockReservationDto, service; fetch stock reservation by id *");
+		return map(reservationId, this.findLines(reservationId));
+	}
+	
+	/**
+	 * Runs outside a transaction: hot skus are taken from memory first, possibly moving
+	 * a new allotment in a short transaction of its own, and only then is the transaction
+	 * for the products rows and the lines opened. Every statement goes through one of
+	 * these short transactions, as a query run directly here would pin its connection
+	 * for the whole call, so no call ever holds more than one connection or holds one
+	 * while waiting.
+	 */
+	@Override
+	@Transactional(TxType.NOT_SUPPORTED)
+	public StockReservationDto reserve(final StockReservationDto stockReservationDto) {
+		log.info("*** StockReservationDto, service; reserve stock *");
+		final String reservationId = Optional.ofNullable(stockReservationDto.getReservationId())
+				.orElseGet(() -> UUID.randomUUID().toString());
+		final List<StockReservation> existing = this.transactionTemplate.execute(status -> 
+				this.stockReservationRepository.findByReservationIdOrderBySkuAsc(reservationId));
+		if (!existing.isEmpty())
+			return map(reservationId, existing);
+		
+		final Map<String, Integer> quantities = new TreeMap<>();
+		stockReservationDto.getItems().forEach(item -> {
+			if (item.getQuantity() == null || item.getQuantity() <= 0)
+				throw new IllegalStateException(String.format("Quantity for sku: %s must be positive", item.getSku()));
+			quantities.merge(item.getSku(), item.getQuantity(), Integer::sum);
+		});
+		
+		final Map<String, Lease> leases = new HashMap<>();
+		boolean reserved = false;
+		try {
+			quantities.forEach((sku, quantity) -> this.hotStockService.take(sku, quantity)
+					.ifPresent(lease -> leases.put(sku, lease)));
+			final List<StockReservation> lines = this.transactionTemplate.execute(status -> 
+					this.reserve(reservationId, quantities, leases));
+			reserved = true;
+			return map(reservationId, lines);
+		}
+		finally {
+			final boolean taken = reserved;
+			leases.values().forEach(lease -> lease.complete(taken));
+		}
+	}
+	
+	@Override
+	public StockReservationDto release(final String reservationId) {
+		log.info("*** StockReservationDto, service; release stock reservation *");
+		final boolean released = this.stockReservationRepository
+				.updateStatus(reservationId, ReservationStatus.RESERVED, ReservationStatus.RELEASED) > 0;
+		final List<StockReservation> lines = this.findLines(reservationId);
+		if (released) {
+			// hot stock goes back to its products row with the next hot stock flush
+			lines.stream()
+					.filter(line -> line.getHotStockAllotmentId() == null)
+					.forEach(line -> this.productRepository.incrementQuantity(line.getSku(), line.getQuantity()));
+			this.evictProductsAfterCommit(lines);
+		}
+		return this.settled(reservationId, lines, ReservationStatus.RELEASED);
+	}
+	
+	@Override
+	public StockReservationDto commit(final String reservationId) {
+		log.info("*** StockReservationDto, service; commit stock reservation *");
+		this.stockReservationRepository
+				.updateStatus(reservationId, ReservationStatus.RESERVED, ReservationStatus.COMMITTED);
+		return this.settled(reservationId, this.findLines(reservationId), ReservationStatus.COMMITTED);
+	}
+	
+	/**
+	 * Repeating a release or a commit is a no-op, switching from one to the other is not.
+	 */
+	private StockReservationDto settled(final String reservationId, final List<StockReservation> lines, 
+			final ReservationStatus expected) {
+		final ReservationStatus status = lines.get(0).getReservationStatus();
+		if (status != expected)
+			throw new StockReservationStateException(String.format("Stock reservation with id: %s is already %s", 
+					reservationId, status.name().toLowerCase()));
+		return map(reservationId, lines);
+	}
+	
+	private List<StockReservation> reserve(final String reservationId, final Map<String, Integer> quantities, 
+			final Map<String, Lease> leases) {
+		quantities.forEach((sku, quantity) -> {
+			if (!leases.containsKey(sku) && this.productRepository.decrementQuantity(sku, quantity) == 0) {
+				if (!this.productRepository.existsBySku(sku))
+					throw new ProductNotFoundException(String.format("Product with sku: %s not found", sku));
+				throw new InsufficientStockException(String.format("Insufficient stock for sku: %s", sku));
+			}
+		});
+		final List<StockReservation> lines = this.stockReservationRepository.saveAll(quantities.entrySet().stream()
+				.map(entry -> StockReservation.builder()
+						.reservationId(reservationId)
+						.sku(entry.getKey())
+						.quantity(entry.getValue())
+						.reservationStatus(ReservationStatus.RESERVED)
+						.hotStockAllotmentId(Optional.ofNullable(leases.get(entry.getKey()))
+								.map(Lease::getHotStockAllotmentId)
+								.orElse(null))
+						.build())
+				.collect(Collectors.toUnmodifiableList()));
+		this.evictProductsAfterCommit(lines);
+		return lines;
+	}
+	
+	private List<StockReservation> findLines(final String reservationId) {
+		final List<StockReservation> lines = this.stockReservationRepository
+				.findByReservationIdOrderBySkuAsc(reservationId);
+		if (lines.isEmpty())
+			throw new StockReservationNotFoundException(String
+					.format("Stock reservation with id: %s not found", reservationId));
+		return lines;
+	}
+	
+	private void evictProductsAfterCommit(final List<StockReservation> lines) {
+		final List<Integer> productIds = this.productRepository.findProductIdsBySkuIn(lines.stream()
+				.map(StockReservation::getSku)
+				.collect(Collectors.toUnmodifiableSet()));
+		final Runnable evict = () -> Optional.ofNullable(this.cacheManager.getCache(CacheConfig.PRODUCTS_CACHE))
+				.ifPresent(cache -> productIds.forEach(cache::evict));
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			evict.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				evict.run();
+			}
+		});
+	}
+	
+	private static StockReservationDto map(final String reservationId, final List<StockReservation> lines) {
+		return StockReservationDto.builder()
+				.reservationId(reservationId)
+				.reservationStatus(lines.get(0).getReservationStatus())
+				.items(lines.stream()
+						.map(line -> StockReservationItemDto.builder()
+								.sku(line.getSku())
+								.quantity(line.getQuantity())
+								.build())
+						.collect(Collectors.toUnmodifiableList()))
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,12 @@
+
+CREATE TABLE stock_reservations (
+	stock_reservation_id INT(11) NOT NULL PRIMARY KEY AUTO_INCREMENT,
+	reservation_id VARCHAR(36) NOT NULL,
+	sku VARCHAR(255) NOT NULL,
+	quantity INT(11) NOT NULL,
+	reservation_status VARCHAR(16) NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP,
+	CONSTRAINT uk_stock_reservations_reservation_id_sku UNIQUE (reservation_id, sku)
+);
+
@@ -0,0 +1,22 @@
+ALTER TABLE products
+  ADD COLUMN hot_stock BOOLEAN DEFAULT FALSE NOT NULL;
+
+CREATE TABLE hot_stock_allotments (
+	hot_stock_allotment_id INT(11) NOT NULL PRIMARY KEY AUTO_INCREMENT,
+	sku VARCHAR(255) NOT NULL,
+	allotment_owner VARCHAR(64) NOT NULL,
+	allotted INT(11) NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_hot_stock_allotments_allotment_owner ON hot_stock_allotments (allotment_owner);
+
+ALTER TABLE stock_reservations
+  ADD COLUMN hot_stock_allotment_id INT(11);
+
+ALTER TABLE stock_reservations
+  ADD COLUMN stock_returned BOOLEAN DEFAULT FALSE NOT NULL;
+
+CREATE INDEX idx_stock_reservations_hot_stock_allotment_id ON stock_reservations (hot_stock_allotment_id);
+
@@ -0,0 +1,4 @@
+ALTER TABLE products
+  ADD CONSTRAINT uk_products_sku UNIQUE (sku);
+
+
@@ -0,0 +1,11 @@
+
+ALTER TABLE categories
+  ADD COLUMN category_path VARCHAR(255);
+
+UPDATE categories
+  SET category_path = CONCAT('/', category_id, '/')
+  WHERE parent_category_id IS NULL;
+
+CREATE INDEX idx_categories_category_path ON categories (category_path);
+
+
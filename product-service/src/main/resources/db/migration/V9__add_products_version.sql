@@ -0,0 +1,3 @@
+ALTER TABLE products
+  ADD COLUMN version INT(11) DEFAULT 0 NOT NULL;
+
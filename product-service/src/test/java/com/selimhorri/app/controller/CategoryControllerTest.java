@@ -25,6 +25,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.CategoryCycleException;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.service.CategoryService;
 
@@ -82,6 +83,22 @@ class CategoryControllerTest {
                 .andExpect(jsonPath("$.msg").exists());
     }
 
+    @Test
+    void updateCategory_underItsOwnSubtree_returnsBadRequest() throws Exception {
+        CategoryDto request = CategoryDto.builder()
+                .categoryId(1)
+                .categoryTitle("C1")
+                .build();
+
+        given(categoryService.update(request)).willThrow(new CategoryCycleException("Category can not be moved under its own subtree"));
+
+        mockMvc.perform(put("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.httpStatus").value("BAD_REQUEST"));
+    }
+
     @Test
     void saveCategory_returnsSavedCategory() throws Exception {
         CategoryDto request = CategoryDto.builder()
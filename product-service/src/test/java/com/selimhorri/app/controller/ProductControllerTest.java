@@ -25,8 +25,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.exception.ApiExceptionHandler;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductVersionRequiredException;
 import com.selimhorri.app.service.ProductService;
 
 @WebMvcTest(controllers = com.selimhorri.app.resource.ProductResource.class)
@@ -58,6 +60,23 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.collection[1].productId").value(2));
     }
 
+    @Test
+    void getProductsAfterCursor_returnsPageWithNextCursor() throws Exception {
+        ProductDto p3 = ProductDto.builder().productId(3).productTitle("P3").build();
+        ProductDto p4 = ProductDto.builder().productId(4).productTitle("P4").build();
+
+        given(productService.findAllAfter(2, 2)).willReturn(DtoPageResponse.<ProductDto>builder()
+                .collection(Arrays.asList(p3, p4))
+                .size(2)
+                .nextCursor(4)
+                .build());
+
+        mockMvc.perform(get("/api/products").param("after", "2").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(4));
+    }
+
     @Test
     void getProductById_returnsProduct() throws Exception {
         ProductDto product = ProductDto.builder()
@@ -133,6 +152,23 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.productTitle").value("Updated"));
     }
 
+    @Test
+    void updateProduct_withoutVersion_returnsPreconditionRequired() throws Exception {
+        ProductDto request = ProductDto.builder()
+                .productId(1)
+                .productTitle("Updated")
+                .build();
+
+        given(productService.update(request))
+                .willThrow(new ProductVersionRequiredException("Version of product with id: 1 is required to update it"));
+
+        mockMvc.perform(put("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.httpStatus").value("PRECONDITION_REQUIRED"));
+    }
+
     @Test
     void updateProductWithPathId_returnsUpdatedProduct() throws Exception {
         ProductDto request = ProductDto.builder()
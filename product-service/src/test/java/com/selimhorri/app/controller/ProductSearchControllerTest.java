@@ -0,0 +1,54 @@
+package com.selimhorri.app.controller;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.resource.ProductSearchResource;
+import com.selimhorri.app.service.ProductSearchService;
+
+@WebMvcTest(controllers = ProductSearchResource.class, properties = "search.index.admin-token=s3cret")
+@Import(ApiExceptionHandler.class)
+@ActiveProfiles("test")
+class ProductSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    @Test
+    void rebuild_withAdminToken_rebuildsIndex() throws Exception {
+        given(productSearchService.rebuild()).willReturn(42L);
+
+        mockMvc.perform(post("/api/products/search/index")
+                        .header(ProductSearchResource.ADMIN_TOKEN_HEADER, "s3cret"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+    }
+
+    @Test
+    void rebuild_withoutOrWithWrongToken_isForbidden() throws Exception {
+        mockMvc.perform(post("/api/products/search/index"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/products/search/index")
+                        .header(ProductSearchResource.ADMIN_TOKEN_HEADER, "guess"))
+                .andExpect(status().isForbidden());
+
+        verify(productSearchService, never()).rebuild();
+    }
+
+}
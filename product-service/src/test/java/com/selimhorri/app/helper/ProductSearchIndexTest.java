@@ -0,0 +1,66 @@
+package com.selimhorri.app.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.domain.Product;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productSearchIndex = new ProductSearchIndex(new ByteBuffersDirectory());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        productSearchIndex.close();
+    }
+
+    @Test
+    void search_countsEveryHitBeyondAThousand() {
+        productSearchIndex.index(IntStream.rangeClosed(1, 1500)
+                .mapToObj(id -> product(id, "Granite lamp " + id))
+                .collect(Collectors.toList()));
+        productSearchIndex.refresh();
+
+        assertThat(productSearchIndex.search("granite", 0, 10).getTotalElements()).isEqualTo(1500);
+        assertThat(productSearchIndex.search("granite", 0, 10).getTotalPages()).isEqualTo(150);
+    }
+
+    @Test
+    void rebuild_keepsPreviousDocumentsSearchableUntilItEnds() {
+        productSearchIndex.index(List.of(product(1, "Marble sink"), product(2, "Marble tile")));
+        productSearchIndex.commit();
+
+        String generation = productSearchIndex.startGeneration();
+        productSearchIndex.index(List.of(product(1, "Marble sink")));
+        // un commit periodico en mitad de la reconstruccion no deja el indice vacio
+        productSearchIndex.commit();
+        assertThat(productSearchIndex.search("marble", 0, 10).getCollection()).containsExactlyInAnyOrder(1, 2);
+
+        productSearchIndex.deleteOtherGenerations(generation);
+        productSearchIndex.commit();
+        assertThat(productSearchIndex.search("marble", 0, 10).getCollection()).containsExactly(1);
+    }
+
+    private static Product product(int productId, String title) {
+        return Product.builder()
+                .productId(productId)
+                .productTitle(title)
+                .sku("SKU-" + productId)
+                .build();
+    }
+
+}
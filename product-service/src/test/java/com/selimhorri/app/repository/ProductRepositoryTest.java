@@ -0,0 +1,101 @@
+package com.selimhorri.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.CategoryMappingHelper;
+import com.selimhorri.app.helper.ProductMappingHelper;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ProductRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Category parent = entityManager.persist(Category.builder()
+                    .categoryTitle("Parent " + i)
+                    .build());
+            Category category = entityManager.persist(Category.builder()
+                    .categoryTitle("Category " + i)
+                    .parentCategory(parent)
+                    .build());
+            entityManager.persist(Product.builder()
+                    .productTitle("Product " + i)
+                    .sku("SKU-" + UUID.randomUUID())
+                    .priceUnit(10.0)
+                    .quantity(5)
+                    .category(category)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_mapsProductsWithCategoriesInOneQuery() {
+        List<ProductDto> products = productRepository.findAll().stream()
+                .map(ProductMappingHelper::map)
+                .collect(Collectors.toList());
+
+        assertThat(products).hasSizeGreaterThanOrEqualTo(5);
+        assertThat(products).allSatisfy(p -> assertThat(p.getCategoryDto().getCategoryTitle()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByProductIdGreaterThan_mapsKeysetPageInOneQuery() {
+        List<ProductDto> products = productRepository
+                .findByProductIdGreaterThanOrderByProductIdAsc(0, PageRequest.of(0, 3)).stream()
+                .map(ProductMappingHelper::map)
+                .collect(Collectors.toList());
+
+        assertThat(products).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllCategories_mapsParentCategoriesInOneQuery() {
+        List<CategoryDto> categories = categoryRepository.findAll().stream()
+                .map(CategoryMappingHelper::map)
+                .collect(Collectors.toList());
+
+        assertThat(categories).hasSizeGreaterThanOrEqualTo(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+}
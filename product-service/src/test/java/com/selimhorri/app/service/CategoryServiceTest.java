@@ -0,0 +1,113 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryTreeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.CategoryCycleException;
+import com.selimhorri.app.repository.CategoryRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryServiceTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void save_maintainsMaterializedPathsAndSubtreeSnapshot() {
+        CategoryDto root = saveCategory("Root", null);
+        CategoryDto child = saveCategory("Child", root);
+        CategoryDto grandChild = saveCategory("Grand child", child);
+
+        String rootPath = "/" + root.getCategoryId() + "/";
+        assertThat(categoryRepository.findCategoryPathById(grandChild.getCategoryId()))
+                .contains(rootPath + child.getCategoryId() + "/" + grandChild.getCategoryId() + "/");
+
+        CategoryTreeDto subtree = categoryService.findSubtree(root.getCategoryId());
+        assertThat(subtree.getCategoryPath()).isEqualTo(rootPath);
+        assertThat(subtree.getSubCategories())
+                .extracting(CategoryTreeDto::getCategoryId)
+                .containsExactly(child.getCategoryId());
+        assertThat(subtree.getSubCategories().get(0).getSubCategories())
+                .extracting(CategoryTreeDto::getCategoryId)
+                .containsExactly(grandChild.getCategoryId());
+    }
+
+    @Test
+    void findSubtreeProductsAfter_returnsProductsOfWholeSubtree() {
+        CategoryDto root = saveCategory("Products root", null);
+        CategoryDto child = saveCategory("Products child", root);
+        CategoryDto other = saveCategory("Other root", null);
+        Integer inRoot = saveProduct("In root", root).getProductId();
+        Integer inChild = saveProduct("In child", child).getProductId();
+        saveProduct("Elsewhere", other);
+
+        DtoPageResponse<ProductDto> firstPage = categoryService.findSubtreeProductsAfter(root.getCategoryId(), null, 1);
+        DtoPageResponse<ProductDto> secondPage = categoryService.findSubtreeProductsAfter(
+                root.getCategoryId(), firstPage.getNextCursor(), 1);
+
+        assertThat(firstPage.getCollection()).extracting(ProductDto::getProductId).containsExactly(inRoot);
+        assertThat(secondPage.getCollection()).extracting(ProductDto::getProductId).containsExactly(inChild);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void update_movingCategoryRewritesSubtreePaths() {
+        CategoryDto oldRoot = saveCategory("Old root", null);
+        CategoryDto newRoot = saveCategory("New root", null);
+        CategoryDto moved = saveCategory("Moved", oldRoot);
+        CategoryDto leaf = saveCategory("Leaf", moved);
+
+        moved.setParentCategoryDto(CategoryDto.builder().categoryId(newRoot.getCategoryId()).build());
+        categoryService.update(moved);
+
+        assertThat(categoryRepository.findCategoryPathById(leaf.getCategoryId()))
+                .contains("/" + newRoot.getCategoryId() + "/" + moved.getCategoryId() + "/" + leaf.getCategoryId() + "/");
+        assertThat(categoryService.findSubtree(newRoot.getCategoryId()).getSubCategories())
+                .extracting(CategoryTreeDto::getCategoryId)
+                .containsExactly(moved.getCategoryId());
+        assertThat(categoryService.findSubtree(oldRoot.getCategoryId()).getSubCategories()).isEmpty();
+    }
+
+    @Test
+    void update_rejectsMovingCategoryUnderItsOwnSubtree() {
+        CategoryDto root = saveCategory("Cycle root", null);
+        CategoryDto child = saveCategory("Cycle child", root);
+
+        root.setParentCategoryDto(CategoryDto.builder().categoryId(child.getCategoryId()).build());
+
+        assertThrows(CategoryCycleException.class, () -> categoryService.update(root));
+    }
+
+    private CategoryDto saveCategory(String title, CategoryDto parent) {
+        return categoryService.save(CategoryDto.builder()
+                .categoryTitle(title)
+                .parentCategoryDto(parent == null ? null : CategoryDto.builder()
+                        .categoryId(parent.getCategoryId())
+                        .build())
+                .build());
+    }
+
+    private ProductDto saveProduct(String title, CategoryDto category) {
+        return productService.save(ProductDto.builder()
+                .productTitle(title)
+                .categoryDto(CategoryDto.builder().categoryId(category.getCategoryId()).build())
+                .build());
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.HotStockAllotment;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationItemDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.HotStockAllotmentRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.service.ProductImportService.Format;
+import com.selimhorri.app.service.impl.HotStockServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotStockServiceTest {
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private HotStockAllotmentRepository hotStockAllotmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reserve_servesHotSkuFromMemoryWithoutOverselling() throws Exception {
+        String sku = saveProduct(100);
+        hotStockService.enable(sku);
+
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ConcurrentLinkedQueue<String> reservationIds = new ConcurrentLinkedQueue<>();
+        runConcurrently(500, () -> {
+            try {
+                reservationIds.add(stockReservationService.reserve(reservation(sku, 1)).getReservationId());
+            }
+            catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+            catch (RuntimeException e) {
+                errors.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertThat(errors.get()).isZero();
+        assertThat(reservationIds).hasSize(100);
+        assertThat(rejected.get()).isEqualTo(400);
+        assertThat(quantityOf(sku)).isZero();
+        assertThat(meterRegistry.get("stock.hot.reservations")
+                .tags("sku", sku, "outcome", "reserved")
+                .counter()
+                .count()).isEqualTo(100);
+
+        reservationIds.stream().limit(10).forEach(stockReservationService::release);
+        hotStockService.flush();
+        assertThat(quantityOf(sku)).isEqualTo(10);
+
+        hotStockService.disable(sku);
+        assertThat(quantityOf(sku)).isEqualTo(10);
+    }
+
+    @Test
+    void disable_givesUnsoldAllotmentBack() {
+        String sku = saveProduct(50);
+        hotStockService.enable(sku);
+
+        stockReservationService.reserve(reservation(sku, 5));
+        assertThat(quantityOf(sku)).isEqualTo(30);
+
+        hotStockService.disable(sku);
+        assertThat(quantityOf(sku)).isEqualTo(45);
+        assertThat(allotmentsOf(sku)).isEmpty();
+    }
+
+    @Test
+    void reconcile_givesBackWhatACrashedRunStillHeld() {
+        String sku = saveProduct(50);
+        hotStockService.enable(sku);
+        stockReservationService.reserve(reservation(sku, 5));
+        String owner = allotmentsOf(sku).get(0).getAllotmentOwner();
+
+        // a restart under the same owner, the previous counter being lost
+        new HotStockServiceImpl(productRepository, stockReservationRepository, hotStockAllotmentRepository,
+                transactionManager, new SimpleMeterRegistry(), owner, 4, 20).reconcile();
+
+        assertThat(quantityOf(sku)).isEqualTo(45);
+        assertThat(allotmentsOf(sku)).isEmpty();
+        hotStockService.disable(sku);
+        assertThat(quantityOf(sku)).isEqualTo(45);
+    }
+
+    @Test
+    void importAll_leavesStockHeldInMemoryOutOfTheProductsRow() {
+        String sku = saveProduct(100);
+        hotStockService.enable(sku);
+        String released = stockReservationService.reserve(reservation(sku, 5)).getReservationId();
+        stockReservationService.reserve(reservation(sku, 3));
+        stockReservationService.release(released);
+        assertThat(quantityOf(sku)).isEqualTo(80);
+
+        // 12 unidades siguen en el contador y 5 vuelven a la fila con el proximo flush
+        String ndjson = "{\"sku\":\"" + sku + "\",\"productTitle\":\"Flash sale product\",\"priceUnit\":1.0,\"quantity\":50}\n";
+        productImportService.importAll(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                Format.NDJSON, event -> {});
+        assertThat(quantityOf(sku)).isEqualTo(33);
+
+        hotStockService.flush();
+        hotStockService.disable(sku);
+        assertThat(quantityOf(sku)).isEqualTo(50);
+    }
+
+    private void runConcurrently(int tasks, Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+    }
+
+    private String saveProduct(int quantity) {
+        Category category = categoryRepository.save(Category.builder()
+                .categoryTitle("Flash sale")
+                .build());
+        return productRepository.save(Product.builder()
+                .productTitle("Flash sale product")
+                .sku("HOT-" + UUID.randomUUID())
+                .priceUnit(1.0)
+                .quantity(quantity)
+                .category(category)
+                .build()).getSku();
+    }
+
+    private int quantityOf(String sku) {
+        return productRepository.findQuantityBySku(sku).orElseThrow();
+    }
+
+    private List<HotStockAllotment> allotmentsOf(String sku) {
+        List<HotStockAllotment> allotments = new ArrayList<>();
+        hotStockAllotmentRepository.findAll().stream()
+                .filter(allotment -> sku.equals(allotment.getSku()))
+                .forEach(allotments::add);
+        return allotments;
+    }
+
+    private static StockReservationDto reservation(String sku, int quantity) {
+        return StockReservationDto.builder()
+                .items(List.of(StockReservationItemDto.builder()
+                        .sku(sku)
+                        .quantity(quantity)
+                        .build()))
+                .build();
+    }
+
+}
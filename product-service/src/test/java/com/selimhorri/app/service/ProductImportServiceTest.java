@@ -0,0 +1,174 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationItemDto;
+import com.selimhorri.app.dto.response.importing.ProductImportEvent;
+import com.selimhorri.app.dto.response.importing.ProductImportEvent.EventType;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductImportService.Format;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Test
+    void importAll_upsertsOnSkuAndReportsRejectedRows() {
+        Integer categoryId = categoryRepository.save(Category.builder()
+                .categoryTitle("Import Category")
+                .build()).getCategoryId();
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        String csv = String.join("\n",
+                "sku,productTitle,priceUnit,quantity,categoryId",
+                prefix + "-1,\"Desk, oak\",120.5,3," + categoryId,
+                prefix + "-2,Chair,abc,1," + categoryId,
+                prefix + "-3,Lamp,10,1,999999",
+                ",No sku,1,1,",
+                prefix + "-1,\"Desk, walnut\",130,2," + categoryId);
+
+        List<ProductImportEvent> events = new ArrayList<>();
+        ProductImportEvent completed = productImportService.importAll(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Format.CSV, events::add);
+
+        assertThat(completed.getProcessed()).isEqualTo(5);
+        assertThat(completed.getInserted()).isEqualTo(1);
+        assertThat(completed.getUpdated()).isEqualTo(1);
+        assertThat(completed.getFailed()).isEqualTo(3);
+        assertThat(events)
+                .filteredOn(event -> event.getType() == EventType.ERROR)
+                .extracting(ProductImportEvent::getLine)
+                .containsExactlyInAnyOrder(3L, 4L, 5L);
+        assertThat(events).last().isEqualTo(completed);
+
+        Product imported = productRepository.findAll().stream()
+                .filter(product -> (prefix + "-1").equals(product.getSku()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(imported.getProductTitle()).isEqualTo("Desk, walnut");
+        assertThat(imported.getPriceUnit()).isEqualTo(130.0);
+        assertThat(imported.getCategory().getCategoryId()).isEqualTo(categoryId);
+    }
+
+    @Test
+    void importAll_readsNdjsonRows() {
+        Integer categoryId = saveCategory();
+        String sku = UUID.randomUUID().toString();
+        String ndjson = "{\"sku\":\"" + sku + "\",\"productTitle\":\"Mouse\",\"priceUnit\":15.0,\"quantity\":7,"
+                + "\"category\":{\"categoryId\":" + categoryId + "}}\n"
+                + "{not json}\n";
+
+        ProductImportEvent completed = productImportService.importAll(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), Format.NDJSON, event -> {});
+
+        assertThat(completed.getInserted()).isEqualTo(1);
+        assertThat(completed.getFailed()).isEqualTo(1);
+        assertThat(productRepository.findAll())
+                .extracting(Product::getSku)
+                .contains(sku);
+    }
+
+    @Test
+    void importAll_keepsStoredColumnsMissingFromAnUpdateRow() {
+        Integer categoryId = saveCategory();
+        String sku = UUID.randomUUID().toString();
+        importCsv("sku,productTitle,imageUrl,priceUnit,quantity,categoryId",
+                sku + ",Desk,desk.png,120.5,3," + categoryId);
+
+        ProductImportEvent completed = importCsv("sku", sku);
+
+        assertThat(completed.getUpdated()).isEqualTo(1);
+        assertThat(completed.getFailed()).isZero();
+        Product product = productRepository.findBySkuIn(List.of(sku)).get(0);
+        assertThat(product.getProductTitle()).isEqualTo("Desk");
+        assertThat(product.getImageUrl()).isEqualTo("desk.png");
+        assertThat(product.getPriceUnit()).isEqualTo(120.5);
+        assertThat(product.getQuantity()).isEqualTo(3);
+        assertThat(product.getCategory().getCategoryId()).isEqualTo(categoryId);
+        // el listado sigue pudiendo mapear el producto
+        assertThat(productService.findAll()).extracting(ProductDto::getSku).contains(sku);
+    }
+
+    @Test
+    void importAll_rejectsNewProductsWithoutTheColumnsTheirListingNeeds() {
+        Integer categoryId = saveCategory();
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+
+        ProductImportEvent completed = importCsv("sku,productTitle,priceUnit,quantity,categoryId",
+                prefix + "-1,Desk,10,1,",
+                prefix + "-2,,10,1," + categoryId,
+                prefix + "-3,Desk,,1," + categoryId,
+                prefix + "-4,Desk,10,," + categoryId);
+
+        assertThat(completed.getInserted()).isZero();
+        assertThat(completed.getFailed()).isEqualTo(4);
+        assertThat(productRepository.findBySkuIn(
+                List.of(prefix + "-1", prefix + "-2", prefix + "-3", prefix + "-4"))).isEmpty();
+    }
+
+    @Test
+    void importAll_netsOutStockHeldByOpenReservations() {
+        Integer categoryId = saveCategory();
+        String sku = UUID.randomUUID().toString();
+        importCsv("sku,productTitle,priceUnit,quantity,categoryId", sku + ",Desk,10,10," + categoryId);
+        String reservationId = stockReservationService.reserve(StockReservationDto.builder()
+                .items(List.of(StockReservationItemDto.builder()
+                        .sku(sku)
+                        .quantity(3)
+                        .build()))
+                .build()).getReservationId();
+
+        // el fichero trae todo el stock, incluidas las unidades reservadas
+        importCsv("sku,quantity", sku + ",10");
+        assertThat(quantityOf(sku)).isEqualTo(7);
+
+        stockReservationService.release(reservationId);
+        assertThat(quantityOf(sku)).isEqualTo(10);
+    }
+
+    private ProductImportEvent importCsv(String... lines) {
+        return productImportService.importAll(
+                new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)), Format.CSV, event -> {});
+    }
+
+    private Integer saveCategory() {
+        return categoryRepository.save(Category.builder()
+                .categoryTitle("Import Category")
+                .build()).getCategoryId();
+    }
+
+    private int quantityOf(String sku) {
+        return productRepository.findBySkuIn(List.of(sku)).get(0).getQuantity();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSearchServiceTest {
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void search_matchesTitleByWordPrefixTypoAndSku() {
+        String sku = "SRCH-" + UUID.randomUUID().toString().substring(0, 8);
+        ProductDto saved = saveProduct(sku, "Quartzite kitchen countertop");
+
+        assertThat(productSearchService.search("quartz", 0, 10).getCollection())
+                .extracting(ProductDto::getProductId)
+                .containsExactly(saved.getProductId());
+        assertThat(productSearchService.search("quartzte countertop", 0, 10).getCollection())
+                .extracting(ProductDto::getProductId)
+                .containsExactly(saved.getProductId());
+        assertThat(productSearchService.search(sku.toLowerCase(), 0, 10).getCollection())
+                .singleElement()
+                .satisfies(productDto -> {
+                    assertThat(productDto.getSku()).isEqualTo(sku);
+                    assertThat(productDto.getProductTitle()).isEqualTo("Quartzite kitchen countertop");
+                    assertThat(productDto.getCategoryDto().getCategoryTitle()).isEqualTo("Stonework");
+                });
+    }
+
+    @Test
+    void search_followsUpdatesAndDeletes() {
+        ProductDto saved = saveProduct("SRCH-" + UUID.randomUUID().toString().substring(0, 8), "Zephyrine lamp");
+        assertThat(productSearchService.search("zephyrine", 0, 10).getTotalElements()).isEqualTo(1);
+
+        saved.setProductTitle("Obsidiana lamp");
+        productService.update(saved);
+        assertThat(productSearchService.search("zephyrine", 0, 10).getTotalElements()).isZero();
+        assertThat(productSearchService.search("obsidiana", 0, 10).getTotalElements()).isEqualTo(1);
+
+        productService.deleteById(saved.getProductId());
+        assertThat(productSearchService.search("obsidiana", 0, 10).getTotalElements()).isZero();
+    }
+
+    @Test
+    void search_servesCurrentStockAndPrice() {
+        String sku = "SRCH-" + UUID.randomUUID().toString().substring(0, 8);
+        saveProduct(sku, "Travertine bench");
+
+        // el stock cambia sin pasar por el indice
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                productRepository.decrementQuantity(sku, 1));
+
+        assertThat(productSearchService.search("travertine", 0, 10).getCollection())
+                .singleElement()
+                .satisfies(productDto -> {
+                    assertThat(productDto.getQuantity()).isZero();
+                    assertThat(productDto.getPriceUnit()).isEqualTo(10.0);
+                });
+    }
+
+    @Test
+    void search_returnsEmptyPageForBlankQuery() {
+        assertThat(productSearchService.search("  ", 0, 10).getCollection()).isEmpty();
+    }
+
+    private ProductDto saveProduct(String sku, String title) {
+        Integer categoryId = categoryRepository.save(Category.builder()
+                .categoryTitle("Stonework")
+                .build()).getCategoryId();
+        return productService.save(ProductDto.builder()
+                .sku(sku)
+                .productTitle(title)
+                .priceUnit(10.0)
+                .quantity(1)
+                .categoryDto(CategoryDto.builder()
+                        .categoryId(categoryId)
+                        .build())
+                .build());
+    }
+
+}
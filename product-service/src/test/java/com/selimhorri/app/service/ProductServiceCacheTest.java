@@ -0,0 +1,135 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.repository.ProductRepository;
+
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@ActiveProfiles("test")
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void findById_servesRepeatedLookupsFromCache() {
+        given(productRepository.findById(1)).willReturn(Optional.of(buildProduct(1, "Product 1")));
+
+        productService.findById(1);
+        ProductDto result = productService.findById(1);
+
+        assertThat(result.getProductTitle()).isEqualTo("Product 1");
+        verify(productRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void update_evictsCachedProduct() {
+        given(productRepository.findById(1))
+                .willReturn(Optional.of(buildProduct(1, "Product 1")), Optional.of(buildProduct(1, "Updated")));
+        given(productRepository.save(any(Product.class))).willReturn(buildProduct(1, "Updated"));
+
+        productService.findById(1);
+        productService.update(ProductDto.builder()
+                .productId(1)
+                .productTitle("Updated")
+                .version(0)
+                .categoryDto(CategoryDto.builder().categoryId(10).build())
+                .build());
+        ProductDto result = productService.findById(1);
+
+        assertThat(result.getProductTitle()).isEqualTo("Updated");
+        verify(productRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void deleteById_evictsCachedProduct() {
+        given(productRepository.findById(1)).willReturn(Optional.of(buildProduct(1, "Product 1")));
+
+        productService.findById(1);
+        productService.deleteById(1);
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1)).isNull();
+    }
+
+    @Test
+    void update_evictsOnlyOnceTheTransactionCommits() {
+        given(productRepository.findById(1)).willReturn(Optional.of(buildProduct(1, "Product 1")));
+        given(productRepository.save(any(Product.class))).willReturn(buildProduct(1, "Updated"));
+        productService.findById(1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.update(ProductDto.builder()
+                    .productId(1)
+                    .productTitle("Updated")
+                    .version(0)
+                    .categoryDto(CategoryDto.builder().categoryId(10).build())
+                    .build());
+            // una lectura concurrente aun veria la fila anterior, la cache no debe vaciarse todavia
+            assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1)).isNotNull();
+        });
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1)).isNull();
+    }
+
+    @Test
+    void categoryUpdate_evictsCachedProductsOfTheCategory() {
+        CategoryDto category = categoryService.save(CategoryDto.builder()
+                .categoryTitle("Cached category")
+                .build());
+        given(productRepository.findById(1)).willReturn(Optional.of(buildProduct(1, "Product 1")));
+        given(productRepository.findProductIdsByCategoryId(category.getCategoryId())).willReturn(List.of(1));
+        productService.findById(1);
+
+        category.setCategoryTitle("Renamed category");
+        categoryService.update(category);
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1)).isNull();
+    }
+
+    private Product buildProduct(Integer id, String title) {
+        return Product.builder()
+                .productId(id)
+                .productTitle(title)
+                .category(Category.builder().categoryId(10).categoryTitle("Category 1").build())
+                .build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.selimhorri.app.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.util.Arrays;
@@ -15,13 +18,18 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductVersionRequiredException;
 import com.selimhorri.app.repository.ProductRepository;
 
 @SpringBootTest
@@ -66,6 +74,57 @@ class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    void findAllPageable_returnsPageWithMetadata() {
+        Category category = Category.builder().categoryId(10).categoryTitle("Category 1").build();
+        Product product1 = Product.builder().productId(1).productTitle("Product 1").category(category).build();
+        Product product2 = Product.builder().productId(2).productTitle("Product 2").category(category).build();
+        Pageable pageable = PageRequest.of(0, 2);
+
+        given(productRepository.findAll(pageable))
+                .willReturn(new PageImpl<>(Arrays.asList(product1, product2), pageable, 5));
+
+        DtoPageResponse<ProductDto> result = productService.findAll(pageable);
+
+        assertThat(result.getCollection())
+                .extracting(ProductDto::getProductId)
+                .containsExactly(1, 2);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void findAllAfter_returnsNextCursorWhenMoreRowsExist() {
+        Category category = Category.builder().categoryId(10).categoryTitle("Category 1").build();
+        Product product3 = Product.builder().productId(3).productTitle("Product 3").category(category).build();
+        Product product4 = Product.builder().productId(4).productTitle("Product 4").category(category).build();
+        Product product5 = Product.builder().productId(5).productTitle("Product 5").category(category).build();
+
+        given(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(eq(2), any(Pageable.class)))
+                .willReturn(Arrays.asList(product3, product4, product5));
+
+        DtoPageResponse<ProductDto> result = productService.findAllAfter(2, 2);
+
+        assertThat(result.getCollection())
+                .extracting(ProductDto::getProductId)
+                .containsExactly(3, 4);
+        assertThat(result.getNextCursor()).isEqualTo(4);
+    }
+
+    @Test
+    void findAllAfter_omitsNextCursorOnLastPage() {
+        Category category = Category.builder().categoryId(10).categoryTitle("Category 1").build();
+        Product product3 = Product.builder().productId(3).productTitle("Product 3").category(category).build();
+
+        given(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(eq(2), any(Pageable.class)))
+                .willReturn(List.of(product3));
+
+        DtoPageResponse<ProductDto> result = productService.findAllAfter(2, 2);
+
+        assertThat(result.getCollection()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
     @Test
     void findById_returnsProductWhenExists() {
         Integer id = 1;
@@ -161,6 +220,7 @@ class ProductServiceTest {
                 .sku("SKU-1")
                 .priceUnit(150.0)
                 .quantity(10)
+                .version(0)
                 .categoryDto(categoryDto)
                 .build();
 
@@ -210,6 +270,7 @@ class ProductServiceTest {
                 .priceUnit(50.0)
                 .quantity(3)
                 .category(category)
+                .version(0)
                 .build();
 
         given(productRepository.findById(id)).willReturn(Optional.of(existing));
@@ -227,6 +288,19 @@ class ProductServiceTest {
         verify(productRepository).save(org.mockito.ArgumentMatchers.any(Product.class));
     }
 
+    @Test
+    void update_withoutVersion_isRefused() {
+        ProductDto toUpdate = ProductDto.builder()
+                .productId(1)
+                .productTitle("Blind write")
+                .categoryDto(CategoryDto.builder().categoryId(10).build())
+                .build();
+
+        assertThrows(ProductVersionRequiredException.class, () -> productService.update(toUpdate));
+
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
     @Test
     void update_withId_throwsExceptionWhenProductDoesNotExist() {
         Integer id = 99;
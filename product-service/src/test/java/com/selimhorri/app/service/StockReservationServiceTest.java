@@ -0,0 +1,205 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.StockReservation.ReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationItemDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.StockReservationStateException;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationServiceTest {
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reserve_neverOversellsUnderContention() throws Exception {
+        String sku = saveProduct(100);
+
+        Outcome outcome = runConcurrently(500, () -> stockReservationService.reserve(reservation(item(sku, 1))));
+
+        assertThat(outcome.errors.get()).isZero();
+        assertThat(outcome.reserved.get()).isEqualTo(100);
+        assertThat(outcome.rejected.get()).isEqualTo(400);
+        assertThat(quantityOf(sku)).isZero();
+    }
+
+    @Test
+    void reserve_takesAllItemsOrNoneUnderContention() throws Exception {
+        String first = saveProduct(60);
+        String second = saveProduct(25);
+
+        Outcome outcome = runConcurrently(300, () -> stockReservationService.reserve(
+                reservation(item(first, 2), item(second, 1))));
+
+        assertThat(outcome.errors.get()).isZero();
+        assertThat(outcome.reserved.get()).isEqualTo(25);
+        assertThat(quantityOf(first)).isEqualTo(10);
+        assertThat(quantityOf(second)).isZero();
+    }
+
+    @Test
+    void release_restoresStockOnceUnderContention() throws Exception {
+        String sku = saveProduct(10);
+        String reservationId = stockReservationService.reserve(reservation(item(sku, 4))).getReservationId();
+
+        Outcome outcome = runConcurrently(THREADS, () -> stockReservationService.release(reservationId));
+
+        assertThat(outcome.errors.get()).isZero();
+        assertThat(quantityOf(sku)).isEqualTo(10);
+        assertThat(stockReservationService.findById(reservationId).getReservationStatus())
+                .isEqualTo(ReservationStatus.RELEASED);
+    }
+
+    @Test
+    void commit_keepsStockTakenAndBlocksRelease() {
+        String sku = saveProduct(10);
+        String reservationId = stockReservationService.reserve(reservation(item(sku, 3), item(sku, 2)))
+                .getReservationId();
+
+        StockReservationDto committed = stockReservationService.commit(reservationId);
+
+        assertThat(committed.getReservationStatus()).isEqualTo(ReservationStatus.COMMITTED);
+        assertThat(committed.getItems()).extracting(StockReservationItemDto::getQuantity).containsExactly(5);
+        assertThat(stockReservationService.commit(reservationId).getReservationStatus())
+                .isEqualTo(ReservationStatus.COMMITTED);
+        assertThrows(StockReservationStateException.class, () -> stockReservationService.release(reservationId));
+        assertThat(quantityOf(sku)).isEqualTo(5);
+    }
+
+    @Test
+    void reserve_isIdempotentOnClientReservationId() {
+        String sku = saveProduct(10);
+        StockReservationDto request = reservation(item(sku, 4));
+        request.setReservationId(UUID.randomUUID().toString());
+
+        stockReservationService.reserve(request);
+        stockReservationService.reserve(request);
+
+        assertThat(quantityOf(sku)).isEqualTo(6);
+    }
+
+    @Test
+    void reserve_isReflectedInSearchResults() {
+        String sku = saveProduct(10);
+        productSearchService.reindexSkus(List.of(sku));
+
+        stockReservationService.reserve(reservation(item(sku, 4)));
+
+        assertThat(productSearchService.search(sku, 0, 10).getCollection())
+                .singleElement()
+                .satisfies(productDto -> assertThat(productDto.getQuantity()).isEqualTo(6));
+    }
+
+    private Outcome runConcurrently(int tasks, Callable<StockReservationDto> task) throws Exception {
+        Outcome outcome = new Outcome();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    task.call();
+                    outcome.reserved.incrementAndGet();
+                }
+                catch (InsufficientStockException e) {
+                    outcome.rejected.incrementAndGet();
+                }
+                catch (Exception e) {
+                    outcome.errors.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+        return outcome;
+    }
+
+    private String saveProduct(int quantity) {
+        Category category = categoryRepository.save(Category.builder()
+                .categoryTitle("Stock")
+                .build());
+        return productRepository.save(Product.builder()
+                .productTitle("Stock product")
+                .sku("STOCK-" + UUID.randomUUID())
+                .priceUnit(1.0)
+                .quantity(quantity)
+                .category(category)
+                .build()).getSku();
+    }
+
+    private int quantityOf(String sku) {
+        return productRepository.findBySkuIn(List.of(sku)).get(0).getQuantity();
+    }
+
+    private static StockReservationItemDto item(String sku, int quantity) {
+        return StockReservationItemDto.builder()
+                .sku(sku)
+                .quantity(quantity)
+                .build();
+    }
+
+    private static StockReservationDto reservation(StockReservationItemDto... items) {
+        return StockReservationDto.builder()
+                .items(List.of(items))
+                .build();
+    }
+
+    private static class Outcome {
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+    }
+
+}
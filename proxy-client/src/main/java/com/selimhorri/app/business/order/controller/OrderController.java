@@ -11,12 +11,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.selimhorri.app.business.order.model.CheckoutDto;
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
 import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
@@ -42,10 +46,11 @@ public class OrderController {
 	
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL!") 
 			@Valid final OrderDto orderDto) {
-		return ResponseEntity.ok(this.orderClientService.save(orderDto).getBody());
+		return ResponseEntity.ok(this.orderClientService.save(idempotencyKey, orderDto).getBody());
 	}
 	
 	@PutMapping
@@ -73,6 +78,30 @@ public class OrderController {
 		return ResponseEntity.ok(true);
 	}
 	
+	@PostMapping("/checkout")
+	public ResponseEntity<CheckoutDto> checkout(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final CheckoutDto checkoutDto) {
+		final CheckoutDto accepted = this.orderClientService.checkout(idempotencyKey, checkoutDto).getBody();
+		// the location order-service answers with names its own host, clients poll through here
+		return ResponseEntity.accepted()
+				.location(ServletUriComponentsBuilder.fromCurrentRequest()
+						.path("/{checkoutId}")
+						.buildAndExpand(accepted.getCheckoutId())
+						.toUri())
+				.body(accepted);
+	}
+	
+	@GetMapping("/checkout/{checkoutId}")
+	public ResponseEntity<CheckoutDto> findCheckoutById(
+			@PathVariable("checkoutId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String checkoutId) {
+		return ResponseEntity.ok(this.orderClientService.findCheckoutById(checkoutId).getBody());
+	}
+	
 	
 	
 }
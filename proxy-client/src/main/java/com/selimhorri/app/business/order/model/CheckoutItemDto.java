@@ -0,0 +1,38 @@
+package com.selimhorri.app.business.order.model;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CheckoutItemDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotNull(message = "Product id must not be NULL")
+	private Integer productId;
+	
+	@NotNull(message = "Ordered quantity must not be NULL")
+	@Positive(message = "Ordered quantity must be positive")
+	private Integer orderedQuantity;
+	
+}
+
+
+
+
+
+
+
+
+
+
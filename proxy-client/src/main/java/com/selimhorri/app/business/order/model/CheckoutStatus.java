@@ -0,0 +1,17 @@
+package com.selimhorri.app.business.order.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public enum CheckoutStatus {
+	
+	PAYMENT_PENDING("payment_pending"),
+	SHIPPING_PENDING("shipping_pending"),
+	COMPLETED("completed"),
+	FAILED("failed");
+	
+	private final String status;
+	
+}
@@ -12,9 +12,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
+import com.selimhorri.app.business.order.model.CheckoutDto;
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.constant.AppConstant;
 
 @FeignClient(name = "ORDER-SERVICE", contextId = "orderClientService", path = "/order-service/api/orders")
 public interface OrderClientService {
@@ -30,6 +33,7 @@ public interface OrderClientService {
 	
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL!") 
 			@Valid final OrderDto orderDto);
@@ -52,6 +56,19 @@ public interface OrderClientService {
 	@DeleteMapping("/{orderId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("orderId") final String orderId);
 	
+	@PostMapping("/checkout")
+	public ResponseEntity<CheckoutDto> checkout(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final CheckoutDto checkoutDto);
+	
+	@GetMapping("/checkout/{checkoutId}")
+	public ResponseEntity<CheckoutDto> findCheckoutById(
+			@PathVariable("checkoutId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String checkoutId);
+	
 }
 
 
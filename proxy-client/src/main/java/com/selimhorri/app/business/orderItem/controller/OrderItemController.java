@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -14,6 +15,7 @@ import com.selimhorri.app.business.orderItem.model.OrderItemDto;
 import com.selimhorri.app.business.orderItem.model.OrderItemId;
 import com.selimhorri.app.business.orderItem.model.response.OrderItemOrderItemServiceDtoCollectionResponse;
 import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
@@ -43,8 +45,10 @@ public class OrderItemController {
 	}
 	
 	@PostMapping
-	public ResponseEntity<OrderItemDto> save(@RequestBody final OrderItemDto orderItemDto) {
-		return ResponseEntity.ok(this.orderItemClientService.save(orderItemDto).getBody());
+	public ResponseEntity<OrderItemDto> save(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+			@RequestBody final OrderItemDto orderItemDto) {
+		return ResponseEntity.ok(this.orderItemClientService.save(idempotencyKey, orderItemDto).getBody());
 	}
 	
 	@PutMapping
@@ -7,12 +7,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.payment.model.PaymentDto;
 import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
 import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,8 +36,10 @@ public class PaymentController {
 	}
 	
 	@PostMapping
-	public ResponseEntity<PaymentDto> save(@RequestBody final PaymentDto paymentDto) {
-		return ResponseEntity.ok(this.paymentClientService.save(paymentDto).getBody());
+	public ResponseEntity<PaymentDto> save(
+			@RequestHeader(name = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+			@RequestBody final PaymentDto paymentDto) {
+		return ResponseEntity.ok(this.paymentClientService.save(idempotencyKey, paymentDto).getBody());
 	}
 	
 	@PutMapping
@@ -1,5 +1,9 @@
 package com.selimhorri.app.business.user.controller;
 
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.selimhorri.app.business.user.model.CredentialDto;
 import com.selimhorri.app.business.user.model.response.CredentialUserServiceCollectionDtoResponse;
 import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.cache.PrincipalCache;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class CredentialController {
 	
 	private final CredentialClientService credentialClientService;
+	private final PrincipalCache principalCache;
 	
 	@GetMapping
 	public ResponseEntity<CredentialUserServiceCollectionDtoResponse> findAll() {
@@ -45,17 +51,48 @@ public class CredentialController {
 	
 	@PutMapping
 	public ResponseEntity<CredentialDto> update(@RequestBody final CredentialDto credentialDto) {
-		return ResponseEntity.ok(this.credentialClientService.update(credentialDto).getBody());
+		final String storedUsername = this.storedUsername(credentialDto.getCredentialId());
+		final CredentialDto updated = this.credentialClientService.update(credentialDto).getBody();
+		this.evict(storedUsername, credentialDto.getUsername());
+		return ResponseEntity.ok(updated);
 	}
 	
 	@PutMapping("/{credentialId}")
 	public ResponseEntity<CredentialDto> update(@PathVariable("credentialId") final String credentialId, @RequestBody final CredentialDto credentialDto) {
-		return ResponseEntity.ok(this.credentialClientService.update(credentialDto).getBody());
+		final String storedUsername = this.storedUsername(credentialId);
+		final CredentialDto updated = this.credentialClientService.update(credentialDto).getBody();
+		this.evict(storedUsername, credentialDto.getUsername());
+		return ResponseEntity.ok(updated);
 	}
 	
 	@DeleteMapping("/{credentialId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("credentialId") final String credentialId) {
-		return ResponseEntity.ok(this.credentialClientService.deleteById(credentialId).getBody());
+		final Boolean deleted = this.credentialClientService.deleteById(credentialId).getBody();
+		this.principalCache.evictAll();
+		return ResponseEntity.ok(deleted);
+	}
+	
+	/**
+	 * The username the credential is stored under, so a rename evicts the principal
+	 * cached under the old one.
+	 */
+	private String storedUsername(final Object credentialId) {
+		if (credentialId == null)
+			return null;
+		return Optional.ofNullable(this.credentialClientService.findById(String.valueOf(credentialId)).getBody())
+				.map(CredentialDto::getUsername)
+				.orElse(null);
+	}
+	
+	/**
+	 * Runs once the update went through, so a read racing it can not cache the old
+	 * principal again.
+	 */
+	private void evict(final String... usernames) {
+		Stream.of(usernames)
+				.filter(Objects::nonNull)
+				.distinct()
+				.forEach(this.principalCache::evict);
 	}
 	
 	
@@ -0,0 +1,43 @@
+package com.selimhorri.app.config.feign;
+
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.constant.AppConstant;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Tells the downstream services who the request is made for, so they can scope what
+ * they keep per caller, idempotency keys among others. Any value the client sent is
+ * replaced, only the authenticated user is passed on.
+ */
+@Component
+public class PrincipalRequestInterceptor implements RequestInterceptor {
+	
+	@Override
+	public void apply(final RequestTemplate requestTemplate) {
+		requestTemplate.removeHeader(AppConstant.PRINCIPAL_HEADER);
+		Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+				.filter(Authentication::isAuthenticated)
+				.map(Authentication::getName)
+				.ifPresent(name -> requestTemplate.header(AppConstant.PRINCIPAL_HEADER, name));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
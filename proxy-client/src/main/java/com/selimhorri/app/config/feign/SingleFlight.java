@@ -0,0 +1,128 @@
+package com.selimhorri.app.config.feign;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces identical concurrent calls: the first caller for a key (the leader) runs
+ * the call, callers arriving while it is in flight wait for and share its outcome.
+ * Nothing is kept once the call completes, so this is not a cache.
+ *
+ * Followers never get the leader's result itself. If any joined, the leader copies it
+ * once for them and each follower gets its own copy of that, so callers may mutate
+ * what they got. A follower waits at most followerTimeout, like its own read would.
+ */
+public class SingleFlight {
+
+	private final ConcurrentMap<Object, Flight> inFlight = new ConcurrentHashMap<>();
+	private final Duration followerTimeout;
+
+	public SingleFlight(final Duration followerTimeout) {
+		this.followerTimeout = followerTimeout;
+	}
+
+	public Object execute(final Object key, final Call call, final UnaryOperator<Object> copy, final Listener listener) throws Throwable {
+		final Flight flight = new Flight();
+		final Flight existing = this.inFlight.putIfAbsent(key, flight);
+
+		if (existing != null && existing.join()) {
+			listener.onCoalesced();
+			try {
+				return copy.apply(existing.result.get(this.followerTimeout.toMillis(), TimeUnit.MILLISECONDS));
+			}
+			catch (ExecutionException e) {
+				throw e.getCause();
+			}
+			catch (TimeoutException e) {
+				throw new UncheckedIOException(new SocketTimeoutException("Timed out waiting for in-flight call " + key));
+			}
+		}
+
+		listener.onLeader();
+		// the flight of someone else that already handed its result out, run on our own
+		if (existing != null)
+			return call.proceed();
+
+		final Object result;
+		try {
+			result = call.proceed();
+		}
+		catch (Throwable e) {
+			this.land(key, flight);
+			flight.result.completeExceptionally(e);
+			throw e;
+		}
+
+		if (this.land(key, flight)) {
+			try {
+				flight.result.complete(copy.apply(result));
+			}
+			catch (RuntimeException e) {
+				flight.result.completeExceptionally(e);
+			}
+		}
+		return result;
+	}
+
+	public int inFlight() {
+		return this.inFlight.size();
+	}
+
+	/**
+	 * Closes the flight to new followers and tells whether any joined it.
+	 */
+	private boolean land(final Object key, final Flight flight) {
+		this.inFlight.remove(key, flight);
+		return flight.close();
+	}
+
+	@FunctionalInterface
+	public interface Call {
+		Object proceed() throws Throwable;
+	}
+
+	public interface Listener {
+		void onLeader();
+		void onCoalesced();
+	}
+
+	private static final class Flight {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+		private int followers;
+		private boolean closed;
+
+		synchronized boolean join() {
+			if (this.closed)
+				return false;
+			this.followers++;
+			return true;
+		}
+
+		synchronized boolean close() {
+			this.closed = true;
+			return this.followers > 0;
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,173 @@
+package com.selimhorri.app.config.feign;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.product.service.CategoryClientService;
+import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.business.user.service.UserClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps the read-heavy Feign clients so that identical concurrent GET lookups (same
+ * method, same arguments) share one downstream request. Non-GET methods go straight
+ * to the Feign client. Followers get a JSON round-trip copy of the response body and
+ * wait no longer than the Feign read timeout. Emits
+ * feign.singleflight.calls{client,outcome=leader|coalesced}; coalesced / (leader +
+ * coalesced) is the coalescing ratio.
+ */
+@Component
+@ConditionalOnProperty(name = "feign.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SingleFlightFeignClientPostProcessor implements BeanPostProcessor {
+
+	private static final Set<Class<?>> COALESCED_CLIENTS = Set.of(
+			ProductClientService.class,
+			CategoryClientService.class,
+			UserClientService.class);
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+	private final ObjectProvider<ObjectMapper> objectMapper;
+	private final Duration readTimeout;
+
+	public SingleFlightFeignClientPostProcessor(
+			final ObjectProvider<MeterRegistry> meterRegistry,
+			final ObjectProvider<ObjectMapper> objectMapper,
+			@Value("${feign.client.config.default.read-timeout:60000}") final long readTimeoutMillis) {
+		this.meterRegistry = meterRegistry;
+		this.objectMapper = objectMapper;
+		this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+		for (final Class<?> client : COALESCED_CLIENTS) {
+			if (client.isInstance(bean) && !isWrapped(bean)) {
+				log.info("*** Wrapping {} with single-flight coalescing *", client.getSimpleName());
+				return Proxy.newProxyInstance(client.getClassLoader(), new Class<?>[] { client },
+						new Handler(client.getSimpleName(), bean));
+			}
+		}
+		return bean;
+	}
+
+	private static boolean isWrapped(final Object bean) {
+		return Proxy.isProxyClass(bean.getClass()) && Proxy.getInvocationHandler(bean) instanceof Handler;
+	}
+
+	private final class Handler implements InvocationHandler {
+
+		private final String client;
+		private final Object delegate;
+		private final SingleFlight singleFlight = new SingleFlight(readTimeout);
+
+		private Handler(final String client, final Object delegate) {
+			this.client = client;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class || !method.isAnnotationPresent(GetMapping.class))
+				return this.invokeDelegate(method, args);
+
+			final List<Object> key = List.of(method.toGenericString(),
+					args == null ? List.of() : Arrays.asList(args));
+			return this.singleFlight.execute(key, () -> this.invokeDelegate(method, args),
+					result -> this.copy(result, method.getGenericReturnType()), new SingleFlight.Listener() {
+
+				@Override
+				public void onLeader() {
+					increment("leader");
+				}
+
+				@Override
+				public void onCoalesced() {
+					increment("coalesced");
+				}
+			});
+		}
+
+		private Object invokeDelegate(final Method method, final Object[] args) throws Throwable {
+			try {
+				return method.invoke(this.delegate, args);
+			}
+			catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * Response entities are rebuilt around a copy of their body, with their own
+		 * headers; anything else is copied whole.
+		 */
+		private Object copy(final Object result, final Type type) {
+			if (result instanceof ResponseEntity) {
+				final ResponseEntity<?> response = (ResponseEntity<?>) result;
+				final HttpHeaders headers = new HttpHeaders();
+				headers.putAll(response.getHeaders());
+				return new ResponseEntity<>(
+						this.copyValue(response.getBody(), ResolvableType.forType(type).as(ResponseEntity.class).getGeneric(0).getType()),
+						headers,
+						response.getStatusCodeValue());
+			}
+			return this.copyValue(result, type);
+		}
+
+		private Object copyValue(final Object value, final Type type) {
+			if (value == null)
+				return null;
+			final ObjectMapper mapper = objectMapper.getIfAvailable(ObjectMapper::new);
+			try {
+				final JavaType javaType = mapper.getTypeFactory().constructType(type);
+				return mapper.readValue(mapper.writeValueAsBytes(value), javaType);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void increment(final String outcome) {
+			meterRegistry.ifAvailable(registry -> registry
+					.counter("feign.singleflight.calls", "client", this.client, "outcome", outcome)
+					.increment());
+		}
+
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
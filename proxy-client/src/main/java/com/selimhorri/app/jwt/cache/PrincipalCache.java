@@ -0,0 +1,24 @@
+package com.selimhorri.app.jwt.cache;
+
+import java.util.Date;
+import java.util.function.Function;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+public interface PrincipalCache {
+
+	UserDetails get(final String username, final Date tokenExpiration, final Function<String, UserDetails> loader);
+	void evict(final String username);
+	void evictAll();
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,109 @@
+package com.selimhorri.app.jwt.cache.impl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.selimhorri.app.jwt.cache.PrincipalCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded principal cache keyed by token subject. Each entry lives for the configured
+ * ttl, or until the token it was loaded for expires, whichever comes first.
+ */
+@Component
+@Slf4j
+public class PrincipalCacheImpl implements PrincipalCache {
+	
+	private final Cache<String, CachedPrincipal> cache;
+	
+	public PrincipalCacheImpl(
+			@Value("${security.principal-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${security.principal-cache.ttl:5m}") final Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new TokenBoundExpiry(ttl.toNanos()))
+				.build();
+	}
+	
+	@Override
+	public UserDetails get(final String username, final Date tokenExpiration, final Function<String, UserDetails> loader) {
+		return this.cache.get(username, key -> {
+			log.info("**UserDetails, principal cache miss, loading user by username*\n");
+			return new CachedPrincipal(loader.apply(key), tokenExpiration.getTime());
+		}).getUserDetails();
+	}
+	
+	@Override
+	public void evict(final String username) {
+		if (username == null)
+			return;
+		log.info("**Principal cache, evict principal by username*\n");
+		this.cache.invalidate(username);
+	}
+	
+	@Override
+	public void evictAll() {
+		log.info("**Principal cache, evict all principals*\n");
+		this.cache.invalidateAll();
+	}
+	
+	@RequiredArgsConstructor
+	private static final class CachedPrincipal {
+		
+		private final UserDetails userDetails;
+		private final long tokenExpiresAtMillis;
+		
+		UserDetails getUserDetails() {
+			return this.userDetails;
+		}
+	
+	}
+	
+	@RequiredArgsConstructor
+	private static final class TokenBoundExpiry implements Expiry<String, CachedPrincipal> {
+		
+		private final long ttlNanos;
+		
+		@Override
+		public long expireAfterCreate(final String key, final CachedPrincipal value, final long currentTime) {
+			final long untilTokenExpiry = TimeUnit.MILLISECONDS
+					.toNanos(value.tokenExpiresAtMillis - System.currentTimeMillis());
+			return Math.max(0L, Math.min(this.ttlNanos, untilTokenExpiry));
+		}
+		
+		@Override
+		public long expireAfterUpdate(final String key, final CachedPrincipal value, final long currentTime, final long currentDuration) {
+			return this.expireAfterCreate(key, value, currentTime);
+		}
+		
+		@Override
+		public long expireAfterRead(final String key, final CachedPrincipal value, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
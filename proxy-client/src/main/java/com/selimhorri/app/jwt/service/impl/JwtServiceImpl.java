@@ -38,6 +38,12 @@ public class JwtServiceImpl implements JwtService {
 		return this.jwtUtil.extractClaims(token, claimsResolver);
 	}
 	
+	@Override
+	public Claims extractAllClaims(final String token) {
+		log.info("**Claims, jwt service extract all claims from given token!*");
+		return this.jwtUtil.extractAllClaims(token);
+	}
+	
 	@Override
 	public String generateToken(final UserDetails userDetails) {
 		log.info("**String, jwt service generate token from given userDetails!*");
@@ -50,6 +56,12 @@ public class JwtServiceImpl implements JwtService {
 		return this.jwtUtil.validateToken(token, userDetails);
 	}
 	
+	@Override
+	public Boolean validateToken(final Claims claims, final UserDetails userDetails) {
+		log.info("**Boolean, jwt service validate token from given claims and userDetails!*");
+		return this.jwtUtil.validateToken(claims, userDetails);
+	}
+	
 	
 	
 }
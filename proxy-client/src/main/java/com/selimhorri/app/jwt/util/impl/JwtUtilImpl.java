@@ -1,24 +1,50 @@
 package com.selimhorri.app.jwt.util.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.RequiredArgsConstructor;
 
 @Component
 public class JwtUtilImpl implements JwtUtil {
 	
 	private static final String SECRET_KEY = "secret";
 	
+	/**
+	 * Verified claims keyed by the SHA-256 of the raw token, so a token is only
+	 * signature-checked and parsed once for as long as it stays valid.
+	 */
+	private final Cache<String, Claims> verifiedTokens;
+	
+	public JwtUtilImpl(
+			@Value("${security.verified-token-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${security.verified-token-cache.ttl:5m}") final Duration ttl) {
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new ClaimsExpiry(ttl.toNanos()))
+				.build();
+	}
+	
 	@Override
 	public String extractUsername(final String token) {
 		return this.extractClaims(token, Claims::getSubject);
@@ -35,12 +61,23 @@ public class JwtUtilImpl implements JwtUtil {
 		return claimsResolver.apply(claims);
 	}
 	
-	private Claims extractAllClaims(final String token) {
+	@Override
+	public Claims extractAllClaims(final String token) {
+		return this.verifiedTokens.get(hash(token), key -> this.parseClaims(token));
+	}
+	
+	private Claims parseClaims(final String token) {
 		return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
 	}
 	
-	private Boolean isTokenExpired(final String token) {
-		return this.extractExpiration(token).before(new Date());
+	private static String hash(final String token) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256")
+					.digest(token.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 	
 	@Override
@@ -61,12 +98,42 @@ public class JwtUtilImpl implements JwtUtil {
 	
 	@Override
 	public Boolean validateToken(final String token, final UserDetails userDetails) {
-		final String username = this.extractUsername(token);
+		return this.validateToken(this.extractAllClaims(token), userDetails);
+	}
+	
+	@Override
+	public Boolean validateToken(final Claims claims, final UserDetails userDetails) {
 		return (
-			username.equals(userDetails.getUsername()) && !isTokenExpired(token)
+			claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date())
 		);
 	}
 	
+	@RequiredArgsConstructor
+	private static final class ClaimsExpiry implements Expiry<String, Claims> {
+		
+		private final long ttlNanos;
+		
+		@Override
+		public long expireAfterCreate(final String key, final Claims claims, final long currentTime) {
+			if (claims.getExpiration() == null)
+				return this.ttlNanos;
+			final long untilTokenExpiry = TimeUnit.MILLISECONDS
+					.toNanos(claims.getExpiration().getTime() - System.currentTimeMillis());
+			return Math.max(0L, Math.min(this.ttlNanos, untilTokenExpiry));
+		}
+		
+		@Override
+		public long expireAfterUpdate(final String key, final Claims claims, final long currentTime, final long currentDuration) {
+			return this.expireAfterCreate(key, claims, currentTime);
+		}
+		
+		@Override
+		public long expireAfterRead(final String key, final Claims claims, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+		
+	}
+	
 	
 	
 }
@@ -0,0 +1,86 @@
+package com.selimhorri.app.business.order.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.order.model.CheckoutDto;
+import com.selimhorri.app.business.order.model.CheckoutItemDto;
+import com.selimhorri.app.business.order.model.CheckoutStatus;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.jwt.cache.PrincipalCache;
+import com.selimhorri.app.jwt.service.JwtService;
+
+@WebMvcTest(controllers = OrderController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private OrderClientService orderClientService;
+
+    // requeridos por la configuracion de seguridad, los filtros estan desactivados
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private PrincipalCache principalCache;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void checkout_answersAcceptedWithLocationOfTheCheckout() throws Exception {
+        CheckoutDto request = CheckoutDto.builder()
+                .orderDto(OrderDto.builder().build())
+                .items(List.of(CheckoutItemDto.builder()
+                        .productId(1)
+                        .orderedQuantity(2)
+                        .build()))
+                .build();
+        given(orderClientService.checkout(eq("key-1"), any(CheckoutDto.class)))
+                .willReturn(ResponseEntity.accepted().body(CheckoutDto.builder()
+                        .checkoutId("c-1")
+                        .checkoutStatus(CheckoutStatus.PAYMENT_PENDING)
+                        .build()));
+
+        mockMvc.perform(post("/api/orders/checkout")
+                        .header(AppConstant.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/orders/checkout/c-1"))
+                .andExpect(jsonPath("$.checkoutId").value("c-1"));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.selimhorri.app.business.product.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.jwt.cache.PrincipalCache;
+import com.selimhorri.app.jwt.service.JwtService;
+
+@WebMvcTest(controllers = ProductController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductClientService productClientService;
+
+    // requeridos por la configuracion de seguridad, los filtros estan desactivados
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private PrincipalCache principalCache;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void update_forwardsVersionAndReturnsTheNewOne() throws Exception {
+        given(productClientService.update(eq("1"), any(ProductDto.class)))
+                .willReturn(ResponseEntity.ok(ProductDto.builder()
+                        .productId(1)
+                        .productTitle("Desk")
+                        .version(4)
+                        .build()));
+
+        mockMvc.perform(put("/api/products/{productId}", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":1,\"productTitle\":\"Desk\",\"version\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4));
+
+        // sin la version product-service rechaza la actualizacion con 428
+        ArgumentCaptor<ProductDto> forwarded = ArgumentCaptor.forClass(ProductDto.class);
+        verify(productClientService).update(eq("1"), forwarded.capture());
+        assertThat(forwarded.getValue().getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void update_forwardsVersionOnTheBodyOnlyUpdate() throws Exception {
+        given(productClientService.update(any(ProductDto.class)))
+                .willAnswer(invocation -> ResponseEntity.ok(invocation.getArgument(0)));
+
+        mockMvc.perform(put("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":1,\"productTitle\":\"Desk\",\"version\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(7));
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.selimhorri.app.business.user.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.cache.PrincipalCache;
+import com.selimhorri.app.jwt.service.JwtService;
+
+@WebMvcTest(controllers = CredentialController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class CredentialControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CredentialClientService credentialClientService;
+
+    @MockBean
+    private PrincipalCache principalCache;
+
+    // requeridos por la configuracion de seguridad, los filtros estan desactivados
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void update_withoutUsername_updatesAndEvictsStoredUsername() throws Exception {
+        CredentialDto request = CredentialDto.builder().credentialId(1).isEnabled(false).build();
+        given(credentialClientService.findById("1"))
+                .willReturn(ResponseEntity.ok(CredentialDto.builder().credentialId(1).username("alice").build()));
+        given(credentialClientService.update(any(CredentialDto.class)))
+                .willReturn(ResponseEntity.ok(CredentialDto.builder().credentialId(1).username("alice").build()));
+
+        mockMvc.perform(put("/api/credentials")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("alice"));
+
+        InOrder inOrder = inOrder(credentialClientService, principalCache);
+        inOrder.verify(credentialClientService).update(any(CredentialDto.class));
+        inOrder.verify(principalCache).evict("alice");
+    }
+
+    @Test
+    void update_withRename_evictsOldAndNewUsername() throws Exception {
+        CredentialDto request = CredentialDto.builder().credentialId(1).username("bob").build();
+        given(credentialClientService.findById("1"))
+                .willReturn(ResponseEntity.ok(CredentialDto.builder().credentialId(1).username("alice").build()));
+        given(credentialClientService.update(any(CredentialDto.class)))
+                .willReturn(ResponseEntity.ok(request));
+
+        mockMvc.perform(put("/api/credentials/{credentialId}", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(principalCache).evict("alice");
+        verify(principalCache).evict("bob");
+    }
+
+    @Test
+    void update_whenDownstreamFails_keepsCachedPrincipal() throws Exception {
+        CredentialDto request = CredentialDto.builder().credentialId(1).username("alice").build();
+        given(credentialClientService.findById("1")).willReturn(ResponseEntity.ok(request));
+        willThrow(new IllegalStateException("user-service down"))
+                .given(credentialClientService).update(any(CredentialDto.class));
+
+        mockMvc.perform(put("/api/credentials")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().is4xxClientError());
+
+        verify(principalCache, never()).evict(any());
+    }
+
+    @Test
+    void deleteById_evictsAfterDelete() throws Exception {
+        given(credentialClientService.deleteById("1")).willReturn(ResponseEntity.ok(true));
+
+        mockMvc.perform(delete("/api/credentials/{credentialId}", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(true));
+
+        InOrder inOrder = inOrder(credentialClientService, principalCache);
+        inOrder.verify(credentialClientService).deleteById("1");
+        inOrder.verify(principalCache).evictAll();
+    }
+}
@@ -0,0 +1,47 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.selimhorri.app.constant.AppConstant;
+
+import feign.RequestTemplate;
+
+class PrincipalRequestInterceptorTest {
+
+    private final PrincipalRequestInterceptor interceptor = new PrincipalRequestInterceptor();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void apply_replacesPrincipalSentByClientWithAuthenticatedUser() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        RequestTemplate requestTemplate = new RequestTemplate();
+        requestTemplate.header(AppConstant.PRINCIPAL_HEADER, "mallory");
+
+        interceptor.apply(requestTemplate);
+
+        assertThat(requestTemplate.headers().get(AppConstant.PRINCIPAL_HEADER)).containsExactly("alice");
+    }
+
+    @Test
+    void apply_sendsNoPrincipalWithoutAuthentication() {
+        RequestTemplate requestTemplate = new RequestTemplate();
+        requestTemplate.header(AppConstant.PRINCIPAL_HEADER, "mallory");
+
+        interceptor.apply(requestTemplate);
+
+        assertThat(requestTemplate.headers()).doesNotContainKey(AppConstant.PRINCIPAL_HEADER);
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.service.ProductClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+class SingleFlightFeignClientPostProcessorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findById_coalescedCallersGetTheirOwnProduct() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ProductClientService backend = (ProductClientService) Proxy.newProxyInstance(
+                ProductClientService.class.getClassLoader(), new Class<?>[] { ProductClientService.class },
+                (proxy, method, args) -> {
+                    calls.incrementAndGet();
+                    release.await();
+                    return ResponseEntity.ok(ProductDto.builder().productId(1).productTitle("asus").quantity(5).build());
+                });
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("objectMapper", new ObjectMapper());
+        ProductClientService client = (ProductClientService) new SingleFlightFeignClientPostProcessor(
+                beanFactory.getBeanProvider(MeterRegistry.class),
+                beanFactory.getBeanProvider(ObjectMapper.class),
+                60_000)
+                .postProcessAfterInitialization(backend, "productClientService");
+
+        Future<ResponseEntity<ProductDto>> leader = executor.submit(() -> client.findById("1"));
+        while (calls.get() == 0)
+            Thread.sleep(5);
+        Future<ResponseEntity<ProductDto>> follower = executor.submit(() -> client.findById("1"));
+        Thread.sleep(100);
+        release.countDown();
+
+        ProductDto leaderProduct = leader.get(5, TimeUnit.SECONDS).getBody();
+        ProductDto followerProduct = follower.get(5, TimeUnit.SECONDS).getBody();
+        leaderProduct.setQuantity(0);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(followerProduct).isNotSameAs(leaderProduct);
+        assertThat(followerProduct.getProductTitle()).isEqualTo("asus");
+        assertThat(followerProduct.getQuantity()).isEqualTo(5);
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final SingleFlight.Listener NO_OP = new SingleFlight.Listener() {
+
+        @Override
+        public void onLeader() {
+        }
+
+        @Override
+        public void onCoalesced() {
+        }
+    };
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_coalescesConcurrentCallsAndHandsOutCopies() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<Object> leaderResult = new ArrayList<>(List.of("product"));
+
+        Future<Object> leader = executor.submit(() -> execute("key", () -> {
+            calls.incrementAndGet();
+            release.await();
+            return leaderResult;
+        }));
+        awaitInFlight();
+        List<Future<Object>> followers = List.of(
+                executor.submit(() -> execute("key", () -> calls.incrementAndGet())),
+                executor.submit(() -> execute("key", () -> calls.incrementAndGet())));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(leaderResult);
+        for (Future<Object> follower : followers) {
+            // cada seguidor recibe su propia copia, no el objeto del lider
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(leaderResult).isNotSameAs(leaderResult);
+        }
+        assertThat(followers.get(0).get()).isNotSameAs(followers.get(1).get());
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void execute_propagatesLeaderFailureToFollowers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> execute("key", () -> {
+            release.await();
+            throw new IllegalStateException("downstream failed");
+        }));
+        awaitInFlight();
+        Future<Object> follower = executor.submit(() -> execute("key", () -> "not called"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("downstream failed");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void execute_keepsDifferentKeysSeparate() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<Object> first = executor.submit(() -> execute("product-1", () -> {
+            calls.incrementAndGet();
+            release.await();
+            return "1";
+        }));
+        awaitInFlight();
+        Object second = execute("product-2", () -> {
+            calls.incrementAndGet();
+            return "2";
+        });
+        release.countDown();
+
+        assertThat(second).isEqualTo("2");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("1");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_boundsFollowerWaitWithTimeout() throws Exception {
+        SingleFlight shortWait = new SingleFlight(Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> execute(shortWait, "key", () -> release.await(5, TimeUnit.SECONDS)));
+        while (shortWait.inFlight() == 0)
+            Thread.sleep(5);
+
+        assertThatThrownBy(() -> shortWait.execute("key", () -> "not called", copy(), NO_OP))
+                .isInstanceOf(UncheckedIOException.class);
+        release.countDown();
+    }
+
+    private Object execute(String key, SingleFlight.Call call) throws Exception {
+        return execute(singleFlight, key, call);
+    }
+
+    private static Object execute(SingleFlight singleFlight, String key, SingleFlight.Call call) throws Exception {
+        try {
+            return singleFlight.execute(key, call, copy(), NO_OP);
+        }
+        catch (Exception | Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UnaryOperator<Object> copy() {
+        return result -> result instanceof List ? new ArrayList<>((List<?>) result) : result;
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        while (singleFlight.inFlight() == 0)
+            Thread.sleep(5);
+    }
+
+}
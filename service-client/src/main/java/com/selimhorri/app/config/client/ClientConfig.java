@@ -0,0 +1,73 @@
+package com.selimhorri.app.config.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+@EnableConfigurationProperties(ClientProperties.class)
+public class ClientConfig {
+	
+	/**
+	 * Pooled client shared by every route. Connections are kept alive for as long as the
+	 * server allows, capped at {@code client.http.keep-alive}, and idle ones are evicted
+	 * once that has passed.
+	 */
+	@Bean
+	public CloseableHttpClient httpClientBean(final ClientProperties clientProperties) {
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(clientProperties.getMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(clientProperties.getMaxConnectionsPerRoute());
+		final long keepAliveMs = clientProperties.getKeepAlive().toMillis();
+		final ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			final long serverKeepAliveMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return serverKeepAliveMs > 0 ? Math.min(serverKeepAliveMs, keepAliveMs) : keepAliveMs;
+		};
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.evictExpiredConnections()
+				.evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+				.disableCookieManagement()
+				.build();
+	}
+	
+	@Bean
+	public LoadBalancedClientHttpRequestFactory clientHttpRequestFactoryBean(
+			final CloseableHttpClient httpClient,
+			final ClientProperties clientProperties,
+			final ObjectProvider<LoadBalancerClient> loadBalancerClient,
+			final ObjectProvider<DiscoveryClient> discoveryClient) {
+		return new LoadBalancedClientHttpRequestFactory(httpClient, clientProperties, 
+				loadBalancerClient.getIfAvailable(), discoveryClient.getIfAvailable());
+	}
+	
+	@Bean
+	public RestTemplate restTemplateBean(final LoadBalancedClientHttpRequestFactory clientHttpRequestFactory) {
+		return new RestTemplate(clientHttpRequestFactory);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,80 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Pool, timeouts and hedging of the outgoing HTTP client. Routes are keyed by the
+ * discovered service id, e.g. {@code client.http.routes.user-service.read-timeout};
+ * whatever a route leaves out comes from the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "client.http")
+public class ClientProperties {
+	
+	private int maxConnections = 200;
+	private int maxConnectionsPerRoute = 50;
+	private Duration keepAlive = Duration.ofSeconds(30);
+	private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+	private Duration connectTimeout = Duration.ofSeconds(2);
+	private Duration readTimeout = Duration.ofSeconds(10);
+	private Hedging hedging = new Hedging();
+	private Map<String, Route> routes = new HashMap<>();
+	
+	public Duration connectTimeout(final String serviceId) {
+		return this.route(serviceId).map(Route::getConnectTimeout).orElse(this.connectTimeout);
+	}
+	
+	public Duration readTimeout(final String serviceId) {
+		return this.route(serviceId).map(Route::getReadTimeout).orElse(this.readTimeout);
+	}
+	
+	public boolean hedged(final String serviceId) {
+		return this.route(serviceId).map(Route::getHedge).orElse(this.hedging.isEnabled());
+	}
+	
+	private Optional<Route> route(final String serviceId) {
+		return Optional.ofNullable(this.routes.get(serviceId.toLowerCase(Locale.ROOT)));
+	}
+	
+	@Data
+	public static class Route {
+		private Duration connectTimeout;
+		private Duration readTimeout;
+		private Boolean hedge;
+	}
+	
+	/**
+	 * A hedged GET sends a second request to another instance once the first has been
+	 * waiting for the route's {@code percentile} latency, kept within the delay bounds.
+	 * Routes hedge only after {@code minSamples} requests, so the delay is known.
+	 */
+	@Data
+	public static class Hedging {
+		private boolean enabled = false;
+		private double percentile = 0.95;
+		private Duration minDelay = Duration.ofMillis(10);
+		private Duration maxDelay = Duration.ofSeconds(1);
+		private int windowSize = 256;
+		private int minSamples = 20;
+		private int poolSize = 32;
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,51 @@
+package com.selimhorri.app.config.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The latest latencies of one route, overwritten in a ring, from which a percentile is
+ * read on demand.
+ */
+public final class LatencyWindow {
+	
+	private final AtomicLongArray latencies;
+	private final AtomicLong recorded = new AtomicLong();
+	
+	public LatencyWindow(final int size) {
+		this.latencies = new AtomicLongArray(size);
+	}
+	
+	public void record(final long nanos) {
+		this.latencies.set((int) (this.recorded.getAndIncrement() % this.latencies.length()), nanos);
+	}
+	
+	public long samples() {
+		return Math.min(this.recorded.get(), this.latencies.length());
+	}
+	
+	public long percentile(final double percentile) {
+		final int samples = (int) this.samples();
+		if (samples == 0)
+			return 0;
+		final long[] sorted = new long[samples];
+		for (int i = 0; i < samples; i++)
+			sorted[i] = this.latencies.get(i);
+		Arrays.sort(sorted);
+		return sorted[Math.max(0, Math.min(samples - 1, (int) Math.ceil(percentile * samples) - 1))];
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
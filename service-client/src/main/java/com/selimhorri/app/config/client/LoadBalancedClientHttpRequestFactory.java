@@ -0,0 +1,363 @@
+package com.selimhorri.app.config.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends requests for {@code http://SERVICE-ID/...} to an instance picked by the load
+ * balancer, over one pooled client with the connect and read timeouts of that route.
+ * <p>
+ * GETs to a hedged route that outlast the route's percentile latency are sent again to
+ * another instance, and whichever response comes first wins; the other request is
+ * aborted, which frees its connection and hedging thread at once. Only GETs are hedged,
+ * as only they are safe to send twice.
+ * <p>
+ * Every GET attempt is timed, whether it got a response, failed, timed out or was
+ * aborted, so a slow or failing instance keeps pulling the percentile up instead of
+ * dropping out of it; an aborted attempt counts with the time it ran.
+ */
+@Slf4j
+public class LoadBalancedClientHttpRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+	
+	private final HttpClient httpClient;
+	private final ClientProperties clientProperties;
+	private final LoadBalancerClient loadBalancerClient;
+	private final DiscoveryClient discoveryClient;
+	private final ThreadPoolExecutor hedgingExecutor;
+	private final Map<String, RouteRequestFactory> routeFactories = new ConcurrentHashMap<>();
+	private final Map<String, LatencyWindow> latencyWindows = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param loadBalancerClient {@code null} to send requests to the URI as given
+	 * @param discoveryClient {@code null} to never hedge
+	 */
+	public LoadBalancedClientHttpRequestFactory(
+			final HttpClient httpClient,
+			final ClientProperties clientProperties,
+			final LoadBalancerClient loadBalancerClient,
+			final DiscoveryClient discoveryClient) {
+		this.httpClient = httpClient;
+		this.clientProperties = clientProperties;
+		this.loadBalancerClient = loadBalancerClient;
+		this.discoveryClient = discoveryClient;
+		final int poolSize = clientProperties.getHedging().getPoolSize();
+		// no queue: a request the pool cannot take right away is sent without hedging
+		this.hedgingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, 
+				new SynchronousQueue<>(), new CustomizableThreadFactory("client-hedge-"), 
+				new ThreadPoolExecutor.AbortPolicy());
+		this.hedgingExecutor.allowCoreThreadTimeOut(true);
+	}
+	
+	@Override
+	public ClientHttpRequest createRequest(final URI uri, final HttpMethod httpMethod) {
+		return new LoadBalancedClientHttpRequest(uri, httpMethod);
+	}
+	
+	@Override
+	public void destroy() {
+		this.hedgingExecutor.shutdownNow();
+	}
+	
+	private ClientHttpResponse execute(final URI uri, final HttpMethod httpMethod, final HttpHeaders headers, 
+			final byte[] body) throws IOException {
+		final String serviceId = uri.getHost();
+		if (this.loadBalancerClient == null)
+			return this.timed(serviceId, uri, httpMethod, headers, body, null);
+		
+		final ServiceInstance primary = this.choose(serviceId);
+		final URI primaryUri = this.loadBalancerClient.reconstructURI(primary, uri);
+		if (httpMethod != HttpMethod.GET || this.discoveryClient == null || !this.clientProperties.hedged(serviceId))
+			return this.timed(serviceId, primaryUri, httpMethod, headers, body, null);
+		
+		final LatencyWindow latencyWindow = this.latencyWindow(serviceId);
+		final ClientProperties.Hedging hedging = this.clientProperties.getHedging();
+		if (latencyWindow.samples() < hedging.getMinSamples())
+			return this.timed(serviceId, primaryUri, httpMethod, headers, body, null);
+		final long delayNanos = Math.max(hedging.getMinDelay().toNanos(), 
+				Math.min(hedging.getMaxDelay().toNanos(), latencyWindow.percentile(hedging.getPercentile())));
+		
+		final Attempt first;
+		try {
+			first = this.sendAsync(serviceId, primaryUri, httpMethod, headers, body);
+		}
+		catch (RejectedExecutionException e) {
+			return this.timed(serviceId, primaryUri, httpMethod, headers, body, null);
+		}
+		try {
+			return first.response.get(delayNanos, TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			final List<ServiceInstance> others = this.discoveryClient.getInstances(serviceId).stream()
+					.filter(instance -> !sameInstance(instance, primary))
+					.collect(Collectors.toUnmodifiableList());
+			if (others.isEmpty())
+				return await(first.response);
+			final URI hedgeUri = this.loadBalancerClient.reconstructURI(
+					others.get(ThreadLocalRandom.current().nextInt(others.size())), uri);
+			try {
+				final Attempt second = this.sendAsync(serviceId, hedgeUri, httpMethod, headers, body);
+				log.debug("*** ClientHttpResponse, client; hedged GET {} to {} *", uri, hedgeUri);
+				return await(firstResponse(first, second));
+			}
+			catch (RejectedExecutionException rejected) {
+				return await(first.response);
+			}
+		}
+		catch (ExecutionException e) {
+			return await(first.response);
+		}
+		catch (InterruptedException e) {
+			first.abort();
+			throw interrupted(first.response);
+		}
+	}
+	
+	private ServiceInstance choose(final String serviceId) {
+		final ServiceInstance serviceInstance = this.loadBalancerClient.choose(serviceId);
+		if (serviceInstance == null)
+			throw new IllegalStateException("No instances available for " + serviceId);
+		return serviceInstance;
+	}
+	
+	private Attempt sendAsync(final String serviceId, final URI uri, final HttpMethod httpMethod, 
+			final HttpHeaders headers, final byte[] body) {
+		final Attempt attempt = new Attempt();
+		attempt.response = CompletableFuture.supplyAsync(() -> {
+			try {
+				return this.timed(serviceId, uri, httpMethod, headers, body, attempt);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, this.hedgingExecutor);
+		return attempt;
+	}
+	
+	private ClientHttpResponse timed(final String serviceId, final URI uri, final HttpMethod httpMethod, 
+			final HttpHeaders headers, final byte[] body, final Attempt attempt) throws IOException {
+		final long start = System.nanoTime();
+		try {
+			return this.send(serviceId, uri, httpMethod, headers, body, attempt);
+		}
+		finally {
+			if (httpMethod == HttpMethod.GET)
+				this.latencyWindow(serviceId).record(System.nanoTime() - start);
+		}
+	}
+	
+	private ClientHttpResponse send(final String serviceId, final URI uri, final HttpMethod httpMethod, 
+			final HttpHeaders headers, final byte[] body, final Attempt attempt) throws IOException {
+		final ClientHttpRequest request = this.routeFactory(serviceId).createRequest(uri, httpMethod, attempt);
+		request.getHeaders().putAll(headers);
+		if (body.length > 0)
+			request.getBody().write(body);
+		return request.execute();
+	}
+	
+	private RouteRequestFactory routeFactory(final String serviceId) {
+		return this.routeFactories.computeIfAbsent(serviceId.toLowerCase(Locale.ROOT), route -> {
+			final RouteRequestFactory factory = new RouteRequestFactory(this.httpClient);
+			factory.setConnectionRequestTimeout((int) this.clientProperties.getConnectionRequestTimeout().toMillis());
+			factory.setConnectTimeout((int) this.clientProperties.connectTimeout(route).toMillis());
+			factory.setReadTimeout((int) this.clientProperties.readTimeout(route).toMillis());
+			return factory;
+		});
+	}
+	
+	private LatencyWindow latencyWindow(final String serviceId) {
+		return this.latencyWindows.computeIfAbsent(serviceId.toLowerCase(Locale.ROOT), 
+				route -> new LatencyWindow(this.clientProperties.getHedging().getWindowSize()));
+	}
+	
+	/**
+	 * Completes with the first response and aborts the other request; fails only once
+	 * both requests failed, with the failure of the first one.
+	 */
+	private static CompletableFuture<ClientHttpResponse> firstResponse(final Attempt first, final Attempt second) {
+		final CompletableFuture<ClientHttpResponse> winner = new CompletableFuture<>();
+		final AtomicInteger failures = new AtomicInteger();
+		for (final Attempt attempt : List.of(first, second)) {
+			final Attempt other = attempt == first ? second : first;
+			attempt.response.whenComplete((response, failure) -> {
+				if (failure == null) {
+					if (winner.complete(response))
+						other.abort();
+					else
+						response.close();
+				}
+				else if (failures.incrementAndGet() == 2)
+					first.response.whenComplete((ignored, firstFailure) -> winner.completeExceptionally(firstFailure));
+			});
+		}
+		return winner;
+	}
+	
+	private static ClientHttpResponse await(final CompletableFuture<ClientHttpResponse> future) throws IOException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			throw interrupted(future);
+		}
+		catch (ExecutionException e) {
+			final Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IOException(cause);
+		}
+	}
+	
+	private static InterruptedIOException interrupted(final CompletableFuture<ClientHttpResponse> future) {
+		Thread.currentThread().interrupt();
+		future.thenAccept(ClientHttpResponse::close);
+		return new InterruptedIOException("Interrupted while waiting for a response");
+	}
+	
+	private static boolean sameInstance(final ServiceInstance instance, final ServiceInstance other) {
+		return instance.getHost().equals(other.getHost()) && instance.getPort() == other.getPort();
+	}
+	
+	/**
+	 * One send of a hedged GET, which can be aborted before or while it is sent.
+	 */
+	private static final class Attempt {
+		
+		private CompletableFuture<ClientHttpResponse> response;
+		private HttpUriRequest request;
+		private boolean aborted;
+		
+		private synchronized void bind(final HttpUriRequest request) {
+			this.request = request;
+			if (this.aborted)
+				request.abort();
+		}
+		
+		private synchronized void abort() {
+			this.aborted = true;
+			if (this.request != null)
+				this.request.abort();
+		}
+		
+	}
+	
+	/**
+	 * The request factory of one route, which hands the requests it creates for an
+	 * attempt to that attempt, so they can be aborted.
+	 */
+	private static final class RouteRequestFactory extends HttpComponentsClientHttpRequestFactory {
+		
+		private final ThreadLocal<Attempt> attempt = new ThreadLocal<>();
+		
+		private RouteRequestFactory(final HttpClient httpClient) {
+			super(httpClient);
+		}
+		
+		private ClientHttpRequest createRequest(final URI uri, final HttpMethod httpMethod, final Attempt attempt) 
+				throws IOException {
+			if (attempt == null)
+				return this.createRequest(uri, httpMethod);
+			this.attempt.set(attempt);
+			try {
+				return this.createRequest(uri, httpMethod);
+			}
+			finally {
+				this.attempt.remove();
+			}
+		}
+		
+		@Override
+		protected void postProcessHttpRequest(final HttpUriRequest request) {
+			final Attempt current = this.attempt.get();
+			if (current != null)
+				current.bind(request);
+		}
+		
+	}
+	
+	/**
+	 * Buffers the body, so the request can be sent to more than one instance.
+	 */
+	private final class LoadBalancedClientHttpRequest extends AbstractClientHttpRequest {
+		
+		private final URI uri;
+		private final HttpMethod httpMethod;
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+		
+		private LoadBalancedClientHttpRequest(final URI uri, final HttpMethod httpMethod) {
+			this.uri = uri;
+			this.httpMethod = httpMethod;
+		}
+		
+		@Override
+		public String getMethodValue() {
+			return this.httpMethod.name();
+		}
+		
+		@Override
+		public URI getURI() {
+			return this.uri;
+		}
+		
+		@Override
+		protected OutputStream getBodyInternal(final HttpHeaders headers) {
+			return this.body;
+		}
+		
+		@Override
+		protected ClientHttpResponse executeInternal(final HttpHeaders headers) throws IOException {
+			return LoadBalancedClientHttpRequestFactory.this.execute(this.uri, this.httpMethod, headers, 
+					this.body.toByteArray());
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,101 @@
+package com.selimhorri.app.config.client;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Infrastructure of the opt-in reactive enrichment, on with
+ * {@code enrichment.reactive.enabled}: a load-balanced {@link WebClient} with the pool
+ * and timeouts of {@code client.http}, and the scheduler blocking JPA calls run on so
+ * they never hold a Netty event loop.
+ * <p>
+ * The load balancer rewrites the request to the chosen instance before it reaches
+ * Reactor Netty, so the {@code client.http.routes} entry of a connection is found by
+ * matching its address against the discovered instances of each configured route; an
+ * address no route owns is looked up by host, like a plain URI.
+ * <p>
+ * WebFlux is optional here, only services that declare it can turn the enrichment on.
+ */
+@Configuration
+@ConditionalOnClass(WebClient.class)
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+public class ReactiveClientConfig {
+	
+	@LoadBalanced
+	@Bean
+	public WebClient.Builder webClientBuilderBean(
+			final ClientProperties clientProperties,
+			final ObjectProvider<DiscoveryClient> discoveryClient,
+			@Value("${enrichment.reactive.max-in-memory-size:10485760}") final int maxInMemorySize) {
+		final HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("enrichment")
+						.maxConnections(clientProperties.getMaxConnections())
+						.maxIdleTime(clientProperties.getKeepAlive())
+						.build())
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) clientProperties.getConnectTimeout().toMillis())
+				.responseTimeout(clientProperties.getReadTimeout())
+				.doOnChannelInit((observer, channel, remoteAddress) -> {
+					final InetSocketAddress address = (InetSocketAddress) remoteAddress;
+					final String route = route(clientProperties, discoveryClient.getIfAvailable(), 
+							address.getHostString(), address.getPort());
+					channel.config().setConnectTimeoutMillis((int) clientProperties.connectTimeout(route).toMillis());
+				})
+				.doOnRequest((request, connection) -> {
+					final URI host = URI.create("http://" + request.requestHeaders().get(HttpHeaderNames.HOST));
+					final String route = route(clientProperties, discoveryClient.getIfAvailable(), 
+							host.getHost(), host.getPort() == -1 ? 80 : host.getPort());
+					request.responseTimeout(clientProperties.readTimeout(route));
+				});
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize));
+	}
+	
+	@Bean(destroyMethod = "dispose")
+	public Scheduler jpaSchedulerBean(
+			@Value("${enrichment.reactive.jpa-pool-size:16}") final int poolSize,
+			@Value("${enrichment.reactive.jpa-queue-capacity:1000}") final int queueCapacity) {
+		return Schedulers.newBoundedElastic(poolSize, queueCapacity, "jpa");
+	}
+	
+	private static String route(final ClientProperties clientProperties, final DiscoveryClient discoveryClient, 
+			final String host, final int port) {
+		if (discoveryClient == null)
+			return host;
+		return clientProperties.getRoutes().keySet().stream()
+				.filter(serviceId -> discoveryClient.getInstances(serviceId).stream()
+						.anyMatch(instance -> host.equalsIgnoreCase(instance.getHost()) && port == instance.getPort()))
+				.findFirst()
+				.orElse(host);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,229 @@
+package com.selimhorri.app.config.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class LoadBalancedClientHttpRequestFactoryTest {
+
+    private static final String SERVICE_ID = "STUB-SERVICE";
+
+    private final LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final ClientProperties clientProperties = new ClientProperties();
+    private CloseableHttpClient httpClient;
+    private LoadBalancedClientHttpRequestFactory factory;
+    private StubServer slow;
+    private StubServer fast;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        httpClient = HttpClients.createDefault();
+        slow = new StubServer("slow", 3000);
+        fast = new StubServer("fast", 0);
+        clientProperties.getHedging().setEnabled(true);
+        clientProperties.getHedging().setMinSamples(0);
+        clientProperties.getHedging().setMinDelay(Duration.ofMillis(50));
+        given(loadBalancerClient.reconstructURI(any(ServiceInstance.class), any(URI.class)))
+                .willAnswer(invocation -> UriComponentsBuilder.fromUri(invocation.getArgument(1))
+                        .host(invocation.<ServiceInstance>getArgument(0).getHost())
+                        .port(invocation.<ServiceInstance>getArgument(0).getPort())
+                        .build()
+                        .toUri());
+        given(discoveryClient.getInstances(SERVICE_ID)).willReturn(List.of(slow.instance(), fast.instance()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (factory != null)
+            factory.destroy();
+        slow.close();
+        fast.close();
+        httpClient.close();
+    }
+
+    @Test
+    void execute_hedgesSlowGetToAnotherInstanceAndAbortsTheLoser() throws Exception {
+        given(loadBalancerClient.choose(SERVICE_ID)).willReturn(slow.instance());
+        factory = new LoadBalancedClientHttpRequestFactory(httpClient, clientProperties, loadBalancerClient, discoveryClient);
+
+        long start = System.nanoTime();
+        String body = get("http://" + SERVICE_ID + "/api/stubs");
+
+        assertThat(body).isEqualTo("fast");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        // la peticion perdedora se aborta en cuanto llega la ganadora, sin esperar su respuesta
+        assertThat(slow.aborted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void execute_doesNotHedgeBeforeTheRouteHasEnoughSamples() throws Exception {
+        clientProperties.getHedging().setMinSamples(5);
+        slow.delayMs = 300;
+        given(loadBalancerClient.choose(SERVICE_ID)).willReturn(slow.instance());
+        factory = new LoadBalancedClientHttpRequestFactory(httpClient, clientProperties, loadBalancerClient, discoveryClient);
+
+        assertThat(get("http://" + SERVICE_ID + "/api/stubs")).isEqualTo("slow");
+        assertThat(fast.requests.get()).isZero();
+    }
+
+    @Test
+    void execute_countsFailedAttemptsAsSamples() throws Exception {
+        clientProperties.getHedging().setMinSamples(1);
+        ServiceInstance down = down();
+        given(loadBalancerClient.choose(SERVICE_ID)).willReturn(down, slow.instance());
+        factory = new LoadBalancedClientHttpRequestFactory(httpClient, clientProperties, loadBalancerClient, discoveryClient);
+
+        assertThrows(IOException.class, () -> get("http://" + SERVICE_ID + "/api/stubs"));
+
+        // el intento fallido ya cuenta como muestra, asi que la siguiente peticion se cubre
+        assertThat(get("http://" + SERVICE_ID + "/api/stubs")).isEqualTo("fast");
+    }
+
+    @Test
+    void execute_appliesReadTimeoutOfTheRoute() throws Exception {
+        slow.delayMs = 1000;
+        ClientProperties.Route route = new ClientProperties.Route();
+        route.setReadTimeout(Duration.ofMillis(200));
+        clientProperties.getRoutes().put("localhost", route);
+        factory = new LoadBalancedClientHttpRequestFactory(httpClient, clientProperties, null, null);
+
+        assertThrows(SocketTimeoutException.class, () -> get("http://localhost:" + slow.port() + "/api/stubs"));
+        // otra ruta se queda con el timeout por defecto
+        assertThat(get("http://127.0.0.1:" + slow.port() + "/api/stubs")).isEqualTo("slow");
+    }
+
+    private String get(String uri) throws IOException {
+        try (ClientHttpResponse response = factory.createRequest(URI.create(uri), HttpMethod.GET).execute()) {
+            return StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static ServiceInstance down() throws IOException {
+        try (ServerSocket closed = new ServerSocket(0)) {
+            return new DefaultServiceInstance("down", SERVICE_ID, "localhost", closed.getLocalPort(), false);
+        }
+    }
+
+    /**
+     * Servidor HTTP minimo que contesta tras delayMs y detecta si el cliente cierra la
+     * conexion antes.
+     */
+    private static final class StubServer implements Closeable {
+
+        private final String body;
+        private final ServerSocket serverSocket;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private volatile long delayMs;
+
+        private StubServer(String body, long delayMs) throws IOException {
+            this.body = body;
+            this.delayMs = delayMs;
+            this.serverSocket = new ServerSocket(0);
+            executor.submit(this::accept);
+        }
+
+        private ServiceInstance instance() {
+            return new DefaultServiceInstance(body, SERVICE_ID, "localhost", port(), false);
+        }
+
+        private int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private Void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    executor.submit(() -> serve(socket));
+                }
+                catch (IOException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        private Void serve(Socket socket) throws IOException {
+            try (socket) {
+                InputStream in = socket.getInputStream();
+                readHead(in);
+                requests.incrementAndGet();
+                if (delayMs > 0) {
+                    socket.setSoTimeout((int) delayMs);
+                    try {
+                        if (in.read() == -1) {
+                            aborted.countDown();
+                            return null;
+                        }
+                    }
+                    catch (SocketTimeoutException e) {
+                        // nadie cerro la conexion durante la espera
+                    }
+                    catch (IOException e) {
+                        aborted.countDown();
+                        return null;
+                    }
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 200 OK\r\nContent-Length: " + bytes.length + "\r\nConnection: close\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                out.write(bytes);
+                out.flush();
+            }
+            return null;
+        }
+
+        private static void readHead(InputStream in) throws IOException {
+            int matched = 0;
+            int b;
+            while (matched < 4 && (b = in.read()) != -1)
+                matched = (b == "\r\n\r\n".charAt(matched)) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            executor.shutdownNow();
+        }
+
+    }
+
+}
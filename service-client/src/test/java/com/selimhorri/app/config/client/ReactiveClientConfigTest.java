@@ -0,0 +1,111 @@
+package com.selimhorri.app.config.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+
+class ReactiveClientConfigTest {
+
+    private final ClientProperties clientProperties = new ClientProperties();
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/stubs", exchange -> {
+            try {
+                Thread.sleep(1000);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "slow".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void webClient_appliesReadTimeoutOfTheRoute() {
+        clientProperties.getRoutes().put("localhost", route(Duration.ofMillis(200)));
+        WebClient webClient = webClient(null);
+
+        assertThatThrownBy(() -> get(webClient, "http://localhost:" + port() + "/api/stubs"))
+                .hasCauseInstanceOf(ReadTimeoutException.class);
+        // otra ruta se queda con el timeout por defecto
+        assertThat(get(webClient, "http://127.0.0.1:" + port() + "/api/stubs")).isEqualTo("slow");
+    }
+
+    @Test
+    void webClient_findsRouteOfLoadBalancedInstanceThroughDiscovery() {
+        clientProperties.getRoutes().put("stub-service", route(Duration.ofMillis(200)));
+        given(discoveryClient.getInstances("stub-service")).willReturn(List.of(
+                new DefaultServiceInstance("stub-1", "STUB-SERVICE", "localhost", port(), false)));
+        WebClient webClient = webClient(discoveryClient);
+
+        // el balanceador ya reescribio la uri a la instancia elegida
+        assertThatThrownBy(() -> get(webClient, "http://localhost:" + port() + "/api/stubs"))
+                .hasCauseInstanceOf(ReadTimeoutException.class);
+        assertThat(get(webClient, "http://127.0.0.1:" + port() + "/api/stubs")).isEqualTo("slow");
+    }
+
+    @SuppressWarnings("unchecked")
+    private WebClient webClient(DiscoveryClient discoveryClient) {
+        ObjectProvider<DiscoveryClient> provider = mock(ObjectProvider.class);
+        given(provider.getIfAvailable()).willReturn(discoveryClient);
+        return new ReactiveClientConfig().webClientBuilderBean(clientProperties, provider, 1024 * 1024).build();
+    }
+
+    private static String get(WebClient webClient, String uri) {
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+    }
+
+    private static ClientProperties.Route route(Duration readTimeout) {
+        ClientProperties.Route route = new ClientProperties.Route();
+        route.setReadTimeout(readTimeout);
+        return route;
+    }
+
+    private int port() {
+        return server.getAddress().getPort();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.selimhorri.app.config.executor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+	
+	/**
+	 * Bounded pool used to fan out inter-service enrichment calls; once the queue
+	 * is full the caller thread runs the task itself, which throttles the fan-out.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor enrichmentExecutorBean(
+			@Value("${enrichment.executor.pool-size:8}") final int poolSize,
+			@Value("${enrichment.executor.queue-capacity:500}") final int queueCapacity) {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("enrichment-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return executor;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
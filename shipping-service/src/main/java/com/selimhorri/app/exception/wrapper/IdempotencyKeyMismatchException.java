@@ -0,0 +1,25 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public IdempotencyKeyMismatchException() {
+		super();
+	}
+	
+	public IdempotencyKeyMismatchException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public IdempotencyKeyMismatchException(String message) {
+		super(message);
+	}
+	
+	public IdempotencyKeyMismatchException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
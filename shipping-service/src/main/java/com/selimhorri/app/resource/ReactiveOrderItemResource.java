@@ -0,0 +1,62 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ReactiveOrderItemService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of the order item reads; the servlet thread is released while the
+ * order items are being enriched.
+ */
+@RestController
+@RequestMapping("/api/shippings/reactive")
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveOrderItemResource {
+	
+	private final ReactiveOrderItemService reactiveOrderItemService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<DtoCollectionResponse<OrderItemDto>>> findAll() {
+		log.info("*** OrderItemDto List, controller; fetch all orderItems reactively *");
+		return this.reactiveOrderItemService.findAll()
+				.collectList()
+				.map(orderItemDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(orderItemDtos)));
+	}
+	
+	@GetMapping("/{orderId}/{productId}")
+	public Mono<ResponseEntity<OrderItemDto>> findById(
+			@PathVariable("orderId") final String orderId, 
+			@PathVariable("productId") final String productId) {
+		log.info("*** OrderItemDto, resource; fetch orderItem by id reactively *");
+		return this.reactiveOrderItemService.findById(
+				new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId)))
+				.map(ResponseEntity::ok);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
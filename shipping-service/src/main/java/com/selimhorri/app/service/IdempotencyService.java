@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+	
+	<T> T execute(final String idempotencyKey, final String endpoint, final String principal, 
+			final Object request, final Class<T> responseType, final Supplier<T> action);
+	int purgeExpired();
+	
+}
@@ -1,6 +1,7 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
@@ -8,6 +9,7 @@ import com.selimhorri.app.dto.OrderItemDto;
 public interface OrderItemService {
 	
 	List<OrderItemDto> findAll();
+	void exportAll(final Consumer<OrderItemDto> consumer);
 	OrderItemDto findById(final OrderItemId orderItemId);
 	OrderItemDto save(final OrderItemDto orderItemDto);
 	OrderItemDto update(final OrderItemDto orderItemDto);
@@ -0,0 +1,14 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderItemDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderItemService {
+	
+	Flux<OrderItemDto> findAll();
+	Mono<OrderItemDto> findById(final OrderItemId orderItemId);
+	
+}
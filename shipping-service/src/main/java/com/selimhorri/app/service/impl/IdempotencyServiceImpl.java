@@ -0,0 +1,190 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.IdempotencyRecord;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyMismatchException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
+import com.selimhorri.app.repository.IdempotencyRecordRepository;
+import com.selimhorri.app.service.IdempotencyService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a write at most once per {@code Idempotency-Key} and answers retries with the
+ * response the first run got. A key is scoped to the endpoint and the principal it was
+ * sent to and by, so two clients picking the same key, or one client reusing a key on
+ * another endpoint, never see each other's responses. The key is claimed in the same transaction as the write,
+ * so the claim and the write commit or roll back together; a failed write leaves no
+ * key behind and may be retried. A concurrent request with the same key waits on the
+ * claim until the first one commits, then replays its response.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+	
+	private final IdempotencyRecordRepository idempotencyRecordRepository;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter objectWriter;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	
+	public IdempotencyServiceImpl(
+			final IdempotencyRecordRepository idempotencyRecordRepository,
+			final ObjectMapper objectMapper,
+			final PlatformTransactionManager transactionManager,
+			@Value("${idempotency.ttl-ms:86400000}") final long ttlMs) {
+		this.idempotencyRecordRepository = idempotencyRecordRepository;
+		this.objectMapper = objectMapper;
+		this.objectWriter = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.ttl = Duration.ofMillis(ttlMs);
+	}
+	
+	/**
+	 * Runs the action, or replays the response of an earlier run under the same key;
+	 * without a key the action simply runs.
+	 * @param principal the caller, null for an anonymous one
+	 * @throws InvalidIdempotencyKeyException when the key is longer than
+	 * {@link AppConstant#MAX_IDEMPOTENCY_KEY_LENGTH}
+	 */
+	@Override
+	public <T> T execute(final String idempotencyKey, final String endpoint, final String principal, 
+			final Object request, final Class<T> responseType, final Supplier<T> action) {
+		if (idempotencyKey == null || idempotencyKey.isBlank())
+			return action.get();
+		if (idempotencyKey.length() > AppConstant.MAX_IDEMPOTENCY_KEY_LENGTH)
+			throw new InvalidIdempotencyKeyException(String.format("Idempotency key must not exceed %d characters", 
+					AppConstant.MAX_IDEMPOTENCY_KEY_LENGTH));
+		
+		final String scopedKey = scope(idempotencyKey, endpoint, principal);
+		final String requestHash = this.hash(request);
+		final Optional<IdempotencyRecord> existing = this.find(scopedKey);
+		if (existing.isPresent() && existing.get().getExpiresAt().isAfter(Instant.now()))
+			return this.replay(existing.get(), idempotencyKey, requestHash, responseType);
+		
+		try {
+			return this.transactionTemplate.execute(status -> {
+				// an expired record is taken over through its version, a missing one inserted
+				final IdempotencyRecord idempotencyRecord = this.idempotencyRecordRepository.saveAndFlush(
+						IdempotencyRecord.builder()
+							.idempotencyKey(scopedKey)
+							.requestHash(requestHash)
+							.expiresAt(Instant.now().plus(this.ttl))
+							.version(existing.map(IdempotencyRecord::getVersion).orElse(null))
+							.build());
+				final T response = action.get();
+				idempotencyRecord.setResponseBody(this.write(response));
+				return response;
+			});
+		}
+		catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+			// another request claimed the key first, unless the action itself failed
+			final IdempotencyRecord idempotencyRecord = this.find(scopedKey)
+					.filter(r -> r.getExpiresAt().isAfter(Instant.now()))
+					.orElseThrow(() -> e);
+			log.info("*** {}, service; replay response of concurrent request with same idempotency key *", 
+					responseType.getSimpleName());
+			return this.replay(idempotencyRecord, idempotencyKey, requestHash, responseType);
+		}
+	}
+	
+	@Scheduled(initialDelayString = "${idempotency.purge-interval-ms:60000}", fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+	@Override
+	public int purgeExpired() {
+		final int purged = this.transactionTemplate.execute(status -> 
+				this.idempotencyRecordRepository.deleteExpired(Instant.now()));
+		if (purged > 0)
+			log.info("*** Integer, service; purged {} expired idempotency records *", purged);
+		return purged;
+	}
+	
+	private Optional<IdempotencyRecord> find(final String scopedKey) {
+		return this.transactionTemplate.execute(status -> this.idempotencyRecordRepository.findById(scopedKey));
+	}
+	
+	private <T> T replay(final IdempotencyRecord idempotencyRecord, final String idempotencyKey, 
+			final String requestHash, final Class<T> responseType) {
+		if (!idempotencyRecord.getRequestHash().equals(requestHash))
+			throw new IdempotencyKeyMismatchException(String.format("Idempotency key: %s was already used for another request", 
+					idempotencyKey));
+		log.info("*** {}, service; replay response for idempotency key *", responseType.getSimpleName());
+		try {
+			return this.objectMapper.readValue(idempotencyRecord.getResponseBody(), responseType);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private String hash(final Object request) {
+		try {
+			return digest(this.objectWriter.writeValueAsBytes(request));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private String write(final Object response) {
+		try {
+			return this.objectWriter.writeValueAsString(response);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Digests the key with its endpoint and principal, which keeps the stored key short
+	 * whatever their lengths; none of them can hold a line break.
+	 */
+	static String scope(final String idempotencyKey, final String endpoint, final String principal) {
+		return digest(String.join("\n", endpoint, Optional.ofNullable(principal).orElse(""), idempotencyKey)
+				.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static String digest(final byte[] bytes) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(bytes));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,14 +1,25 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
@@ -28,25 +39,78 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderItemServiceImpl implements OrderItemService {
 	
 	private final OrderItemRepository orderItemRepository;
+	private final EntityManager entityManager;
 	private final RestTemplate restTemplate;
+	private final ThreadPoolTaskExecutor enrichmentExecutor;
 	
 	@Override
 	public List<OrderItemDto> findAll() {
 		log.info("*** OrderItemDto List, service; fetch all orderItems *");
-		return this.orderItemRepository.findAll()
+		return this.enriched(this.orderItemRepository.findAll()
 				.stream()
 					.map(OrderItemMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()));
+	}
+	
+	private List<OrderItemDto> enriched(final List<OrderItemDto> orderItemDtos) {
+		// each distinct product/order is resolved once, all lookups in flight concurrently
+		final Map<Integer, CompletableFuture<ProductDto>> productDtos = this.fetchAsync(orderItemDtos.stream()
+				.map(OrderItemDto::getProductId)
+				.collect(Collectors.toSet()), AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, ProductDto.class);
+		final Map<Integer, CompletableFuture<OrderDto>> orderDtos = this.fetchAsync(orderItemDtos.stream()
+				.map(OrderItemDto::getOrderId)
+				.collect(Collectors.toSet()), AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL, OrderDto.class);
+		
+		return orderItemDtos.stream()
 					.map(o -> {
-						o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
-						o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
+						o.setProductDto(this.join(productDtos.get(o.getProductId())));
+						o.setOrderDto(this.join(orderDtos.get(o.getOrderId())));
 						return o;
 					})
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	private <T> Map<Integer, CompletableFuture<T>> fetchAsync(final Collection<Integer> ids, 
+			final String apiUrl, final Class<T> responseType) {
+		return ids.stream()
+				.collect(Collectors.toMap(Function.identity(), id -> CompletableFuture.supplyAsync(() -> 
+						this.restTemplate.getForObject(apiUrl + "/" + id, responseType), this.enrichmentExecutor)));
+	}
+	
+	private <T> T join(final CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Streams order items in chunks of {@link AppConstant#EXPORT_FETCH_SIZE}, each chunk
+	 * enriched like {@link #findAll()}.
+	 */
+	@Override
+	public void exportAll(final Consumer<OrderItemDto> consumer) {
+		log.info("*** OrderItemDto Stream, service; export all orderItems *");
+		final List<OrderItemDto> chunk = new ArrayList<>(AppConstant.EXPORT_FETCH_SIZE);
+		try (final Stream<OrderItem> orderItems = this.orderItemRepository.streamAll()) {
+			orderItems.forEach(e -> {
+				chunk.add(OrderItemMappingHelper.map(e));
+				if (chunk.size() == AppConstant.EXPORT_FETCH_SIZE) {
+					this.enriched(chunk).forEach(consumer);
+					chunk.clear();
+					// keep the persistence context from growing with the export
+					this.entityManager.clear();
+				}
+			});
+		}
+		this.enriched(chunk).forEach(consumer);
+	}
+	
 	@Override
 	public OrderItemDto findById(final OrderItemId orderItemId) {
 		log.info("*** OrderItemDto, service; fetch orderItem by id *");
@@ -0,0 +1,130 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
+import com.selimhorri.app.helper.OrderItemMappingHelper;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.ReactiveOrderItemService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Enriches order items without holding a thread while product-service and
+ * order-service answer. Repository calls block, so they run on the JPA scheduler; each
+ * distinct product and order is fetched once, at most
+ * {@code enrichment.reactive.concurrency} at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "enrichment.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveOrderItemServiceImpl implements ReactiveOrderItemService {
+	
+	private final OrderItemRepository orderItemRepository;
+	private final WebClient webClient;
+	private final Scheduler jpaScheduler;
+	private final int concurrency;
+	
+	public ReactiveOrderItemServiceImpl(
+			final OrderItemRepository orderItemRepository,
+			final WebClient.Builder webClientBuilder,
+			final Scheduler jpaScheduler,
+			@Value("${enrichment.reactive.concurrency:32}") final int concurrency) {
+		this.orderItemRepository = orderItemRepository;
+		this.webClient = webClientBuilder.build();
+		this.jpaScheduler = jpaScheduler;
+		this.concurrency = concurrency;
+	}
+	
+	@Override
+	public Flux<OrderItemDto> findAll() {
+		log.info("*** OrderItemDto Flux, service; fetch all orderItems *");
+		return Mono.fromCallable(() -> this.orderItemRepository.findAll()
+					.stream()
+						.map(OrderItemMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.subscribeOn(this.jpaScheduler)
+				.flatMapMany(orderItemDtos -> Mono.zip(
+							this.fetchAll(ids(orderItemDtos, OrderItemDto::getProductId), 
+									AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, ProductDto.class),
+							this.fetchAll(ids(orderItemDtos, OrderItemDto::getOrderId), 
+									AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL, OrderDto.class))
+						.flatMapIterable(dtos -> {
+							orderItemDtos.forEach(o -> {
+								o.setProductDto(dtos.getT1().getOrDefault(o.getProductId(), o.getProductDto()));
+								o.setOrderDto(dtos.getT2().getOrDefault(o.getOrderId(), o.getOrderDto()));
+							});
+							return orderItemDtos;
+						}));
+	}
+	
+	@Override
+	public Mono<OrderItemDto> findById(final OrderItemId orderItemId) {
+		log.info("*** OrderItemDto Mono, service; fetch orderItem by id *");
+		return Mono.fromCallable(() -> this.orderItemRepository.findById(orderItemId)
+					.map(OrderItemMappingHelper::map)
+					.orElseThrow(() -> new OrderItemNotFoundException(
+							String.format("OrderItem with id: %s not found", orderItemId))))
+				.subscribeOn(this.jpaScheduler)
+				.flatMap(o -> Mono.zip(
+							this.fetch(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, o.getProductId(), ProductDto.class),
+							this.fetch(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL, o.getOrderId(), OrderDto.class))
+						.map(dtos -> {
+							o.setProductDto(dtos.getT1());
+							o.setOrderDto(dtos.getT2());
+							return o;
+						}));
+	}
+	
+	private <T> Mono<Map<Integer, T>> fetchAll(final Set<Integer> ids, final String apiUrl, final Class<T> responseType) {
+		return Flux.fromIterable(ids)
+				.flatMap(id -> this.fetch(apiUrl, id, responseType)
+						.map(dto -> Map.entry(id, dto)), this.concurrency)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+	
+	private <T> Mono<T> fetch(final String apiUrl, final Integer id, final Class<T> responseType) {
+		return this.webClient.get()
+				.uri(apiUrl + "/" + id)
+				.retrieve()
+				.bodyToMono(responseType);
+	}
+	
+	private static Set<Integer> ids(final List<OrderItemDto> orderItemDtos, final Function<OrderItemDto, Integer> id) {
+		return orderItemDtos.stream()
+				.map(id)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,90 @@
+package com.selimhorri.app.controller;
+
+import static org.mockito.BDDMockito.given;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.resource.ReactiveOrderItemResource;
+import com.selimhorri.app.service.ReactiveOrderItemService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(controllers = ReactiveOrderItemResource.class)
+@Import(ApiExceptionHandler.class)
+@TestPropertySource(properties = "enrichment.reactive.enabled=true")
+@ActiveProfiles("test")
+class ReactiveOrderItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveOrderItemService reactiveOrderItemService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Test
+    void findAll_returnsEnrichedCollection() {
+        given(reactiveOrderItemService.findAll()).willReturn(Flux.just(orderItem(10, 1), orderItem(20, 2)));
+
+        webTestClient.get().uri("/api/shippings/reactive")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.collection.length()").isEqualTo(2)
+                .jsonPath("$.collection[0].product.productTitle").isEqualTo("product 10")
+                .jsonPath("$.collection[1].order.orderDesc").isEqualTo("order 2");
+    }
+
+    @Test
+    void findById_readsOrderIdBeforeProductIdFromThePath() {
+        given(reactiveOrderItemService.findById(new OrderItemId(10, 1))).willReturn(Mono.just(orderItem(10, 1)));
+
+        webTestClient.get().uri("/api/shippings/reactive/{orderId}/{productId}", "1", "10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.productId").isEqualTo(10)
+                .jsonPath("$.orderId").isEqualTo(1)
+                .jsonPath("$.product.productTitle").isEqualTo("product 10")
+                .jsonPath("$.order.orderDesc").isEqualTo("order 1");
+    }
+
+    private static OrderItemDto orderItem(Integer productId, Integer orderId) {
+        return OrderItemDto.builder()
+                .productId(productId)
+                .orderId(orderId)
+                .orderedQuantity(1)
+                .productDto(ProductDto.builder()
+                        .productId(productId)
+                        .productTitle("product " + productId)
+                        .build())
+                .orderDto(OrderDto.builder()
+                        .orderId(orderId)
+                        .orderDesc("order " + orderId)
+                        .build())
+                .build();
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.repository.OrderItemRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderItemServiceTest {
+
+    private static final String PRODUCT_URL = AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/";
+    private static final String ORDER_URL = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/";
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @MockBean
+    private OrderItemRepository orderItemRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void findAll_fetchesEachDistinctProductAndOrderOnce() {
+        given(orderItemRepository.findAll()).willReturn(List.of(
+                buildOrderItem(10, 1),
+                buildOrderItem(10, 2),
+                buildOrderItem(20, 1)));
+        given(restTemplate.getForObject(PRODUCT_URL + 10, ProductDto.class))
+                .willReturn(ProductDto.builder().productId(10).productTitle("p10").build());
+        given(restTemplate.getForObject(PRODUCT_URL + 20, ProductDto.class))
+                .willReturn(ProductDto.builder().productId(20).productTitle("p20").build());
+        given(restTemplate.getForObject(ORDER_URL + 1, OrderDto.class))
+                .willReturn(OrderDto.builder().orderId(1).orderDesc("o1").build());
+        given(restTemplate.getForObject(ORDER_URL + 2, OrderDto.class))
+                .willReturn(OrderDto.builder().orderId(2).orderDesc("o2").build());
+
+        List<OrderItemDto> result = orderItemService.findAll();
+
+        assertThat(result).hasSize(3);
+        assertThat(result).extracting(o -> o.getProductDto().getProductTitle())
+                .containsExactly("p10", "p10", "p20");
+        assertThat(result).extracting(o -> o.getOrderDto().getOrderDesc())
+                .containsExactly("o1", "o2", "o1");
+        verify(restTemplate, times(1)).getForObject(PRODUCT_URL + 10, ProductDto.class);
+        verify(restTemplate, times(1)).getForObject(PRODUCT_URL + 20, ProductDto.class);
+        verify(restTemplate, times(1)).getForObject(ORDER_URL + 1, OrderDto.class);
+        verify(restTemplate, times(1)).getForObject(ORDER_URL + 2, OrderDto.class);
+    }
+
+    @Test
+    void exportAll_streamsOrderItemsWithProductAndOrder() {
+        given(orderItemRepository.streamAll()).willReturn(Stream.of(
+                buildOrderItem(10, 1),
+                buildOrderItem(20, 1)));
+        given(restTemplate.getForObject(PRODUCT_URL + 10, ProductDto.class))
+                .willReturn(ProductDto.builder().productId(10).productTitle("p10").build());
+        given(restTemplate.getForObject(PRODUCT_URL + 20, ProductDto.class))
+                .willReturn(ProductDto.builder().productId(20).productTitle("p20").build());
+        given(restTemplate.getForObject(ORDER_URL + 1, OrderDto.class))
+                .willReturn(OrderDto.builder().orderId(1).orderDesc("o1").build());
+
+        List<OrderItemDto> exported = new ArrayList<>();
+        orderItemService.exportAll(exported::add);
+
+        assertThat(exported).extracting(o -> o.getProductDto().getProductTitle())
+                .containsExactly("p10", "p20");
+        assertThat(exported).extracting(o -> o.getOrderDto().getOrderDesc())
+                .containsExactly("o1", "o1");
+        verify(restTemplate, times(1)).getForObject(ORDER_URL + 1, OrderDto.class);
+    }
+
+    @Test
+    void findAll_propagatesDownstreamFailure() {
+        given(orderItemRepository.findAll()).willReturn(List.of(buildOrderItem(10, 1)));
+        given(restTemplate.getForObject(eq(PRODUCT_URL + 10), eq(ProductDto.class)))
+                .willThrow(new RestClientException("product-service down"));
+        given(restTemplate.getForObject(ORDER_URL + 1, OrderDto.class))
+                .willReturn(OrderDto.builder().orderId(1).build());
+
+        RestClientException e = assertThrows(RestClientException.class, () -> orderItemService.findAll());
+        assertThat(e.getMessage()).isEqualTo("product-service down");
+    }
+
+    private OrderItem buildOrderItem(Integer productId, Integer orderId) {
+        return OrderItem.builder()
+                .productId(productId)
+                .orderId(orderId)
+                .orderedQuantity(1)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.selimhorri.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.config.client.ReactiveClientConfig;
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.impl.ReactiveOrderItemServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.scheduler.Schedulers;
+
+class ReactiveOrderItemServiceTest {
+
+    private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+    private final ConcurrentMap<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private ReactiveOrderItemService reactiveOrderItemService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/product-service/api/products", exchange -> respond(exchange,
+                id -> "{\"productId\":" + id + ",\"productTitle\":\"product " + id + "\"}"));
+        server.createContext("/order-service/api/orders", exchange -> respond(exchange,
+                id -> "{\"orderId\":" + id + ",\"orderDesc\":\"order " + id + "\"}"));
+        server.setExecutor(executor);
+        server.start();
+
+        ObjectProvider<DiscoveryClient> discoveryClient = mock(ObjectProvider.class);
+        WebClient.Builder webClientBuilder = new ReactiveClientConfig()
+                .webClientBuilderBean(new ClientProperties(), discoveryClient, 1024 * 1024)
+                // hace de balanceador: PRODUCT-SERVICE y ORDER-SERVICE resuelven al servidor local
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(local(request.url()))
+                        .build()));
+        reactiveOrderItemService = new ReactiveOrderItemServiceImpl(
+                orderItemRepository, webClientBuilder, Schedulers.immediate(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findAll_fetchesEachProductAndOrderOnceAndEnrichesOrderItems() {
+        given(orderItemRepository.findAll()).willReturn(List.of(
+                orderItem(10, 1), orderItem(20, 1), orderItem(10, 2)));
+
+        List<OrderItemDto> orderItemDtos = reactiveOrderItemService.findAll()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(orderItemDtos).extracting(o -> o.getProductDto().getProductTitle())
+                .containsExactly("product 10", "product 20", "product 10");
+        assertThat(orderItemDtos).extracting(o -> o.getOrderDto().getOrderDesc())
+                .containsExactly("order 1", "order 1", "order 2");
+        assertThat(requests).containsOnlyKeys(
+                "/product-service/api/products/10", "/product-service/api/products/20",
+                "/order-service/api/orders/1", "/order-service/api/orders/2");
+        assertThat(requests.values()).allMatch(count -> count.get() == 1);
+    }
+
+    @Test
+    void findById_enrichesOrderItemWithItsProductAndOrder() {
+        OrderItemId orderItemId = new OrderItemId(10, 1);
+        given(orderItemRepository.findById(orderItemId)).willReturn(Optional.of(orderItem(10, 1)));
+
+        OrderItemDto orderItemDto = reactiveOrderItemService.findById(orderItemId).block(Duration.ofSeconds(5));
+
+        assertThat(orderItemDto.getProductDto().getProductTitle()).isEqualTo("product 10");
+        assertThat(orderItemDto.getOrderDto().getOrderDesc()).isEqualTo("order 1");
+    }
+
+    @Test
+    void findById_failsWithoutCallingOtherServicesWhenOrderItemDoesNotExist() {
+        OrderItemId orderItemId = new OrderItemId(99, 9);
+        given(orderItemRepository.findById(orderItemId)).willReturn(Optional.empty());
+
+        assertThrows(OrderItemNotFoundException.class,
+                () -> reactiveOrderItemService.findById(orderItemId).block(Duration.ofSeconds(5)));
+        assertThat(requests).isEmpty();
+    }
+
+    private void respond(HttpExchange exchange, IntFunction<String> body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        byte[] bytes = body.apply(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)))
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private URI local(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .host("localhost")
+                .port(server.getAddress().getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static OrderItem orderItem(Integer productId, Integer orderId) {
+        return OrderItem.builder()
+                .productId(productId)
+                .orderId(orderId)
+                .orderedQuantity(1)
+                .build();
+    }
+
+}
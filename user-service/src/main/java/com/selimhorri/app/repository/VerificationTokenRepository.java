@@ -1,11 +1,21 @@
 package com.selimhorri.app.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.selimhorri.app.domain.VerificationToken;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	List<VerificationToken> findAll();
 	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	Optional<VerificationToken> findById(final Integer verificationTokenId);
 	
 }
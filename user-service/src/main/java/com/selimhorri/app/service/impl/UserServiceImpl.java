@@ -1,6 +1,7 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
@@ -30,7 +31,18 @@ public class UserServiceImpl implements UserService {
 		return this.userRepository.findAll()
 				.stream()
 					.map(UserMappingHelper::map)
-					.distinct()
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	public List<UserDto> findAllByIds(final Set<Integer> userIds) {
+		log.info("*** UserDto List, service; fetch users by ids *");
+		if (userIds == null || userIds.isEmpty()) {
+			return List.of();
+		}
+		return this.userRepository.findAllByUserIdIn(userIds)
+				.stream()
+					.map(UserMappingHelper::map)
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
@@ -30,7 +30,6 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
 		return this.verificationTokenRepository.findAll()
 				.stream()
 					.map(VerificationTokenMappingHelper::map)
-					.distinct()
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
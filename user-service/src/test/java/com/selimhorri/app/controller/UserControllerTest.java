@@ -12,6 +12,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,6 +59,21 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.collection[1].userId").value(2));
     }
 
+    @Test
+    void getUsersByIds_returnsCollectionResponse() throws Exception {
+        UserDto u1 = UserDto.builder().userId(1).firstName("John").build();
+        UserDto u2 = UserDto.builder().userId(2).firstName("Jane").build();
+        Set<Integer> ids = Set.of(1, 2);
+
+        given(userService.findAllByIds(ids)).willReturn(Arrays.asList(u1, u2));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(2));
+    }
+
     @Test
     void getUserById_returnsUser() throws Exception {
         UserDto user = UserDto.builder()
@@ -0,0 +1,82 @@
+package com.selimhorri.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.domain.User;
+import com.selimhorri.app.domain.VerificationToken;
+import com.selimhorri.app.dto.VerificationTokenDto;
+import com.selimhorri.app.helper.VerificationTokenMappingHelper;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class VerificationTokenRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VerificationTokenRepository verificationTokenRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            User user = entityManager.persist(User.builder()
+                    .firstName("User " + i)
+                    .email("user" + i + "@example.com")
+                    .build());
+            Credential credential = entityManager.persist(Credential.builder()
+                    .username("user-" + UUID.randomUUID())
+                    .password("secret")
+                    .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                    .isEnabled(true)
+                    .isAccountNonExpired(true)
+                    .isAccountNonLocked(true)
+                    .isCredentialsNonExpired(true)
+                    .user(user)
+                    .build());
+            entityManager.persist(VerificationToken.builder()
+                    .token(UUID.randomUUID().toString())
+                    .expireDate(LocalDate.now().plusDays(1))
+                    .credential(credential)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_mapsTokensWithCredentialsInOneQuery() {
+        List<VerificationTokenDto> tokens = verificationTokenRepository.findAll().stream()
+                .map(VerificationTokenMappingHelper::map)
+                .collect(Collectors.toList());
+
+        assertThat(tokens).hasSizeGreaterThanOrEqualTo(5);
+        assertThat(tokens).allSatisfy(t -> assertThat(t.getCredentialDto().getUsername()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+}
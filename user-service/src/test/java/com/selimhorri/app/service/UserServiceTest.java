@@ -8,6 +8,7 @@ import static org.mockito.Mockito.verify;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +50,23 @@ class UserServiceTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    void findAllByIds_returnsRequestedUsersFromSingleQuery() {
+        User user1 = buildUser(1, "John", "Doe", "john");
+        User user2 = buildUser(2, "Jane", "Doe", "jane");
+        Set<Integer> ids = Set.of(1, 2);
+
+        given(userRepository.findAllByUserIdIn(ids)).willReturn(Arrays.asList(user1, user2));
+
+        List<UserDto> result = userService.findAllByIds(ids);
+
+        assertThat(result)
+                .extracting(UserDto::getUserId)
+                .containsExactlyInAnyOrder(1, 2);
+
+        verify(userRepository).findAllByUserIdIn(ids);
+    }
+
     @Test
     void findById_returnsUserWhenExists() {
         Integer id = 1;